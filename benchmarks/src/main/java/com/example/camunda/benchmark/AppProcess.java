@@ -0,0 +1,100 @@
+package com.example.camunda.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application lancée dans une JVM séparée, sur un port libre, journal dans target/&lt;répertoire&gt;/&lt;nom&gt;.log.
+ * Partagé par les harnais qui mesurent l'application de l'extérieur (démarrage, charge HTTP).
+ */
+public class AppProcess implements AutoCloseable {
+
+    public static final String EXEC_JAR = "target/camunda-person-api-1.0.0-exec.jar";
+
+    private static final HttpClient HTTP = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(500))
+            .build();
+
+    private final Process process;
+    private final int port;
+    private final long startNanos;
+
+    private AppProcess(Process process, int port, long startNanos) {
+        this.process = process;
+        this.port = port;
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Lance la commande (java ... -jar ...) en ajoutant --server.port
+     */
+    public static AppProcess start(List<String> command, String logDirectory, String logName) throws IOException {
+        int port = freePort();
+        List<String> fullCommand = new ArrayList<>(command);
+        fullCommand.add("--server.port=" + port);
+
+        File directory = new File(logDirectory);
+        directory.mkdirs();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(fullCommand)
+                .redirectErrorStream(true)
+                .redirectOutput(new File(directory, logName + ".log"))
+                .start();
+        return new AppProcess(process, port, start);
+    }
+
+    public static String java() {
+        return ProcessHandle.current().info().command().orElse("java");
+    }
+
+    public String url(String path) {
+        return "http://localhost:" + port + path;
+    }
+
+    /**
+     * Attend une réponse 200 sur le chemin ; renvoie le temps écoulé depuis le lancement, en millisecondes
+     */
+    public long awaitOk(String path, long timeoutMillis) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url(path))).timeout(Duration.ofSeconds(10)).build();
+        while (true) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + process.exitValue() + " before " + path);
+            }
+            long elapsed = (System.nanoTime() - startNanos) / 1_000_000;
+            if (elapsed > timeoutMillis) {
+                throw new IllegalStateException("Timed out waiting for " + path);
+            }
+            try {
+                if (HTTP.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return (System.nanoTime() - startNanos) / 1_000_000;
+                }
+            } catch (IOException e) {
+                // Port pas encore ouvert
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.camunda.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Propriétés communes pour démarrer l'application dans un benchmark :
+ * port aléatoire et logs réduits pour ne pas mesurer l'écriture des logs DEBUG
+ */
+final class BenchmarkProperties {
+
+    static final String[] QUIET_APPLICATION = {
+            "server.port=0",
+            "spring.jpa.show-sql=false",
+            "logging.level.root=WARN",
+            "logging.level.org.camunda=WARN",
+            "logging.level.com.example=WARN"
+    };
+
+    private BenchmarkProperties() {
+    }
+
+    /**
+     * Propriétés passées en arguments de ligne de commande, prioritaires sur application.yml et les profils
+     * (SpringApplicationBuilder.properties ne fixe que des valeurs par défaut)
+     */
+    static String[] arguments(String[]... properties) {
+        return Arrays.stream(properties)
+                .flatMap(Arrays::stream)
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.camunda.benchmark;
+
+import com.example.camunda.CamundaPersonApiApplication;
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.history.HistoricJobLog;
+import org.camunda.bpm.engine.variable.Variables;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cluster de 1 à N nœuds (contextes Spring complets, profil "cluster") dans une même JVM, sur une base H2
+ * partagée. Pour chaque taille de cluster : démarre des instances, attend que les jobs soient tous exécutés,
+ * puis vérifie dans les logs de jobs la répartition par nœud et l'absence de double exécution.
+ *
+ * java -cp benchmarks/target/benchmarks.jar com.example.camunda.benchmark.ClusterScalingHarness [maxNodes] [instances]
+ *
+ * Les nœuds partagent le CPU de la machine : la mesure montre la répartition et le coût de la contention
+ * sur la base, pas le gain de machines supplémentaires.
+ */
+public class ClusterScalingHarness {
+
+    private static final String PROCESS_KEY = "age-based-routing-process";
+    private static final long DRAIN_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(5);
+
+    public static void main(String[] args) throws Exception {
+        int maxNodes = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int instances = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+
+        List<String> report = new ArrayList<>();
+        boolean consistent = true;
+        for (int nodes = 1; nodes <= maxNodes; nodes++) {
+            RunResult result = run(nodes, instances);
+            consistent &= result.consistent();
+            report.add(result.toString());
+        }
+
+        System.out.println();
+        System.out.println("nodes  instances  seconds  instances/s  duplicates  failures  missing  jobs per node");
+        report.forEach(System.out::println);
+        System.exit(consistent ? 0 : 1);
+    }
+
+    private static RunResult run(int nodes, int instances) throws Exception {
+        String database = "cluster_" + nodes + "_" + System.nanoTime();
+        List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+        try {
+            for (int node = 1; node <= nodes; node++) {
+                contexts.add(startNode(database, node));
+            }
+            RuntimeService runtimeService = contexts.get(0).getBean(RuntimeService.class);
+            HistoryService historyService = contexts.get(0).getBean(HistoryService.class);
+
+            long start = System.nanoTime();
+            startInstances(runtimeService, instances);
+            awaitDrained(runtimeService);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            List<HistoricJobLog> successLogs = historyService.createHistoricJobLogQuery().successLog().list();
+            Map<String, Long> jobsPerNode = successLogs.stream()
+                    .collect(Collectors.groupingBy(HistoricJobLog::getHostname, TreeMap::new, Collectors.counting()));
+            long duplicates = successLogs.stream()
+                    .collect(Collectors.groupingBy(HistoricJobLog::getJobId, Collectors.counting()))
+                    .values().stream()
+                    .filter(count -> count > 1)
+                    .count();
+            long failures = historyService.createHistoricJobLogQuery().failureLog().count();
+            long finished = historyService.createHistoricProcessInstanceQuery()
+                    .processDefinitionKey(PROCESS_KEY)
+                    .finished()
+                    .count();
+
+            return new RunResult(nodes, instances, seconds, jobsPerNode, duplicates, failures, instances - finished);
+        } finally {
+            contexts.forEach(ConfigurableApplicationContext::close);
+        }
+    }
+
+    private static ConfigurableApplicationContext startNode(String database, int node) {
+        String[] clusterNode = {
+                "spring.datasource.url=jdbc:h2:mem:" + database + "_main;DB_CLOSE_DELAY=-1",
+                "app.datasource.minors.url=jdbc:h2:mem:" + database + "_minors;DB_CLOSE_DELAY=-1",
+                "app.cluster.node-id=node-" + node,
+                "camunda.bpm.process-engine-name=node" + node,
+                // Les webapps Camunda ne supportent pas plusieurs moteurs par JVM
+                "spring.autoconfigure.exclude=org.camunda.bpm.spring.boot.starter.webapp.CamundaBpmWebappAutoConfiguration"
+        };
+        return new SpringApplicationBuilder(CamundaPersonApiApplication.class)
+                .profiles("cluster")
+                .run(BenchmarkProperties.arguments(BenchmarkProperties.QUIET_APPLICATION, clusterNode));
+    }
+
+    private static void startInstances(RuntimeService runtimeService, int instances) throws InterruptedException {
+        ExecutorService starters = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < instances; i++) {
+            long personId = i % 5 + 1;
+            starters.submit(() -> runtimeService.startProcessInstanceByKey(PROCESS_KEY,
+                    Variables.createVariables().putValue("personId", personId)));
+        }
+        starters.shutdown();
+        starters.awaitTermination(5, TimeUnit.MINUTES);
+    }
+
+    private static void awaitDrained(RuntimeService runtimeService) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MS;
+        while (runtimeService.createProcessInstanceQuery().processDefinitionKey(PROCESS_KEY).count() > 0) {
+            if (System.currentTimeMillis() > deadline) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private record RunResult(int nodes, int instances, double seconds, Map<String, Long> jobsPerNode,
+                             long duplicates, long failures, long missing) {
+
+        boolean consistent() {
+            return duplicates == 0 && missing == 0;
+        }
+
+        @Override
+        public String toString() {
+            String spread = jobsPerNode.entrySet().stream()
+                    .map(entry -> entry.getKey() + "=" + entry.getValue())
+                    .collect(Collectors.joining(","));
+            return String.format("%5d  %9d  %7.2f  %11.1f  %10d  %8d  %7d  %s",
+                    nodes, instances, seconds, instances / seconds, duplicates, failures, missing, spread);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.camunda.benchmark;
+
+import com.example.camunda.dataset.SyntheticPersons;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Charge HTTP mixte en boucle ouverte : les requêtes partent à débit fixe, que les précédentes aient répondu
+ * ou non, et la latence est mesurée depuis l'instant d'envoi prévu (un serveur qui prend du retard voit ce retard
+ * compté, pas masqué par des clients qui attendent). L'application est lancée sur un port libre avec
+ * N personnes synthétiques réparties sur les deux shards (app.seed.persons), puis chaque opération du mélange
+ * est tirée au hasard selon son poids, avec une graine fixe pour des runs reproductibles.
+ *
+ * java [-Dmix=lookup-id:30,search:10,...] [-Dseed=42] [-Dname=mixed] [-Dapp.args="..."] \
+ *     -cp benchmarks/target/benchmarks.jar com.example.camunda.benchmark.MixedWorkloadHarness \
+ *     [requests/s] [seconds] [persons]
+ *
+ * À lancer depuis la racine du projet après mvn package. Opérations :
+ * - lookup-id : GET /api/persons/{id} (adultes, base principale)
+ * - lookup-email : GET /api/persons/email/{email} (adultes, base principale)
+ * - search : GET /api/persons/search?term=seed-&lt;i&gt;@
+ * - create : POST /api/persons (e-mail unique)
+ * - age-routing-start : POST /api/process/age-routing/start (adultes et mineurs)
+ * - person-process-start : POST /api/process/start-person-process
+ * Résultats dans target/load-harness/ : &lt;name&gt;.csv (débit, erreurs, rejets et percentiles par opération,
+ * à comparer entre deux runs) et &lt;name&gt;-&lt;opération&gt;.hgrm (distributions complètes, format HdrHistogram).
+ */
+public class MixedWorkloadHarness {
+
+    private static final long STARTUP_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final long WARMUP_SECONDS = 10;
+    private static final int ID_SAMPLE = 1000;
+    // Garde-fou mémoire : au-delà, les requêtes ne sont plus envoyées mais comptées "skipped"
+    private static final int MAX_OUTSTANDING = 10_000;
+    private static final String DEFAULT_MIX =
+            "lookup-id:25,lookup-email:20,search:10,create:10,age-routing-start:20,person-process-start:15";
+
+    private static final List<String> COMMON_ARGS = List.of(
+            "--logging.level.org.camunda=INFO",
+            "--logging.level.com.example=INFO",
+            "--spring.jpa.show-sql=false");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        int rate = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        int persons = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        String name = System.getProperty("name", "mixed");
+        long seed = Long.getLong("seed", 42);
+        Map<String, Integer> mix = parseMix(System.getProperty("mix", DEFAULT_MIX));
+
+        try (AppProcess app = AppProcess.start(command(persons), "target/load-harness", name)) {
+            long ready = app.awaitOk("/actuator/health/readiness", STARTUP_TIMEOUT_MS);
+            System.out.printf("%s: ready in %d ms with %d seeded persons%n", name, ready, persons);
+
+            Workload workload = new Workload(app, persons, new Random(seed));
+            System.out.printf("%s: warming up at %d requests/s for %d s%n", name, rate, WARMUP_SECONDS);
+            run(workload, mix, rate, WARMUP_SECONDS, new Random(seed + 1));
+
+            System.out.printf("%s: measuring at %d requests/s for %d s, mix %s%n", name, rate, seconds, mix);
+            Map<String, OperationStats> results = run(workload, mix, rate, seconds, new Random(seed + 2));
+            report(name, rate, seconds, persons, results);
+        }
+    }
+
+    private static List<String> command(int persons) {
+        List<String> command = new ArrayList<>(List.of(AppProcess.java(), "-jar", AppProcess.EXEC_JAR));
+        command.addAll(COMMON_ARGS);
+        command.add("--app.seed.persons=" + persons);
+        String extraArgs = System.getProperty("app.args", "").trim();
+        if (!extraArgs.isEmpty()) {
+            command.addAll(List.of(extraArgs.split("\\s+")));
+        }
+        return command;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (!Workload.OPERATIONS.contains(parts[0])) {
+                throw new IllegalArgumentException("Unknown operation " + parts[0] + ", expected one of " + Workload.OPERATIONS);
+            }
+            weights.put(parts[0], Integer.parseInt(parts[1]));
+        }
+        return weights;
+    }
+
+    /**
+     * Envoie rate requêtes par seconde pendant seconds secondes, puis attend les réponses en cours
+     */
+    private static Map<String, OperationStats> run(Workload workload, Map<String, Integer> mix, int rate, long seconds,
+                                                   Random random) throws InterruptedException {
+        Map<String, OperationStats> stats = new LinkedHashMap<>();
+        mix.keySet().forEach(operation -> stats.put(operation, new OperationStats()));
+        String[] picks = mix.entrySet().stream()
+                .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+                .toArray(String[]::new);
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = rate * seconds;
+        Semaphore outstanding = new Semaphore(MAX_OUTSTANDING);
+        long start = System.nanoTime();
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                long intended = start + i * intervalNanos;
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                String operation = picks[random.nextInt(picks.length)];
+                OperationStats operationStats = stats.get(operation);
+                HttpRequest request = workload.request(operation, random);
+                if (!outstanding.tryAcquire()) {
+                    operationStats.skipped.increment();
+                    continue;
+                }
+                pool.submit(() -> {
+                    try {
+                        operationStats.record(workload.send(request), intended);
+                    } finally {
+                        outstanding.release();
+                    }
+                });
+            }
+        }
+        return stats;
+    }
+
+    private static void report(String name, int rate, int seconds, int persons, Map<String, OperationStats> results)
+            throws Exception {
+        try (PrintStream csv = new PrintStream("target/load-harness/" + name + ".csv")) {
+            csv.println("operation,ok_per_s,errors,rejected,skipped,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+            System.out.println();
+            System.out.printf("%d requests/s, %d s, %d persons%n", rate, seconds, persons);
+            for (Map.Entry<String, OperationStats> entry : results.entrySet()) {
+                OperationStats stats = entry.getValue();
+                Histogram latencies = stats.latencies;
+                try (PrintStream out = new PrintStream("target/load-harness/" + name + "-" + entry.getKey() + ".hgrm")) {
+                    latencies.outputPercentileDistribution(out, 1000.0);
+                }
+                String line = String.format(Locale.ROOT, "%s,%.1f,%d,%d,%d,%.1f,%.1f,%.1f,%.1f,%.1f",
+                        entry.getKey(), (double) latencies.getTotalCount() / seconds,
+                        stats.errors.sum(), stats.rejected.sum(), stats.skipped.sum(),
+                        latencies.getValueAtPercentile(50) / 1000.0, latencies.getValueAtPercentile(90) / 1000.0,
+                        latencies.getValueAtPercentile(99) / 1000.0, latencies.getValueAtPercentile(99.9) / 1000.0,
+                        latencies.getMaxValue() / 1000.0);
+                csv.println(line);
+                System.out.printf("%-22s %7.1f ok/s  errors %5d  rejected %5d  skipped %5d  p50 %8.1f ms  p99 %8.1f ms  max %8.1f ms%n",
+                        entry.getKey(), (double) latencies.getTotalCount() / seconds,
+                        stats.errors.sum(), stats.rejected.sum(), stats.skipped.sum(),
+                        latencies.getValueAtPercentile(50) / 1000.0, latencies.getValueAtPercentile(99) / 1000.0,
+                        latencies.getMaxValue() / 1000.0);
+            }
+        }
+        System.out.printf("Results in target/load-harness/%s.csv%n", name);
+    }
+
+    /**
+     * Latences depuis l'envoi prévu des réponses réussies ; erreurs (4xx/5xx, exceptions) et rejets
+     * du contrôle d'admission (429/503) comptés à part
+     */
+    private static final class OperationStats {
+        private final Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(5), 3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+
+        private void record(int status, long intendedNanos) {
+            if (status == 429 || status == 503) {
+                rejected.increment();
+            } else if (status < 200 || status >= 400) {
+                errors.increment();
+            } else {
+                latencies.recordValue(Math.min((System.nanoTime() - intendedNanos) / 1000,
+                        latencies.getHighestTrackableValue()));
+            }
+        }
+    }
+
+    /**
+     * Fabrique des requêtes vers des personnes existantes : identifiants des adultes relus une fois au début
+     * (les identifiants des deux shards se chevauchent), e-mails déduits de l'index du jeu synthétique
+     */
+    private static final class Workload {
+
+        private static final List<String> OPERATIONS = List.of("lookup-id", "lookup-email", "search", "create",
+                "age-routing-start", "person-process-start");
+
+        private final AppProcess app;
+        private final int persons;
+        private final HttpClient http;
+        private final long[] adultIds;
+        private final AtomicLong created = new AtomicLong();
+        private final Map<String, Function<Random, HttpRequest>> factories = new LinkedHashMap<>();
+
+        private Workload(AppProcess app, int persons, Random random) throws Exception {
+            this.app = app;
+            this.persons = persons;
+            this.http = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            this.adultIds = sampleAdultIds(random);
+
+            factories.put("lookup-id", r -> get("/api/persons/" + adultIds[r.nextInt(adultIds.length)]));
+            factories.put("lookup-email", r -> get("/api/persons/email/" + encode(SyntheticPersons.email(adult(r)))));
+            factories.put("search", r -> get("/api/persons/search?term=" + encode("seed-" + r.nextInt(persons) + "@")));
+            factories.put("create", r -> post("/api/persons", String.format(
+                    "{\"firstName\":\"Load\",\"lastName\":\"Test\",\"email\":\"load-%d-%d@example.com\",\"dateOfBirth\":\"1990-01-01\",\"city\":\"Paris\",\"country\":\"France\"}",
+                    ProcessHandle.current().pid(), created.incrementAndGet())));
+            factories.put("age-routing-start", r -> post("/api/process/age-routing/start",
+                    "{\"email\":\"" + SyntheticPersons.email(r.nextInt(persons)) + "\"}"));
+            factories.put("person-process-start", r -> post("/api/process/start-person-process",
+                    "{\"email\":\"" + SyntheticPersons.email(adult(r)) + "\"}"));
+        }
+
+        private HttpRequest request(String operation, Random random) {
+            return factories.get(operation).apply(random);
+        }
+
+        private int send(HttpRequest request) {
+            try {
+                return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (Exception e) {
+                return -1;
+            }
+        }
+
+        private int adult(Random random) {
+            int index;
+            do {
+                index = random.nextInt(persons);
+            } while (SyntheticPersons.isMinor(index));
+            return index;
+        }
+
+        private long[] sampleAdultIds(Random random) throws Exception {
+            long[] ids = new long[Math.min(ID_SAMPLE, persons * 3 / 4)];
+            for (int i = 0; i < ids.length; i++) {
+                HttpResponse<String> response = http.send(
+                        get("/api/persons/email/" + encode(SyntheticPersons.email(adult(random)))),
+                        HttpResponse.BodyHandlers.ofString());
+                JsonNode body = MAPPER.readTree(response.body());
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Seeded person not found: " + body.path("message").asText());
+                }
+                ids[i] = body.path("data").path("id").asLong();
+            }
+            return ids;
+        }
+
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(URI.create(app.url(path))).timeout(Duration.ofMinutes(1)).build();
+        }
+
+        private HttpRequest post(String path, String body) {
+            return HttpRequest.newBuilder(URI.create(app.url(path)))
+                    .timeout(Duration.ofMinutes(1))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+
+        private static String encode(String value) {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.camunda.benchmark;
+
+import com.example.camunda.CamundaPersonApiApplication;
+import com.example.camunda.dataset.SyntheticPersons;
+import com.example.camunda.delegate.AgeBasedRoutingDelegate;
+import com.example.camunda.model.Person;
+import com.example.camunda.repository.PersonRepository;
+import com.example.camunda.service.AgeBasedPersonService;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chemins chauds de la persistance et du routage, sur l'application réelle et des tables de 1k à 1M lignes :
+ * écriture routée par âge, lectures par ID (trouvé chez les adultes, chez les mineurs, absent) et par e-mail,
+ * comptage des deux shards, recherche JPA, et délégué de routage appelé directement avec une exécution simulée
+ * (variables en mémoire, sans moteur).
+ * Un quart des lignes sont des mineurs, comme pour app.seed.persons ; leurs identifiants sont décalés
+ * de MINOR_ID_OFFSET pour qu'une lecture par ID ne soit pas servie par la base des adultes.
+ * Allocations et GC par opération : -prof gc.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class PersistenceHotPathBenchmark {
+
+    private static final long MINOR_ID_OFFSET = 100_000_000L;
+    private static final int BATCH_SIZE = 1000;
+    private static final int INPUTS = 4096;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO persons (first_name, last_name, email, phone_number, date_of_birth,
+                                 address, city, country, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            """;
+    // Identifiants explicites chez les mineurs seulement : l'identité des adultes continue de servir savePerson
+    private static final String INSERT_WITH_ID_SQL = """
+            INSERT INTO persons (id, first_name, last_name, email, phone_number, date_of_birth,
+                                 address, city, country, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            """;
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private AgeBasedPersonService personService;
+    private PersonRepository personRepository;
+    private AgeBasedRoutingDelegate routingDelegate;
+
+    private final long[] adultIds = new long[INPUTS];
+    private final long[] minorIds = new long[INPUTS];
+    private final String[] emails = new String[INPUTS];
+    private final String[] searchTerms = new String[INPUTS];
+    private final AtomicLong created = new AtomicLong();
+    private int index;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(CamundaPersonApiApplication.class)
+                .run(BenchmarkProperties.arguments(BenchmarkProperties.QUIET_APPLICATION));
+        personService = context.getBean(AgeBasedPersonService.class);
+        personRepository = context.getBean(PersonRepository.class);
+        routingDelegate = context.getBean(AgeBasedRoutingDelegate.class);
+
+        JdbcTemplate adults = context.getBean("adultsJdbcTemplate", JdbcTemplate.class);
+        JdbcTemplate minors = context.getBean("minorsJdbcTemplate", JdbcTemplate.class);
+        personService.initializeTables();
+        insert(adults, minors);
+        long firstAdultId = adults.queryForObject("SELECT MIN(id) FROM persons WHERE email LIKE 'seed-%'", Long.class);
+        long lastAdultId = adults.queryForObject("SELECT MAX(id) FROM persons WHERE email LIKE 'seed-%'", Long.class);
+
+        // Index tirés une fois : les mêmes entrées pour tous les benchmarks d'un même nombre de lignes
+        Random random = new Random(42);
+        int minorCount = (rows + 3) / 4;
+        for (int i = 0; i < INPUTS; i++) {
+            adultIds[i] = firstAdultId + random.nextInt((int) (lastAdultId - firstAdultId + 1));
+            minorIds[i] = MINOR_ID_OFFSET + random.nextInt(minorCount);
+            emails[i] = SyntheticPersons.email(random.nextInt(rows));
+            searchTerms[i] = "seed-" + random.nextInt(rows) + "@";
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Person savePerson() {
+        long n = created.incrementAndGet();
+        Person person = new Person();
+        person.setFirstName("Bench");
+        person.setLastName("Mark");
+        person.setEmail("bench-" + n + "@example.com");
+        person.setDateOfBirth(LocalDate.now().minusYears(n % 4 == 0 ? 10 : 30));
+        person.setCity("Paris");
+        person.setCountry("France");
+        return personService.savePerson(person);
+    }
+
+    @Benchmark
+    public Optional<Person> getPersonByIdAdult() {
+        return personService.getPersonById(adultIds[next()]);
+    }
+
+    @Benchmark
+    public Optional<Person> getPersonByIdMinor() {
+        return personService.getPersonById(minorIds[next()]);
+    }
+
+    @Benchmark
+    public Optional<Person> getPersonByIdMiss() {
+        return personService.getPersonById(-1L - next());
+    }
+
+    @Benchmark
+    public Optional<Person> getPersonByEmail() {
+        return personService.getPersonByEmail(emails[next()]);
+    }
+
+    @Benchmark
+    public long countPersons() {
+        return personService.countPersons();
+    }
+
+    @Benchmark
+    public List<Person> findBySearchTerm() {
+        return personRepository.findBySearchTerm(searchTerms[next()]);
+    }
+
+    @Benchmark
+    public Map<String, Object> routingDelegate() throws Exception {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("email", emails[next()]);
+        routingDelegate.execute(execution(variables));
+        return variables;
+    }
+
+    private int next() {
+        return index++ & (INPUTS - 1);
+    }
+
+    /**
+     * Insère rows personnes par lots, adultes et mineurs dans leur base, e-mails seed-&lt;i&gt;@domaine (SyntheticPersons)
+     */
+    private void insert(JdbcTemplate adults, JdbcTemplate minors) {
+        List<Object[]> adultBatch = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> minorBatch = new ArrayList<>(BATCH_SIZE);
+        long minorId = MINOR_ID_OFFSET;
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < rows; i++) {
+            boolean minor = SyntheticPersons.isMinor(i);
+            int age = minor ? 5 + i % 13 : 18 + i % 62;
+            Object[] row = {"First" + i % 100, "Last" + i % 1000, SyntheticPersons.email(i), "+33600000000",
+                    Date.valueOf(today.minusYears(age).minusDays(1 + i % 300)), (1 + i % 200) + " Rue du Test",
+                    "Paris", "France"};
+            if (minor) {
+                Object[] withId = new Object[row.length + 1];
+                withId[0] = minorId++;
+                System.arraycopy(row, 0, withId, 1, row.length);
+                minorBatch.add(withId);
+            } else {
+                adultBatch.add(row);
+            }
+            if (adultBatch.size() == BATCH_SIZE) {
+                adults.batchUpdate(INSERT_SQL, adultBatch);
+                adultBatch.clear();
+            }
+            if (minorBatch.size() == BATCH_SIZE) {
+                minors.batchUpdate(INSERT_WITH_ID_SQL, minorBatch);
+                minorBatch.clear();
+            }
+        }
+        if (!adultBatch.isEmpty()) {
+            adults.batchUpdate(INSERT_SQL, adultBatch);
+        }
+        if (!minorBatch.isEmpty()) {
+            minors.batchUpdate(INSERT_WITH_ID_SQL, minorBatch);
+        }
+    }
+
+    /**
+     * DelegateExecution réduite à ses variables : getVariable / setVariable sur la map, le reste n'est pas supporté
+     */
+    private static DelegateExecution execution(Map<String, Object> variables) {
+        return (DelegateExecution) Proxy.newProxyInstance(DelegateExecution.class.getClassLoader(),
+                new Class<?>[]{DelegateExecution.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getVariable" -> variables.get((String) args[0]);
+                    case "setVariable" -> {
+                        variables.put((String) args[0], args[1]);
+                        yield null;
+                    }
+                    case "getVariables" -> variables;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "BenchmarkExecution" + variables.keySet();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.camunda.benchmark;
+
+import com.example.camunda.CamundaPersonApiApplication;
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.variable.Variables;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Démarrages de age-based-routing-process par seconde, en mode synchrone et avec les profils "async"
+ * et "straight-through".
+ * En mode async, le nombre de jobs en attente est affiché après chaque itération :
+ * un backlog qui grossit signifie que le job executor ne tient pas le rythme soutenu.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ProcessStartThroughputBenchmark {
+
+    @Param({"sync", "async", "straight-through"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private RuntimeService runtimeService;
+    private ManagementService managementService;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(CamundaPersonApiApplication.class);
+        if (!"sync".equals(mode)) {
+            builder.profiles(mode);
+        }
+        context = builder.run(BenchmarkProperties.arguments(BenchmarkProperties.QUIET_APPLICATION));
+        runtimeService = context.getBean(RuntimeService.class);
+        managementService = context.getBean(ManagementService.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportBacklog() {
+        if ("async".equals(mode)) {
+            System.out.printf("%nPending async jobs: %d%n", managementService.createJobQuery().executable().count());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProcessInstance startAgeRoutingProcess() {
+        return runtimeService.startProcessInstanceByKey("age-based-routing-process",
+                Variables.createVariables().putValue("personId", 1L));
+    }
+}
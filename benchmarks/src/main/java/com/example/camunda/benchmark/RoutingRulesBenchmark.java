@@ -0,0 +1,125 @@
+package com.example.camunda.benchmark;
+
+import com.example.camunda.routing.CompiledRoutingTable;
+import com.example.camunda.routing.RoutingRule;
+import com.example.camunda.routing.RoutingRulesEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût d'une décision de routage : test codé en dur historique (Period &lt; 18),
+ * règles interprétées dans l'ordre, table compilée, et moteur avec une candidate en mode fantôme.
+ * "rules" choisit le jeu de règles : "baseline" (équivalent au test historique) ou "countries"
+ * (seuils par pays et règle explicite pour les dates de naissance absentes, une vingtaine de règles).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RoutingRulesBenchmark {
+
+    private static final String BASELINE_RULES = """
+            when age < 18 -> MINORS
+            default -> ADULTS
+            """;
+
+    private static final String COUNTRY_RULES = """
+            when dob missing -> ADULTS
+            when country in ("US", "USA") and age < 21 -> MINORS
+            when country in ("JP", "Japan") and age < 20 -> MINORS
+            when country = "Thailand" and age < 20 -> MINORS
+            when country = "Korea" and age < 19 -> MINORS
+            when country = "Indonesia" and age < 21 -> MINORS
+            when country = "Egypt" and age < 21 -> MINORS
+            when country = "Bahrain" and age < 21 -> MINORS
+            when country = "Singapore" and age < 21 -> MINORS
+            when country = "Kuwait" and age < 21 -> MINORS
+            when country = "Madagascar" and age < 21 -> MINORS
+            when country = "Cameroon" and age < 21 -> MINORS
+            when country = "Scotland" and age < 16 -> MINORS
+            when country = "Iran" and age < 15 -> MINORS
+            when country = "Nepal" and age < 16 -> MINORS
+            when country = "Canada" and age < 19 -> MINORS
+            when age < 18 -> MINORS
+            default -> ADULTS
+            """;
+
+    private static final String[] COUNTRIES = {
+            "France", "USA", "UK", "Germany", "Japan", "Canada", "france", " usa ", "Scotland", "Brazil", null
+    };
+
+    private static final int INPUTS = 4096;
+
+    @Param({"baseline", "countries"})
+    public String rules;
+
+    private final String[] countries = new String[INPUTS];
+    private final LocalDate[] datesOfBirth = new LocalDate[INPUTS];
+    private final LocalDate today = LocalDate.of(2024, 6, 15);
+
+    private CompiledRoutingTable table;
+    private List<RoutingRule> ruleList;
+    private RoutingRulesEngine engineWithShadow;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String source = rules.equals("baseline") ? BASELINE_RULES : COUNTRY_RULES;
+        table = CompiledRoutingTable.compile(1, source, RoutingRulesEngine.SHARDS);
+        ruleList = table.getRules();
+
+        engineWithShadow = new RoutingRulesEngine();
+        engineWithShadow.activate(source);
+        engineWithShadow.startShadow(COUNTRY_RULES);
+
+        Random random = new Random(42);
+        for (int i = 0; i < INPUTS; i++) {
+            countries[i] = COUNTRIES[random.nextInt(COUNTRIES.length)];
+            datesOfBirth[i] = random.nextInt(20) == 0 ? null : today.minusDays(random.nextInt(90 * 365));
+        }
+    }
+
+    @Benchmark
+    public boolean hardcodedPeriodCheck() {
+        int i = next();
+        LocalDate dateOfBirth = datesOfBirth[i];
+        return dateOfBirth != null && Period.between(dateOfBirth, today).getYears() < 18;
+    }
+
+    @Benchmark
+    public String interpretedRules() {
+        int i = next();
+        String country = countries[i] == null ? null : countries[i].trim().toUpperCase(Locale.ROOT);
+        Integer age = datesOfBirth[i] == null ? null : Period.between(datesOfBirth[i], today).getYears();
+        for (RoutingRule rule : ruleList) {
+            if (rule.matches(country, age)) {
+                return rule.target();
+            }
+        }
+        throw new IllegalStateException("No rule matched");
+    }
+
+    @Benchmark
+    public String compiledTable() {
+        int i = next();
+        return table.route(countries[i], datesOfBirth[i], today);
+    }
+
+    @Benchmark
+    public String compiledTableWithShadow() {
+        int i = next();
+        return engineWithShadow.route(countries[i], datesOfBirth[i], today);
+    }
+
+    private int next() {
+        return index++ & (INPUTS - 1);
+    }
+}
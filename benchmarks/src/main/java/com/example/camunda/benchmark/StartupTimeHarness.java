@@ -0,0 +1,84 @@
+package com.example.camunda.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Temps de démarrage de l'application, mesuré de l'extérieur : chaque essai lance une JVM neuve
+ * et mesure, depuis le lancement du processus, le temps jusqu'à la première requête servie
+ * (GET /api/persons/count en 200) puis jusqu'à readiness (GET /actuator/health/readiness en 200,
+ * déploiements et chargeurs de données terminés).
+ *
+ * java -cp benchmarks/target/benchmarks.jar com.example.camunda.benchmark.StartupTimeHarness [runs] [variant...]
+ *
+ * À lancer depuis la racine du projet. Variantes :
+ * - default : jar exécutable, configuration par défaut
+ * - startup : jar exécutable, profil Spring "startup"
+ * - cds     : jar classique + target/lib (mvn -Pstartup package), profil "startup" et archive CDS target/app-cds.jsa
+ * Les journaux de chaque essai sont écrits dans target/startup-harness/.
+ */
+public class StartupTimeHarness {
+
+    private static final String THIN_JAR = "target/camunda-person-api-1.0.0.jar";
+    private static final String CDS_ARCHIVE = "target/app-cds.jsa";
+    private static final long TIMEOUT_MS = TimeUnit.MINUTES.toMillis(3);
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        List<String> variants = args.length > 1
+                ? Arrays.asList(args).subList(1, args.length)
+                : List.of("default", "startup", "cds");
+
+        Map<String, List<long[]>> results = new LinkedHashMap<>();
+        for (String variant : variants) {
+            List<String> command = command(variant);
+            if (command == null) {
+                System.out.println("Skipping " + variant + ": build with mvn -Pstartup package first");
+                continue;
+            }
+            List<long[]> timings = new ArrayList<>();
+            for (int run = 1; run <= runs; run++) {
+                long[] timing = measure(variant, run, command);
+                System.out.printf("%-8s run %d: first request %5d ms, ready %5d ms%n", variant, run, timing[0], timing[1]);
+                timings.add(timing);
+            }
+            results.put(variant, timings);
+        }
+
+        System.out.println();
+        System.out.println("variant   runs  first request ms (min/median/max)   ready ms (min/median/max)");
+        results.forEach((variant, timings) -> System.out.printf("%-8s  %4d  %8s   %8s%n",
+                variant, timings.size(), summary(timings, 0), summary(timings, 1)));
+    }
+
+    private static List<String> command(String variant) {
+        String java = AppProcess.java();
+        return switch (variant) {
+            case "default" -> new ArrayList<>(List.of(java, "-jar", AppProcess.EXEC_JAR));
+            case "startup" -> new ArrayList<>(List.of(java, "-jar", AppProcess.EXEC_JAR, "--spring.profiles.active=startup"));
+            case "cds" -> new File(CDS_ARCHIVE).isFile() && new File(THIN_JAR).isFile()
+                    ? new ArrayList<>(List.of(java, "-XX:SharedArchiveFile=" + CDS_ARCHIVE, "-Xshare:auto",
+                            "-jar", THIN_JAR, "--spring.profiles.active=startup"))
+                    : null;
+            default -> throw new IllegalArgumentException("Unknown variant " + variant + ", expected default, startup or cds");
+        };
+    }
+
+    private static long[] measure(String variant, int run, List<String> command) throws Exception {
+        try (AppProcess app = AppProcess.start(command, "target/startup-harness", variant + "-" + run)) {
+            long firstRequest = app.awaitOk("/api/persons/count", TIMEOUT_MS);
+            long ready = app.awaitOk("/actuator/health/readiness", TIMEOUT_MS);
+            return new long[]{firstRequest, ready};
+        }
+    }
+
+    private static String summary(List<long[]> timings, int index) {
+        long[] values = timings.stream().mapToLong(timing -> timing[index]).sorted().toArray();
+        return values[0] + "/" + values[values.length / 2] + "/" + values[values.length - 1];
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.camunda.benchmark;
+
+import com.example.camunda.model.Person;
+import com.example.camunda.serializer.CompactObjectValueSerializer;
+import com.example.camunda.serializer.PersonCompactCodec;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.camunda.bpm.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.variable.serializer.JavaObjectSerializer;
+import org.camunda.spin.DataFormats;
+import org.camunda.spin.impl.json.jackson.format.JacksonJsonDataFormat;
+import org.camunda.spin.plugin.impl.SpinObjectValueSerializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare le sérialiseur compact aux sérialiseurs du moteur : JSON Spin (SpinObjectValueSerializer, format
+ * "application/json" de Jackson) pour le même objet Person, et sérialisation Java (JavaObjectSerializer) pour une
+ * copie Serializable aux mêmes champs, Person ne l'étant pas (sinon le moteur la préférerait au sérialiseur compact).
+ * Les sérialiseurs lisent le charset dans la configuration du Context, posée sur le thread de mesure.
+ * La taille des valeurs écrites est affichée au démarrage de chaque essai.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class VariableSerializerBenchmark {
+
+    private ExposedCompactSerializer compactSerializer;
+    private ExposedSpinSerializer spinSerializer;
+    private ExposedJavaSerializer javaSerializer;
+    private Person person;
+
+    private byte[] compactBytes;
+    private byte[] jsonBytes;
+    private byte[] javaBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        StandaloneInMemProcessEngineConfiguration configuration = new StandaloneInMemProcessEngineConfiguration();
+        configuration.setDefaultCharset(StandardCharsets.UTF_8);
+        Context.setProcessEngineConfiguration(configuration);
+
+        // Format JSON de Spin, dates java.time comme le ferait un DataFormatConfigurator
+        JacksonJsonDataFormat jsonFormat = new JacksonJsonDataFormat(DataFormats.JSON_DATAFORMAT_NAME);
+        jsonFormat.getObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        compactSerializer = new ExposedCompactSerializer();
+        spinSerializer = new ExposedSpinSerializer(jsonFormat);
+        javaSerializer = new ExposedJavaSerializer();
+
+        person = new Person();
+        person.setId(123456L);
+        person.setFirstName("Marie");
+        person.setLastName("Dupont");
+        person.setEmail("marie.dupont@example.com");
+        person.setPhoneNumber("+33111222333");
+        person.setDateOfBirth(LocalDate.of(2006, 7, 11));
+        person.setAddress("100 République Avenue");
+        person.setCity("Bordeaux");
+        person.setCountry("France");
+        person.setCreatedAt(LocalDateTime.of(2024, 1, 15, 10, 30, 12, 345_000_000));
+        person.setUpdatedAt(LocalDateTime.of(2024, 2, 1, 8, 0, 0));
+
+        compactBytes = compactSerializer.encode(person);
+        jsonBytes = spinSerializer.encode(person);
+        javaBytes = javaSerializer.encode(SerializablePerson.of(person));
+
+        System.out.printf("%nBytes written - compact: %d, json: %d, java: %d%n",
+                compactBytes.length, jsonBytes.length, javaBytes.length);
+    }
+
+    @Benchmark
+    public byte[] compactSerialize() {
+        return compactSerializer.encode(person);
+    }
+
+    @Benchmark
+    public Object compactDeserialize() {
+        return compactSerializer.decode(compactBytes);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() throws Exception {
+        return spinSerializer.encode(person);
+    }
+
+    @Benchmark
+    public Object jsonDeserialize() throws Exception {
+        return spinSerializer.decode(jsonBytes);
+    }
+
+    @Benchmark
+    public byte[] javaSerialize() throws Exception {
+        return javaSerializer.encode(SerializablePerson.of(person));
+    }
+
+    @Benchmark
+    public Object javaDeserialize() throws Exception {
+        return javaSerializer.decode(javaBytes);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Context.removeProcessEngineConfiguration();
+    }
+
+    /**
+     * Donne accès aux méthodes protégées utilisées par le moteur
+     */
+    static class ExposedCompactSerializer extends CompactObjectValueSerializer {
+
+        ExposedCompactSerializer() {
+            super(List.of(new PersonCompactCodec()));
+        }
+
+        byte[] encode(Object value) {
+            return serializeToByteArray(value);
+        }
+
+        Object decode(byte[] bytes) {
+            return deserializeFromByteArray(bytes, Person.class.getName());
+        }
+    }
+
+    static class ExposedSpinSerializer extends SpinObjectValueSerializer {
+
+        ExposedSpinSerializer(JacksonJsonDataFormat dataFormat) {
+            super("spin://" + DataFormats.JSON_DATAFORMAT_NAME, dataFormat);
+        }
+
+        byte[] encode(Object value) throws Exception {
+            return serializeToByteArray(value);
+        }
+
+        Object decode(byte[] bytes) throws Exception {
+            return deserializeFromByteArray(bytes, getTypeNameForDeserialized(new Person()));
+        }
+    }
+
+    static class ExposedJavaSerializer extends JavaObjectSerializer {
+
+        byte[] encode(Object value) throws Exception {
+            return serializeToByteArray(value);
+        }
+
+        Object decode(byte[] bytes) throws Exception {
+            return ((SerializablePerson) deserializeFromByteArray(bytes, SerializablePerson.class.getName())).toPerson();
+        }
+    }
+
+    /**
+     * Mêmes champs que Person, pour la référence en sérialisation Java
+     */
+    record SerializablePerson(Long id, String firstName, String lastName, String email, String phoneNumber,
+                              LocalDate dateOfBirth, String address, String city, String country,
+                              LocalDateTime createdAt, LocalDateTime updatedAt) implements Serializable {
+
+        static SerializablePerson of(Person person) {
+            return new SerializablePerson(person.getId(), person.getFirstName(), person.getLastName(),
+                    person.getEmail(), person.getPhoneNumber(), person.getDateOfBirth(), person.getAddress(),
+                    person.getCity(), person.getCountry(), person.getCreatedAt(), person.getUpdatedAt());
+        }
+
+        Person toPerson() {
+            Person person = new Person();
+            person.setId(id);
+            person.setFirstName(firstName);
+            person.setLastName(lastName);
+            person.setEmail(email);
+            person.setPhoneNumber(phoneNumber);
+            person.setDateOfBirth(dateOfBirth);
+            person.setAddress(address);
+            person.setCity(city);
+            person.setCountry(country);
+            person.setCreatedAt(createdAt);
+            person.setUpdatedAt(updatedAt);
+            return person;
+        }
+    }
+}
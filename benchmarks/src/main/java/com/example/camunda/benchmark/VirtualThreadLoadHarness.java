@@ -0,0 +1,176 @@
+package com.example.camunda.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Charge HTTP en boucle fermée sur l'application lancée deux fois, threads plateforme (configuration par défaut)
+ * puis threads virtuels (profil "virtual-threads") : N clients concurrents envoient une requête, attendent
+ * la réponse, recommencent. Après un échauffement non mesuré, chaque variante rapporte débit, erreurs,
+ * latences des réponses réussies (HdrHistogram), rejets du contrôle d'admission (429/503, le client attend alors
+ * le délai Retry-After), requêtes simultanées
+ * côté serveur et événements d'épinglage.
+ *
+ * java -cp benchmarks/target/benchmarks.jar com.example.camunda.benchmark.VirtualThreadLoadHarness \
+ *     [clients] [seconds] [request] [variant...]
+ *
+ * À lancer depuis la racine du projet après mvn package. La requête est "GET /chemin" ou "POST /chemin" :
+ * - GET /api/persons (défaut) : requêtes JPA et JDBC sur les deux shards
+ * - POST /api/process/age-routing/start : démarrage d'instance, corps {"email":"john.doe@example.com"}
+ * Arguments supplémentaires de l'application : -Dapp.args="--app.admission.enabled=false ..."
+ * Variantes : platform, virtual. Journaux dans target/load-harness/, histogrammes complets (format HdrHistogram)
+ * dans target/load-harness/&lt;variante&gt;.hgrm.
+ */
+public class VirtualThreadLoadHarness {
+
+    private static final long STARTUP_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(3);
+    private static final long WARMUP_SECONDS = 10;
+    private static final String START_BODY = "{\"email\":\"john.doe@example.com\"}";
+
+    private static final List<String> COMMON_ARGS = List.of(
+            "--logging.level.org.camunda=INFO",
+            "--logging.level.com.example=INFO",
+            "--spring.jpa.show-sql=false");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        String[] request = (args.length > 2 ? args[2] : "GET /api/persons").split(" ", 2);
+        List<String> variants = args.length > 3 ? List.of(args).subList(3, args.length) : List.of("platform", "virtual");
+
+        Map<String, String> results = new LinkedHashMap<>();
+        for (String variant : variants) {
+            try (AppProcess app = AppProcess.start(command(variant), "target/load-harness", variant)) {
+                app.awaitOk("/actuator/health/readiness", STARTUP_TIMEOUT_MS);
+                System.out.printf("%s: warming up %d clients for %d s%n", variant, clients, WARMUP_SECONDS);
+                run(app, request[0], request[1], clients, WARMUP_SECONDS);
+
+                send(app, "DELETE", "/api/diagnostics/threads");
+                System.out.printf("%s: measuring %d clients for %d s%n", variant, clients, seconds);
+                LoadResult result = run(app, request[0], request[1], clients, seconds);
+                JsonNode diagnostics = MAPPER.readTree(send(app, "GET", "/api/diagnostics/threads").body());
+
+                try (PrintStream out = new PrintStream("target/load-harness/" + variant + ".hgrm")) {
+                    result.latencies().outputPercentileDistribution(out, 1000.0);
+                }
+                results.put(variant, result.summary(seconds)
+                        + String.format("  server max in-flight %4d  platform threads %4d  pinned events %s",
+                        diagnostics.path("maxInFlight").asInt(),
+                        diagnostics.path("platformThreads").asInt(),
+                        diagnostics.has("pinnedEvents") ? diagnostics.path("pinnedEvents").asText() : "n/a"));
+            }
+        }
+
+        System.out.println();
+        System.out.printf("%d clients, %d s, %s %s%n", clients, seconds, request[0], request[1]);
+        results.forEach((variant, line) -> System.out.printf("%-8s  %s%n", variant, line));
+    }
+
+    private static List<String> command(String variant) {
+        List<String> command = new ArrayList<>(List.of(AppProcess.java(), "-jar", AppProcess.EXEC_JAR));
+        command.addAll(COMMON_ARGS);
+        String extraArgs = System.getProperty("app.args", "").trim();
+        if (!extraArgs.isEmpty()) {
+            command.addAll(List.of(extraArgs.split("\\s+")));
+        }
+        switch (variant) {
+            case "platform" -> { }
+            case "virtual" -> command.add("--spring.profiles.active=virtual-threads");
+            default -> throw new IllegalArgumentException("Unknown variant " + variant + ", expected platform or virtual");
+        }
+        return command;
+    }
+
+    private static LoadResult run(AppProcess app, String method, String path, int clients, long seconds)
+            throws InterruptedException {
+        Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+        LongAdder errors = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        HttpClient http = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = request(app, method, path);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                pool.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            int status = response.statusCode();
+                            if (status == 429 || status == 503) {
+                                // Client respectueux : attend le délai indiqué avant de réessayer
+                                rejected.increment();
+                                long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+                                Thread.sleep(Math.min(TimeUnit.SECONDS.toMillis(retryAfter),
+                                        Math.max(0, (deadline - System.nanoTime()) / 1_000_000)));
+                            } else if (status >= 400) {
+                                errors.increment();
+                            } else {
+                                latencies.recordValue(Math.min((System.nanoTime() - start) / 1000,
+                                        latencies.getHighestTrackableValue()));
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        http.close();
+        return new LoadResult(latencies, rejected.sum(), errors.sum());
+    }
+
+    private static HttpRequest request(AppProcess app, String method, String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(app.url(path))).timeout(Duration.ofSeconds(60));
+        return switch (method) {
+            case "GET" -> builder.GET().build();
+            case "POST" -> builder.header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(START_BODY)).build();
+            default -> throw new IllegalArgumentException("Unsupported method " + method);
+        };
+    }
+
+    private static HttpResponse<String> send(AppProcess app, String method, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(app.url(path)))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        try (HttpClient http = HttpClient.newHttpClient()) {
+            return http.send(request, HttpResponse.BodyHandlers.ofString());
+        }
+    }
+
+    private record LoadResult(Histogram latencies, long rejected, long errors) {
+
+        String summary(long seconds) {
+            return String.format("%8.0f ok/s  rejected %7d  errors %6d  p50 %7.1f ms  p99 %7.1f ms  max %7.1f ms",
+                    (double) latencies.getTotalCount() / seconds, rejected, errors,
+                    latencies.getValueAtPercentile(50) / 1000.0,
+                    latencies.getValueAtPercentile(99) / 1000.0,
+                    latencies.getMaxValue() / 1000.0);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.camunda.admission;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limite de concurrence adaptative (AIMD) avec file d'attente bornée.
+ * Deux moyennes mobiles de la latence : court terme (dernières requêtes) et long terme (référence, lissée sur
+ * baselineWindow requêtes). Tant que le court terme reste sous tolérance × long terme, chaque requête réussie
+ * augmente la limite d'environ 1 par "fenêtre" de limit requêtes ; au-delà, ou sur erreur serveur, la limite est
+ * multipliée par backoffRatio (au plus une fois par latence de référence, pour ne pas s'effondrer sur une rafale).
+ * Comparer à une moyenne plutôt qu'au minimum évite de brider en permanence un service dont la latence croît
+ * normalement avec la charge : seule une dégradation rapide (file qui se forme, pool épuisé) fait reculer la limite.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Rejection { QUEUE_FULL, QUEUE_TIMEOUT }
+
+    private static final double SHORT_TERM_WEIGHT = 0.1;
+    private static final int WARMUP_SAMPLES = 20;
+    private static final long MIN_DECREASE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueSize;
+    private final long maxWaitNanos;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final int baselineWindow;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    // Protégés par lock
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private double shortTermNanos;
+    private double longTermNanos;
+    private long samples;
+    private long lastDecreaseNanos;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejectedQueueFull = new LongAdder();
+    private final LongAdder rejectedQueueTimeout = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, int queueSize,
+                                      long maxWaitMillis, double tolerance, double backoffRatio, int baselineWindow) {
+        this.name = name;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.queueSize = queueSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.baselineWindow = baselineWindow;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Admet la requête (éventuellement après attente dans la file) ou renvoie le motif du rejet
+     */
+    public Admission acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                return admit();
+            }
+            if (queued >= queueSize) {
+                rejectedQueueFull.increment();
+                return Admission.rejected(Rejection.QUEUE_FULL);
+            }
+            queued++;
+            try {
+                long remaining = maxWaitNanos;
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        rejectedQueueTimeout.increment();
+                        return Admission.rejected(Rejection.QUEUE_TIMEOUT);
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                return admit();
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Délai suggéré avant de réessayer : temps d'écoulement estimé de la file et des requêtes en cours
+     */
+    public long retryAfterSeconds() {
+        lock.lock();
+        try {
+            double drainNanos = shortTermNanos * (inFlight + queued) / Math.max(1, limit);
+            return Math.max(1, (long) Math.ceil(drainNanos / 1_000_000_000d));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new HashMap<>();
+        lock.lock();
+        try {
+            snapshot.put("limit", (int) limit);
+            snapshot.put("inFlight", inFlight);
+            snapshot.put("queued", queued);
+            snapshot.put("shortTermLatencyMillis", shortTermNanos / 1_000_000d);
+            snapshot.put("longTermLatencyMillis", longTermNanos / 1_000_000d);
+        } finally {
+            lock.unlock();
+        }
+        snapshot.put("accepted", accepted.sum());
+        snapshot.put("rejectedQueueFull", rejectedQueueFull.sum());
+        snapshot.put("rejectedQueueTimeout", rejectedQueueTimeout.sum());
+        snapshot.put("dropped", dropped.sum());
+        return snapshot;
+    }
+
+    double getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getRejected(Rejection rejection) {
+        return rejection == Rejection.QUEUE_FULL ? rejectedQueueFull.sum() : rejectedQueueTimeout.sum();
+    }
+
+    private Admission admit() {
+        inFlight++;
+        accepted.increment();
+        return new Admission(this, System.nanoTime(), null);
+    }
+
+    private void release(long startNanos, boolean success) {
+        long now = System.nanoTime();
+        long latency = now - startNanos;
+        lock.lock();
+        try {
+            inFlight--;
+            if (!success) {
+                dropped.increment();
+            }
+            if (samples++ == 0) {
+                shortTermNanos = latency;
+                longTermNanos = latency;
+            } else {
+                shortTermNanos += (latency - shortTermNanos) * SHORT_TERM_WEIGHT;
+                longTermNanos += (latency - longTermNanos) / Math.min(samples, baselineWindow);
+            }
+
+            boolean congested = !success || (samples > WARMUP_SAMPLES && shortTermNanos > longTermNanos * tolerance);
+            if (congested) {
+                if (now - lastDecreaseNanos > Math.max((long) longTermNanos, MIN_DECREASE_INTERVAL_NANOS)) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseNanos = now;
+                }
+            } else if (inFlight * 2 >= (int) limit) {
+                // N'augmente que si la limite est réellement utilisée
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Jeton d'admission : à libérer une seule fois avec l'issue de la requête
+     */
+    public static final class Admission {
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final long startNanos;
+        private final Rejection rejection;
+        private boolean released;
+
+        private Admission(AdaptiveConcurrencyLimiter limiter, long startNanos, Rejection rejection) {
+            this.limiter = limiter;
+            this.startNanos = startNanos;
+            this.rejection = rejection;
+        }
+
+        private static Admission rejected(Rejection rejection) {
+            return new Admission(null, 0, rejection);
+        }
+
+        public boolean isAccepted() {
+            return rejection == null;
+        }
+
+        public Rejection getRejection() {
+            return rejection;
+        }
+
+        /**
+         * Requête terminée : latence mesurée si réussie, réduction de la limite si erreur serveur
+         */
+        public void release(boolean success) {
+            if (limiter != null && !released) {
+                released = true;
+                limiter.release(startNanos, success);
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.camunda.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Contrôle d'admission des endpoints d'écriture : démarrages de processus et écritures de personnes ont chacun
+ * leur limite de concurrence adaptative ; les démarrages par lots (jusqu'à app.process.batch.max-items instances
+ * chacun) ont leur propre limite, fixe, leur latence dépendant surtout de la taille du lot. Au-delà de la limite, la requête attend dans une file bornée ;
+ * file pleine ou attente trop longue, elle est rejetée tout de suite (app.admission.reject-status, 503 par défaut)
+ * avec un en-tête Retry-After, avant de toucher au moteur ou aux shards.
+ */
+@Component
+@ConditionalOnProperty(name = "app.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    public static final String PROCESS_START = "process-start";
+    public static final String PERSON_WRITE = "person-write";
+    public static final String PROCESS_BATCH = "process-batch";
+
+    private static final Set<String> PROCESS_START_PATHS = Set.of(
+            "/api/process/start-person-process",
+            "/api/process/age-routing/start");
+    private static final String PROCESS_BATCH_PATH = "/api/process/age-routing/start-batch";
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "DELETE");
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.admission.reject-status:503}")
+    private int rejectStatus;
+
+    private final AdaptiveConcurrencyLimiter processStartLimiter;
+    private final AdaptiveConcurrencyLimiter personWriteLimiter;
+    private final AdaptiveConcurrencyLimiter processBatchLimiter;
+
+    public AdmissionControlFilter(@Value("${app.admission.initial-limit:20}") int initialLimit,
+                                  @Value("${app.admission.min-limit:4}") int minLimit,
+                                  @Value("${app.admission.max-limit:200}") int maxLimit,
+                                  @Value("${app.admission.queue-size:50}") int queueSize,
+                                  @Value("${app.admission.max-wait-ms:1000}") long maxWaitMillis,
+                                  @Value("${app.admission.latency-tolerance:2.0}") double tolerance,
+                                  @Value("${app.admission.backoff-ratio:0.9}") double backoffRatio,
+                                  @Value("${app.admission.baseline-window:500}") int baselineWindow,
+                                  @Value("${app.admission.batch-limit:2}") int batchLimit,
+                                  @Value("${app.admission.batch-queue-size:2}") int batchQueueSize) {
+        this.processStartLimiter = new AdaptiveConcurrencyLimiter(PROCESS_START, initialLimit, minLimit, maxLimit,
+                queueSize, maxWaitMillis, tolerance, backoffRatio, baselineWindow);
+        this.personWriteLimiter = new AdaptiveConcurrencyLimiter(PERSON_WRITE, initialLimit, minLimit, maxLimit,
+                queueSize, maxWaitMillis, tolerance, backoffRatio, baselineWindow);
+        // Limite fixe : un gros lot n'est pas un signe de congestion
+        this.processBatchLimiter = new AdaptiveConcurrencyLimiter(PROCESS_BATCH, batchLimit, batchLimit, batchLimit,
+                batchQueueSize, maxWaitMillis, tolerance, backoffRatio, baselineWindow);
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        for (AdaptiveConcurrencyLimiter limiter : getLimiters()) {
+            Gauge.builder("admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Limite de concurrence adaptative")
+                    .tag("limiter", limiter.getName())
+                    .register(meterRegistry);
+            Gauge.builder("admission.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("Requêtes admises en cours")
+                    .tag("limiter", limiter.getName())
+                    .register(meterRegistry);
+            Gauge.builder("admission.queued", limiter, AdaptiveConcurrencyLimiter::getQueued)
+                    .description("Requêtes en attente d'admission")
+                    .tag("limiter", limiter.getName())
+                    .register(meterRegistry);
+            for (AdaptiveConcurrencyLimiter.Rejection rejection : AdaptiveConcurrencyLimiter.Rejection.values()) {
+                FunctionCounter.builder("admission.rejected", limiter, l -> l.getRejected(rejection))
+                        .description("Requêtes rejetées par le contrôle d'admission")
+                        .tag("limiter", limiter.getName())
+                        .tag("reason", rejection.name().toLowerCase())
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    public List<AdaptiveConcurrencyLimiter> getLimiters() {
+        return List.of(processStartLimiter, personWriteLimiter, processBatchLimiter);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = limiterFor(request);
+        if (limiter == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AdaptiveConcurrencyLimiter.Admission admission;
+        try {
+            admission = limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("Interrupted while waiting for admission", e);
+        }
+        if (!admission.isAccepted()) {
+            reject(response, limiter, admission.getRejection());
+            return;
+        }
+
+        boolean success = false;
+        try {
+            chain.doFilter(request, response);
+            success = response.getStatus() < 500;
+        } finally {
+            admission.release(success);
+        }
+    }
+
+    private AdaptiveConcurrencyLimiter limiterFor(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if ("POST".equals(method) && PROCESS_START_PATHS.contains(path)) {
+            return processStartLimiter;
+        }
+        if ("POST".equals(method) && PROCESS_BATCH_PATH.equals(path)) {
+            return processBatchLimiter;
+        }
+        if (WRITE_METHODS.contains(method) && (path.equals("/api/persons") || path.startsWith("/api/persons/"))) {
+            return personWriteLimiter;
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, AdaptiveConcurrencyLimiter limiter,
+                        AdaptiveConcurrencyLimiter.Rejection rejection) throws IOException {
+        long retryAfter = limiter.retryAfterSeconds();
+        logger.debug("Rejected request on {} ({}), retry after {} s", limiter.getName(), rejection, retryAfter);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("success", false);
+        body.put("limiter", limiter.getName());
+        body.put("reason", rejection.name().toLowerCase());
+        body.put("retryAfterSeconds", retryAfter);
+        body.put("message", "Too many concurrent requests, retry later");
+
+        response.setStatus(rejectStatus);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
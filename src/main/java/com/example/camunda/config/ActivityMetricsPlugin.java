@@ -0,0 +1,39 @@
+package com.example.camunda.config;
+
+import com.example.camunda.metrics.ActivityLatencyRegistry;
+import com.example.camunda.metrics.ActivityTimingParseListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParseListener;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chronométrage de toutes les activités BPMN (GET /api/process/metrics/activities et métrique
+ * camunda.activity.duration), désactivable avec app.process.activity-metrics.enabled=false
+ */
+@Component
+@ConditionalOnProperty(name = "app.process.activity-metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class ActivityMetricsPlugin extends AbstractProcessEnginePlugin {
+
+    @Autowired
+    private ActivityLatencyRegistry registry;
+
+    @Value("${app.process.activity-metrics.shard-variable:targetDatabase}")
+    private String shardVariable;
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl configuration) {
+        List<BpmnParseListener> listeners = configuration.getCustomPostBPMNParseListeners();
+        if (listeners == null) {
+            listeners = new ArrayList<>();
+            configuration.setCustomPostBPMNParseListeners(listeners);
+        }
+        listeners.add(new ActivityTimingParseListener(registry, shardVariable));
+    }
+}
@@ -6,11 +6,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 
 @Component
+@Order(1)
 public class AgeBasedDataLoader implements CommandLineRunner {
 
     private static final Logger logger = LoggerFactory.getLogger(AgeBasedDataLoader.class);
@@ -18,8 +20,21 @@ public class AgeBasedDataLoader implements CommandLineRunner {
     @Autowired
     private AgeBasedPersonService personService;
 
+    @Autowired
+    private StartupTasks startupTasks;
+
     @Override
-    public void run(String... args) throws Exception {
+    public void run(String... args) {
+        startupTasks.runDataLoader("age-based sample data", this::loadSampleData);
+    }
+
+    private void loadSampleData() {
+        // Base partagée (profil cluster) : un seul nœud charge les données
+        if (personService.countPersons() > 0) {
+            logger.info("Sample data already exists in adults/minors databases, skipping data loading");
+            return;
+        }
+        
         logger.info("Loading sample data for both adults and minors databases...");
         
         // === ADULTES (18+ ans) ===
@@ -156,7 +171,7 @@ public class AgeBasedDataLoader implements CommandLineRunner {
         logger.info("=== ROUTING VERIFICATION ===");
         personService.getAllPersons().forEach(person -> {
             int age = personService.calculateAge(person);
-            String database = personService.isMinor(person) ? "MINORS" : "ADULTS";
+            String database = personService.resolveShard(person);
             logger.info("Person: {} {} (Age: {}) -> Database: {}", 
                        person.getFirstName(), person.getLastName(), age, database);
         });
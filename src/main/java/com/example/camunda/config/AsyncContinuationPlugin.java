@@ -0,0 +1,46 @@
+package com.example.camunda.config;
+
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParse;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParser;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.util.xml.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mode asynchrone optionnel (app.process.async-continuations=true) :
+ * toutes les service tasks sont parsées comme asyncBefore, sans modifier les fichiers BPMN.
+ * Le démarrage d'un processus rend la main dès que l'instance est persistée,
+ * les délégués s'exécutent ensuite dans le job executor.
+ */
+@Component
+@ConditionalOnProperty(name = "app.process.async-continuations", havingValue = "true")
+public class AsyncContinuationPlugin extends AbstractProcessEnginePlugin {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncContinuationPlugin.class);
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl configuration) {
+        configuration.setBpmnParseFactory(AsyncServiceTaskBpmnParse::new);
+        logger.info("Async continuations enabled: service tasks will run in the job executor");
+    }
+
+    /**
+     * Passe par le parsing standard de asyncBefore pour que les job declarations
+     * et job definitions soient créées comme pour un attribut camunda:asyncBefore="true"
+     */
+    static class AsyncServiceTaskBpmnParse extends BpmnParse {
+
+        AsyncServiceTaskBpmnParse(BpmnParser parser) {
+            super(parser);
+        }
+
+        @Override
+        protected boolean isAsyncBefore(Element element) {
+            return "serviceTask".equals(element.getTagName()) || super.isAsyncBefore(element);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.camunda.config;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Nœud d'un cluster de moteurs partageant la même base (profil "cluster").
+ * Chaque nœud porte un identifiant propre (colonne HOSTNAME_ des logs de jobs) et, en acquisition
+ * deployment-aware, s'enregistre auprès du job executor pour tous les déploiements de ses propres
+ * fichiers BPMN, y compris ceux créés par un autre nœud ou avant un redémarrage.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cluster.enabled", havingValue = "true")
+public class ClusterNodePlugin extends AbstractProcessEnginePlugin {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterNodePlugin.class);
+
+    @Value("${app.cluster.node-id}")
+    private String nodeId;
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl configuration) {
+        configuration.setHostname(nodeId);
+    }
+
+    @Override
+    public void postProcessEngineBuild(ProcessEngine processEngine) {
+        ProcessEngineConfigurationImpl configuration =
+                (ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration();
+        if (!configuration.isJobExecutorDeploymentAware()) {
+            return;
+        }
+
+        Set<String> localResources = localBpmnResources();
+        Set<String> deploymentIds = new HashSet<>();
+        for (ProcessDefinition definition : processEngine.getRepositoryService().createProcessDefinitionQuery().list()) {
+            if (localResources.contains(fileName(definition.getResourceName()))) {
+                deploymentIds.add(definition.getDeploymentId());
+            }
+        }
+        deploymentIds.forEach(processEngine.getManagementService()::registerDeploymentForJobExecutor);
+
+        logger.info("Cluster node '{}' registered {} deployments for job acquisition", nodeId, deploymentIds.size());
+    }
+
+    private Set<String> localBpmnResources() {
+        Set<String> names = new HashSet<>();
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources("classpath*:**/*.bpmn")) {
+                names.add(resource.getFilename());
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to list local BPMN resources: {}", e.getMessage());
+        }
+        return names;
+    }
+
+    private static String fileName(String resourceName) {
+        return resourceName.substring(resourceName.lastIndexOf('/') + 1);
+    }
+}
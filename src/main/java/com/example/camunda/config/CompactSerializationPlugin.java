@@ -0,0 +1,37 @@
+package com.example.camunda.config;
+
+import com.example.camunda.serializer.CompactObjectValueSerializer;
+import com.example.camunda.serializer.PersonCompactCodec;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.variable.serializer.TypedValueSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plugin moteur qui enregistre le sérialiseur binaire compact pour les entités
+ * stockées en variables de processus (Person n'est pas Serializable : le sérialiseur Java du moteur,
+ * choisi en priorité par le format par défaut, ne la prend pas)
+ */
+@Component
+public class CompactSerializationPlugin extends AbstractProcessEnginePlugin {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompactSerializationPlugin.class);
+
+    @Override
+    @SuppressWarnings("rawtypes") // L'API du moteur expose une liste brute de TypedValueSerializer
+    public void preInit(ProcessEngineConfigurationImpl configuration) {
+        List<TypedValueSerializer> serializers = configuration.getCustomPreVariableSerializers();
+        if (serializers == null) {
+            serializers = new ArrayList<>();
+            configuration.setCustomPreVariableSerializers(serializers);
+        }
+        serializers.add(new CompactObjectValueSerializer(List.of(new PersonCompactCodec())));
+
+        logger.info("Compact binary serializer registered ({})", CompactObjectValueSerializer.SERIALIZATION_DATA_FORMAT);
+    }
+}
@@ -6,20 +6,29 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 
 @Component
+@Order(2)
 public class DataLoader implements CommandLineRunner {
     
     private static final Logger logger = LoggerFactory.getLogger(DataLoader.class);
     
     @Autowired
     private PersonService personService;
+
+    @Autowired
+    private StartupTasks startupTasks;
     
     @Override
-    public void run(String... args) throws Exception {
+    public void run(String... args) {
+        startupTasks.runDataLoader("sample data", this::loadSampleDataIfEmpty);
+    }
+
+    private void loadSampleDataIfEmpty() {
         if (personService.countPersons() == 0) {
             logger.info("Loading sample data...");
             loadSampleData();
@@ -0,0 +1,27 @@
+package com.example.camunda.config;
+
+import com.example.camunda.metrics.MicrometerMetricsRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Métriques du moteur (acquisition et exécution des jobs, instances d'activité...) publiées dans Micrometer,
+ * donc sur /actuator/prometheus ; désactivable avec app.metrics.engine.enabled=false
+ */
+@Component
+@ConditionalOnProperty(name = "app.metrics.engine.enabled", havingValue = "true", matchIfMissing = true)
+public class EngineMetricsPlugin extends AbstractProcessEnginePlugin {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl configuration) {
+        // Sans effet si camunda.bpm.metrics.enabled=false : le moteur ne compte alors plus rien
+        configuration.setMetricsRegistry(new MicrometerMetricsRegistry(meterRegistry));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.camunda.config;
+
+import com.example.camunda.worker.ExternalTaskNotifier;
+import org.camunda.bpm.engine.delegate.ExecutionListener;
+import org.camunda.bpm.engine.impl.bpmn.behavior.ExternalTaskActivityBehavior;
+import org.camunda.bpm.engine.impl.bpmn.parser.AbstractBpmnParseListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParseListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParse;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.core.variable.mapping.value.ConstantValueProvider;
+import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
+import org.camunda.bpm.engine.impl.pvm.process.ScopeImpl;
+import org.camunda.bpm.engine.impl.util.xml.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mode external tasks (app.process.external-tasks.enabled=true) : les service tasks
+ * camunda:delegateExpression="${bean}" des processus déployés deviennent des external tasks
+ * sur le topic "bean", traitées par {@link com.example.camunda.worker.ExternalTaskWorker}.
+ * Les fichiers BPMN ne changent pas, seule leur interprétation par le moteur.
+ */
+@Component
+@ConditionalOnProperty(name = "app.process.external-tasks.enabled", havingValue = "true")
+public class ExternalTaskPlugin extends AbstractProcessEnginePlugin {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExternalTaskPlugin.class);
+
+    private static final Pattern DELEGATE_EXPRESSION = Pattern.compile("^\\$\\{\\s*(\\w+)\\s*}$");
+
+    @Autowired
+    private ExternalTaskNotifier notifier;
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl configuration) {
+        List<BpmnParseListener> listeners = configuration.getCustomPostBPMNParseListeners();
+        if (listeners == null) {
+            listeners = new ArrayList<>();
+            configuration.setCustomPostBPMNParseListeners(listeners);
+        }
+        listeners.add(new ExternalTaskParseListener());
+    }
+
+    private class ExternalTaskParseListener extends AbstractBpmnParseListener {
+
+        @Override
+        public void parseServiceTask(Element serviceTaskElement, ScopeImpl scope, ActivityImpl activity) {
+            String delegateExpression = serviceTaskElement.attributeNS(BpmnParse.CAMUNDA_BPMN_EXTENSIONS_NS, "delegateExpression");
+            if (delegateExpression == null) {
+                return;
+            }
+            Matcher matcher = DELEGATE_EXPRESSION.matcher(delegateExpression.trim());
+            if (!matcher.matches()) {
+                return;
+            }
+
+            String topic = matcher.group(1);
+            activity.setActivityBehavior(new ExternalTaskActivityBehavior(new ConstantValueProvider(topic), null));
+            activity.addListener(ExecutionListener.EVENTNAME_START, (ExecutionListener) execution ->
+                    Context.getCommandContext().getTransactionContext()
+                            .addTransactionListener(TransactionState.COMMITTED, context -> notifier.notifyTaskCreated(topic)));
+            notifier.registerTopic(topic);
+
+            logger.info("Service task '{}' runs as external task on topic '{}'", activity.getId(), topic);
+        }
+    }
+}
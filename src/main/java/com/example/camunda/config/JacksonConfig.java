@@ -0,0 +1,29 @@
+package com.example.camunda.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Modules Jackson ajoutés à l'ObjectMapper de Spring Boot (tout bean Module y est enregistré)
+ */
+@Configuration
+public class JacksonConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(JacksonConfig.class);
+
+    /**
+     * Accesseurs des entités et records appelés par des lambdas générées (LambdaMetafactory) au lieu de la
+     * réflexion : moins de coût par propriété sur les grandes listes
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.json.blackbird", havingValue = "true", matchIfMissing = true)
+    public Module blackbirdModule() {
+        logger.info("Jackson Blackbird module enabled");
+        return new BlackbirdModule();
+    }
+}
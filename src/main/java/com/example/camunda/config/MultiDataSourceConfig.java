@@ -1,9 +1,15 @@
 package com.example.camunda.config;
 
+import com.example.camunda.jdbc.InstrumentedDataSource;
+import com.example.camunda.jdbc.QueryRecorder;
+import com.zaxxer.hikari.HikariDataSource;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import javax.sql.DataSource;
@@ -14,18 +20,36 @@ import javax.sql.DataSource;
 @Configuration
 public class MultiDataSourceConfig {
 
+    /**
+     * DataSource principale (Camunda + JPA + adultes), configurée par spring.datasource.
+     * Déclarée explicitement : la présence de minorsDataSource désactive celle de l'auto-configuration.
+     * Les noms de pool servent de tag aux métriques hikaricp.connections.* et jdbc.statements.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, QueryRecorder recorder,
+                                 @Value("${app.jdbc.enabled:true}") boolean instrumented) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("adults");
+        return instrumented ? new InstrumentedDataSource("adults", dataSource, recorder) : dataSource;
+    }
+
     /**
      * DataSource pour les mineurs (-18 ans) 
      * Base séparée uniquement pour les mineurs
      */
     @Bean
-    public DataSource minorsDataSource() {
-        return DataSourceBuilder.create()
-                .url("jdbc:h2:mem:minors_db;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+    public DataSource minorsDataSource(@Value("${app.datasource.minors.url}") String url, QueryRecorder recorder,
+                                       @Value("${app.jdbc.enabled:true}") boolean instrumented) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
                 .driverClassName("org.h2.Driver")
                 .username("sa")
                 .password("")
                 .build();
+        dataSource.setPoolName("minors");
+        return instrumented ? new InstrumentedDataSource("minors", dataSource, recorder) : dataSource;
     }
 
     /**
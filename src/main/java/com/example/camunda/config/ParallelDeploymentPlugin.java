@@ -0,0 +1,108 @@
+package com.example.camunda.config;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.repository.Deployment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Remplace l'auto-déploiement du starter (camunda.bpm.auto-deployment-enabled: false dans le profil "startup") :
+ * un déploiement par fichier BPMN, lancé en parallèle dès que le moteur est construit, pendant que le reste
+ * du contexte démarre. La source du déploiement porte l'empreinte SHA-256 du fichier : un fichier inchangé
+ * depuis le dernier déploiement est reconnu par une simple requête, sans relire ni comparer les ressources.
+ */
+@Component
+@ConditionalOnProperty(name = "app.startup.parallel-deployment", havingValue = "true")
+public class ParallelDeploymentPlugin extends AbstractProcessEnginePlugin {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelDeploymentPlugin.class);
+
+    private static final String SOURCE_PREFIX = "startup:";
+
+    @Autowired
+    private StartupTasks startupTasks;
+
+    // Racine du classpath seulement : le motif par défaut du starter (classpath*:**/...) parcourt tous les jars
+    @Value("${app.startup.deployment-resource-pattern:classpath*:*.bpmn}")
+    private String resourcePattern;
+
+    @Override
+    public void postProcessEngineBuild(ProcessEngine processEngine) {
+        Resource[] resources;
+        try {
+            resources = new PathMatchingResourcePatternResolver().getResources(resourcePattern);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to resolve deployment resources " + resourcePattern, e);
+        }
+
+        if (resources.length == 0) {
+            logger.warn("No process resources found for {}", resourcePattern);
+        }
+        for (Resource resource : resources) {
+            startupTasks.submit("deploy " + resource.getFilename(), () -> deploy(processEngine, resource));
+        }
+    }
+
+    private void deploy(ProcessEngine processEngine, Resource resource) {
+        String name = resource.getFilename();
+        byte[] content;
+        try (InputStream in = resource.getInputStream()) {
+            content = in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read " + name, e);
+        }
+        String source = SOURCE_PREFIX + sha256(content);
+
+        RepositoryService repositoryService = processEngine.getRepositoryService();
+        Deployment deployment = repositoryService.createDeploymentQuery()
+                .deploymentName(name)
+                .deploymentSource(source)
+                .orderByDeploymentTime().desc()
+                .listPage(0, 1)
+                .stream().findFirst()
+                .orElse(null);
+
+        if (deployment == null) {
+            deployment = repositoryService.createDeployment()
+                    .name(name)
+                    .source(source)
+                    .addInputStream(name, new ByteArrayInputStream(content))
+                    .deploy();
+            logger.info("Deployed {} ({})", name, deployment.getId());
+        } else {
+            logger.info("{} unchanged since deployment {}, skipping", name, deployment.getId());
+        }
+
+        // Acquisition deployment-aware (profil cluster) : l'enregistrement fait au build du moteur ne voit pas ce déploiement
+        ProcessEngineConfigurationImpl configuration =
+                (ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration();
+        if (configuration.isJobExecutorDeploymentAware()) {
+            processEngine.getManagementService().registerDeploymentForJobExecutor(deployment.getId());
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
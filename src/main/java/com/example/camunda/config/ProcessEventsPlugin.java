@@ -0,0 +1,39 @@
+package com.example.camunda.config;
+
+import com.example.camunda.events.ProcessEventBroker;
+import com.example.camunda.events.ProcessEventParseListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParseListener;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publication des fins d'instance (GET /api/process/events et /status?waitMillis=...),
+ * désactivable avec app.process.events.enabled=false
+ */
+@Component
+@ConditionalOnProperty(name = "app.process.events.enabled", havingValue = "true", matchIfMissing = true)
+public class ProcessEventsPlugin extends AbstractProcessEnginePlugin {
+
+    @Autowired
+    private ProcessEventBroker broker;
+
+    @Value("${app.process.events.include-variables:true}")
+    private boolean includeVariables;
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl configuration) {
+        List<BpmnParseListener> listeners = configuration.getCustomPostBPMNParseListeners();
+        if (listeners == null) {
+            listeners = new ArrayList<>();
+            configuration.setCustomPostBPMNParseListeners(listeners);
+        }
+        listeners.add(new ProcessEventParseListener(broker, includeVariables));
+    }
+}
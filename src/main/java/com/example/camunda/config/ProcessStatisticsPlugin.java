@@ -0,0 +1,32 @@
+package com.example.camunda.config;
+
+import com.example.camunda.statistics.ProcessStatisticsHistoryEventHandler;
+import com.example.camunda.statistics.ProcessStatisticsRegistry;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Branche le handler de statistiques à côté du handler d'historique par défaut (écriture en base conservée)
+ */
+@Component
+public class ProcessStatisticsPlugin extends AbstractProcessEnginePlugin {
+
+    @Autowired
+    private ProcessStatisticsRegistry registry;
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl configuration) {
+        List<HistoryEventHandler> handlers = configuration.getCustomHistoryEventHandlers();
+        if (handlers == null) {
+            handlers = new ArrayList<>();
+            configuration.setCustomHistoryEventHandlers(handlers);
+        }
+        handlers.add(new ProcessStatisticsHistoryEventHandler(registry));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.camunda.config;
+
+import com.example.camunda.jdbc.QueryAttributionParseListener;
+import com.example.camunda.jdbc.QueryRecorder;
+import com.example.camunda.jdbc.QueryScopeCommandInterceptor;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParseListener;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.CommandInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Instructions JDBC par instance de processus : une portée par commande du moteur, rattachée à l'instance
+ * qu'elle fait avancer (GET /api/jdbc/statistics), désactivable avec app.jdbc.enabled=false
+ */
+@Component
+@ConditionalOnProperty(name = "app.jdbc.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryStatisticsPlugin extends AbstractProcessEnginePlugin {
+
+    @Autowired
+    private QueryRecorder recorder;
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl configuration) {
+        List<CommandInterceptor> interceptors = configuration.getCustomPreCommandInterceptorsTxRequired();
+        if (interceptors == null) {
+            interceptors = new ArrayList<>();
+            configuration.setCustomPreCommandInterceptorsTxRequired(interceptors);
+        }
+        interceptors.add(new QueryScopeCommandInterceptor(recorder));
+
+        List<BpmnParseListener> listeners = configuration.getCustomPostBPMNParseListeners();
+        if (listeners == null) {
+            listeners = new ArrayList<>();
+            configuration.setCustomPostBPMNParseListeners(listeners);
+        }
+        listeners.add(new QueryAttributionParseListener(recorder));
+    }
+}
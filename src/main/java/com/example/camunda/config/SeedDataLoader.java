@@ -0,0 +1,50 @@
+package com.example.camunda.config;
+
+import com.example.camunda.dataset.DatasetLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Jeu de données synthétique pour les tests de charge (app.seed.persons, 0 par défaut = désactivé), chargé en
+ * masse au démarrage par DatasetLoader. Les personnes sont déterministes pour une graine (app.seed.random-seed) :
+ * e-mail seed-&lt;i&gt;@domaine, une sur quatre mineure, routées vers leur shard. Un harnais peut donc viser des
+ * personnes existantes sans les relire (SyntheticPersons.email, SyntheticPersons.isMinor).
+ */
+@Component
+@Order(3)
+public class SeedDataLoader implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeedDataLoader.class);
+
+    @Autowired
+    private DatasetLoader datasetLoader;
+
+    @Autowired
+    private StartupTasks startupTasks;
+
+    @Value("${app.seed.persons:0}")
+    private long persons;
+
+    @Override
+    public void run(String... args) {
+        if (persons > 0) {
+            startupTasks.runDataLoader("seed data", this::seed);
+        }
+    }
+
+    private void seed() {
+        if (datasetLoader.isLoaded(0)) {
+            logger.info("Seed data already exists, skipping");
+            return;
+        }
+        DatasetLoader.DatasetLoad load = datasetLoader.load(0, persons, null, null, null);
+        if (load.getRows() < persons) {
+            throw new IllegalStateException("Seed data incomplete: " + load.toMap());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.camunda.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Travaux de démarrage sortis du chemin critique (profil "startup") : déploiements BPMN en parallèle
+ * et chargeurs de données exécutés l'un après l'autre en arrière-plan.
+ * Sans arrière-plan, les tâches s'exécutent dans le thread appelant comme avant.
+ * L'indicateur de santé "startupTasks" (inclus dans le groupe readiness) reste OUT_OF_SERVICE
+ * tant que l'application n'est pas prête et que des tâches sont en cours.
+ */
+@Component
+public class StartupTasks implements HealthIndicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupTasks.class);
+
+    @Autowired
+    private ConfigurableApplicationContext applicationContext;
+
+    @Value("${app.startup.background-data-loading:false}")
+    private boolean backgroundDataLoading;
+
+    @Value("${app.startup.exit-on-ready:false}")
+    private boolean exitOnReady;
+
+    private final ExecutorService executor;
+    private final List<CompletableFuture<Void>> tasks = new CopyOnWriteArrayList<>();
+    private final Map<String, String> failures = new ConcurrentHashMap<>();
+    private CompletableFuture<Void> dataLoading = CompletableFuture.completedFuture(null);
+    private volatile boolean applicationReady;
+
+    public StartupTasks(@Value("${app.startup.threads:2}") int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "startup-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Exécute une tâche indépendante sur le pool de démarrage
+     */
+    public void submit(String name, Runnable task) {
+        track(name, CompletableFuture.runAsync(() -> timed(name, task), executor));
+    }
+
+    /**
+     * Exécute un chargeur de données, en arrière-plan si configuré, à la suite des chargeurs précédents
+     */
+    public synchronized void runDataLoader(String name, Runnable loader) {
+        if (!backgroundDataLoading) {
+            loader.run();
+            return;
+        }
+        dataLoading = dataLoading.handle((result, error) -> null)
+                .thenRunAsync(() -> timed(name, loader), executor);
+        track(name, dataLoading);
+    }
+
+    public boolean isComplete() {
+        return applicationReady && tasks.stream().allMatch(CompletableFuture::isDone);
+    }
+
+    @Override
+    public Health health() {
+        long pending = tasks.stream().filter(task -> !task.isDone()).count();
+        Health.Builder builder = !failures.isEmpty() ? Health.down()
+                : isComplete() ? Health.up() : Health.outOfService();
+        return builder
+                .withDetail("applicationReady", applicationReady)
+                .withDetail("tasks", tasks.size())
+                .withDetail("pending", pending)
+                .withDetail("failures", failures)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        applicationReady = true;
+        if (!tasks.isEmpty()) {
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new))
+                    .whenComplete((result, error) -> logger.info("Startup tasks completed ({} tasks, {} failures)",
+                            tasks.size(), failures.size()));
+        }
+
+        // Run d'entraînement de l'archive CDS : toutes les classes du démarrage sont chargées, on sort
+        if (exitOnReady) {
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).handle((result, error) -> null).join();
+            logger.info("app.startup.exit-on-ready set, exiting");
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void track(String name, CompletableFuture<Void> task) {
+        tasks.add(task.whenComplete((result, error) -> {
+            if (error != null) {
+                logger.error("Startup task '{}' failed: ", name, error);
+                failures.put(name, String.valueOf(error.getMessage()));
+            }
+        }));
+    }
+
+    private static void timed(String name, Runnable task) {
+        long start = System.nanoTime();
+        task.run();
+        logger.info("Startup task '{}' completed in {} ms", name, (System.nanoTime() - start) / 1_000_000);
+    }
+}
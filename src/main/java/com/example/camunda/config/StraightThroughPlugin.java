@@ -0,0 +1,82 @@
+package com.example.camunda.config;
+
+import com.example.camunda.straightthrough.StraightThroughHistoryEventHandler;
+import com.example.camunda.straightthrough.StraightThroughHistoryEventProducer;
+import com.example.camunda.straightthrough.StraightThroughParseListener;
+import com.example.camunda.straightthrough.StraightThroughRegistry;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParseListener;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.history.handler.DbHistoryEventHandler;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mode straight-through (app.process.straight-through.enabled=true) : les processus configurés et sans
+ * état d'attente n'écrivent ni historique ni runtime, seulement une ligne process_audit par instance.
+ */
+@Component
+@ConditionalOnProperty(name = "app.process.straight-through.enabled", havingValue = "true")
+public class StraightThroughPlugin extends AbstractProcessEnginePlugin {
+
+    private static final Logger logger = LoggerFactory.getLogger(StraightThroughPlugin.class);
+
+    @Autowired
+    private StraightThroughRegistry registry;
+
+    @Value("${app.process.straight-through.audit-variables:}")
+    private List<String> auditVariables;
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl configuration) {
+        List<BpmnParseListener> parseListeners = configuration.getCustomPostBPMNParseListeners();
+        if (parseListeners == null) {
+            parseListeners = new ArrayList<>();
+            configuration.setCustomPostBPMNParseListeners(parseListeners);
+        }
+        parseListeners.add(new StraightThroughParseListener(registry));
+
+        configuration.setHistoryEventProducer(new StraightThroughHistoryEventProducer(registry));
+
+        // Le handler en base par défaut est remplacé par un handler qui filtre les processus straight-through
+        List<HistoryEventHandler> handlers = configuration.getCustomHistoryEventHandlers();
+        if (handlers == null) {
+            handlers = new ArrayList<>();
+            configuration.setCustomHistoryEventHandlers(handlers);
+        }
+        Set<String> variables = new HashSet<>(auditVariables);
+        variables.remove("");
+        handlers.add(new StraightThroughHistoryEventHandler(registry, new DbHistoryEventHandler(), variables));
+        configuration.setEnableDefaultDbHistoryEventHandler(false);
+    }
+
+    @Override
+    public void postProcessEngineBuild(ProcessEngine processEngine) {
+        ProcessEngineConfigurationImpl configuration =
+                (ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration();
+        configuration.getCommandExecutorTxRequired().execute(commandContext -> {
+            try (Statement statement = commandContext.getDbSqlSession().getSqlSession().getConnection().createStatement()) {
+                statement.execute(StraightThroughHistoryEventHandler.AUDIT_TABLE_DDL);
+                statement.execute("CREATE INDEX IF NOT EXISTS process_audit_key_idx ON process_audit (proc_def_key)");
+            } catch (SQLException e) {
+                throw new ProcessEngineException("Could not create process_audit table", e);
+            }
+            return null;
+        });
+        logger.info("Straight-through mode enabled, audit records in table process_audit");
+    }
+}
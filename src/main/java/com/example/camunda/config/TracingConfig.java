@@ -0,0 +1,22 @@
+package com.example.camunda.config;
+
+import io.micrometer.tracing.exporter.SpanExportingPredicate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spans HTTP exportés pour l'API seulement : ni actuator, ni webapps Camunda, ni la consultation des traces
+ * elle-même, qui rempliraient le tampon de app.tracing.buffer-size. Les métriques http.server.requests
+ * ne sont pas concernées.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public SpanExportingPredicate apiRequestsOnly() {
+        return span -> {
+            String url = span.getTags().get("http.url");
+            return url == null || (url.startsWith("/api/") && !url.startsWith("/api/traces"));
+        };
+    }
+}
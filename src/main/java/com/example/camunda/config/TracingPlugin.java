@@ -0,0 +1,47 @@
+package com.example.camunda.config;
+
+import com.example.camunda.tracing.ProcessTracing;
+import com.example.camunda.tracing.TracingCommandInterceptor;
+import com.example.camunda.tracing.TracingDelegateInterceptor;
+import com.example.camunda.tracing.TracingParseListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParseListener;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.CommandInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spans du moteur : démarrages d'instance, délégués, rattachement des jobs asynchrones à la trace d'origine
+ * (GET /api/traces), désactivable avec app.tracing.enabled=false
+ */
+@Component
+@ConditionalOnProperty(name = "app.tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class TracingPlugin extends AbstractProcessEnginePlugin {
+
+    @Autowired
+    private ProcessTracing tracing;
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl configuration) {
+        List<CommandInterceptor> interceptors = configuration.getCustomPreCommandInterceptorsTxRequired();
+        if (interceptors == null) {
+            interceptors = new ArrayList<>();
+            configuration.setCustomPreCommandInterceptorsTxRequired(interceptors);
+        }
+        interceptors.add(new TracingCommandInterceptor(tracing));
+
+        configuration.setDelegateInterceptor(new TracingDelegateInterceptor(tracing));
+
+        List<BpmnParseListener> listeners = configuration.getCustomPostBPMNParseListeners();
+        if (listeners == null) {
+            listeners = new ArrayList<>();
+            configuration.setCustomPostBPMNParseListeners(listeners);
+        }
+        listeners.add(new TracingParseListener(tracing));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.camunda.config;
+
+import com.example.camunda.jdbc.QueryRecorder;
+import io.opentelemetry.context.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads virtuels (app.threads.virtual, profil "virtual-threads") : requêtes Tomcat, fan-out des requêtes
+ * sur les deux shards et exécution des jobs Camunda. Sans cette option, pools de threads plateforme.
+ * Spring Boot 3.1 n'a pas encore spring.threads.virtual.enabled : chaque exécuteur est remplacé ici.
+ */
+@Configuration
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    /**
+     * Un thread virtuel par requête HTTP à la place du pool server.tomcat.threads.max
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.threads.virtual", havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        logger.info("Tomcat requests handled on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-vt-", 0).factory()));
+    }
+
+    /**
+     * Requêtes parallèles sur les bases adultes et mineurs (AgeBasedPersonService, lectures hors transaction en
+     * threads virtuels seulement ; le pool fixe ne sert qu'aux appels explicites et ne crée ses threads qu'à l'usage).
+     * Le contexte de trace de l'appelant suit chaque tâche : la requête mineurs reste dans la trace de la requête,
+     * et ses instructions JDBC dans les compteurs de la requête HTTP ou de la commande (QueryRecorder).
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService shardFanOutExecutor(@Value("${app.threads.virtual:false}") boolean virtual,
+                                               @Value("${app.threads.shard-fan-out-pool-size:8}") int poolSize,
+                                               QueryRecorder queryRecorder) {
+        if (virtual) {
+            return Context.taskWrapping(queryRecorder.propagating(
+                    Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("shard-vt-", 0).factory())));
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return Context.taskWrapping(queryRecorder.propagating(Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "shard-fan-out-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        })));
+    }
+
+    /**
+     * Remplace le pool du job executor du starter (même nom de bean). Le nombre de jobs simultanés reste borné :
+     * au-delà, le job est refusé comme par un pool plein et le job executor diffère les acquisitions suivantes,
+     * au lieu d'accumuler des threads qui attendraient tous une connexion.
+     */
+    @Bean(name = "camundaTaskExecutor")
+    @ConditionalOnProperty(name = "app.threads.virtual", havingValue = "true")
+    public TaskExecutor camundaTaskExecutor(@Value("${app.threads.job-executor-concurrency:32}") int concurrency) {
+        logger.info("Camunda jobs executed on virtual threads (at most {} concurrently)", concurrency);
+        return new BoundedVirtualThreadTaskExecutor("job-vt-", concurrency);
+    }
+
+    static class BoundedVirtualThreadTaskExecutor implements TaskExecutor {
+
+        // La fabrique est thread-safe, contrairement au builder
+        private final ThreadFactory threadFactory;
+        private final Semaphore permits;
+
+        BoundedVirtualThreadTaskExecutor(String namePrefix, int concurrency) {
+            this.threadFactory = Thread.ofVirtual().name(namePrefix, 0).factory();
+            this.permits = new Semaphore(concurrency);
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            if (!permits.tryAcquire()) {
+                throw new TaskRejectedException("Virtual thread executor at capacity");
+            }
+            threadFactory.newThread(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            }).start();
+        }
+    }
+}
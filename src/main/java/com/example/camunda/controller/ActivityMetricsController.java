@@ -0,0 +1,65 @@
+package com.example.camunda.controller;
+
+import com.example.camunda.metrics.ActivityLatencyRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/process/metrics")
+@CrossOrigin(origins = "*")
+public class ActivityMetricsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityMetricsController.class);
+
+    @Autowired
+    private ActivityLatencyRegistry latencyRegistry;
+
+    /**
+     * Latences par processus, activité, issue et shard, triées par temps cumulé décroissant
+     */
+    @GetMapping("/activities")
+    public ResponseEntity<Map<String, Object>> getActivityLatencies() {
+        try {
+            List<Map<String, Object>> activities = latencyRegistry.snapshot();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("activities", activities);
+            response.put("count", activities.size());
+            response.put("pending", latencyRegistry.getPendingCount());
+            response.put("message", "Activity latencies retrieved successfully");
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            logger.error("Error fetching activity latencies: ", e);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Error fetching activity latencies: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Remet à zéro les histogrammes et les Timers Micrometer camunda.activity.duration
+     * (entre deux campagnes de mesure)
+     */
+    @DeleteMapping("/activities")
+    public ResponseEntity<Map<String, Object>> resetActivityLatencies() {
+        latencyRegistry.reset();
+        logger.info("Activity latency histograms and timers reset");
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Activity latencies reset");
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.camunda.controller;
+
+import com.example.camunda.admission.AdaptiveConcurrencyLimiter;
+import com.example.camunda.admission.AdmissionControlFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/diagnostics/admission")
+@CrossOrigin(origins = "*")
+public class AdmissionController {
+
+    @Autowired(required = false)
+    private AdmissionControlFilter admissionControlFilter;
+
+    /**
+     * État des limiteurs : limite courante, requêtes en cours / en file, latences court / long terme, rejets
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getAdmissionState() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("enabled", admissionControlFilter != null);
+        if (admissionControlFilter != null) {
+            Map<String, Object> limiters = new HashMap<>();
+            for (AdaptiveConcurrencyLimiter limiter : admissionControlFilter.getLimiters()) {
+                limiters.put(limiter.getName(), limiter.snapshot());
+            }
+            response.put("limiters", limiters);
+        }
+        response.put("message", "Admission control state retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,19 +1,31 @@
 package com.example.camunda.controller;
 
+import com.example.camunda.events.ProcessCompletionEvent;
+import com.example.camunda.events.ProcessEventBroker;
+import com.example.camunda.service.AgeRoutingBatchService;
+import com.example.camunda.service.IdempotencyIndex;
+import com.example.camunda.service.ProcessAuditService;
+import com.example.camunda.service.ProcessStatisticsService;
 import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.RuntimeService;
 import org.camunda.bpm.engine.history.HistoricProcessInstance;
 import org.camunda.bpm.engine.history.HistoricVariableInstance;
 import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.runtime.ProcessInstanceWithVariables;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @RestController
@@ -23,14 +35,34 @@ public class AgeRoutingProcessController {
     
     private static final Logger logger = LoggerFactory.getLogger(AgeRoutingProcessController.class);
     
+    private static final int MAX_PAGE_SIZE = 1000;
+    
     @Autowired
     private ProcessEngine processEngine;
     
+    @Autowired
+    private AgeRoutingBatchService batchService;
+    
+    @Autowired
+    private ProcessStatisticsService statisticsService;
+    
+    @Autowired
+    private ProcessAuditService auditService;
+    
+    @Autowired
+    private ProcessEventBroker eventBroker;
+    
+    @Autowired
+    private IdempotencyIndex idempotencyIndex;
+    
     /**
-     * Démarre le processus de routage par âge
+     * Démarre le processus de routage par âge.
+     * Avec un en-tête Idempotency-Key (business key de l'instance), une répétition renvoie l'instance existante.
      */
     @PostMapping("/start")
-    public ResponseEntity<Map<String, Object>> startAgeRoutingProcess(@RequestBody Map<String, Object> variables) {
+    public ResponseEntity<Map<String, Object>> startAgeRoutingProcess(
+            @RequestBody Map<String, Object> variables,
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
             logger.info("Starting age-based routing process with variables: {}", variables);
             
@@ -42,42 +74,97 @@ public class AgeRoutingProcessController {
                 return ResponseEntity.badRequest().body(response);
             }
             
-            // Ajouter des métadonnées au processus
-            variables.put("processType", "age-based-routing");
-            variables.put("startTime", System.currentTimeMillis());
+            Map<String, Object> response = idempotencyKey == null
+                    ? startInstance(variables, null)
+                    : idempotencyIndex.startOnce(AgeRoutingBatchService.PROCESS_KEY, idempotencyKey, variables,
+                            businessKey -> startInstance(variables, businessKey));
+            return ResponseEntity.ok(response);
             
-            // Démarrer le processus
-            ProcessInstance processInstance = processEngine.getRuntimeService()
-                    .startProcessInstanceByKey("age-based-routing-process", variables);
+        } catch (IdempotencyIndex.InFlightException e) {
+            return idempotencyError(HttpStatus.CONFLICT, e);
+        } catch (IdempotencyIndex.KeyReuseException e) {
+            return idempotencyError(HttpStatus.UNPROCESSABLE_ENTITY, e);
+        } catch (IllegalArgumentException e) {
+            return idempotencyError(HttpStatus.BAD_REQUEST, e);
+        } catch (Exception e) {
+            logger.error("Error starting age-based routing process: ", e);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Error starting process: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+    
+    private Map<String, Object> startInstance(Map<String, Object> variables, String businessKey) {
+        // Ajouter des métadonnées au processus
+        variables.put("processType", "age-based-routing");
+        variables.put("startTime", System.currentTimeMillis());
+        
+        // Démarrer le processus : les variables finales sont capturées par la commande de démarrage,
+        // sans relire l'historique (fonctionne aussi avec history-level none/activity)
+        ProcessInstanceWithVariables processInstance = processEngine.getRuntimeService()
+                .createProcessInstanceByKey(AgeRoutingBatchService.PROCESS_KEY)
+                .businessKey(businessKey)
+                .setVariables(variables)
+                .executeWithVariablesInReturn();
+        
+        logger.info("Age-based routing process started with id: {}", processInstance.getId());
+        
+        Map<String, Object> processVariables = new HashMap<>(processInstance.getVariables());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("processInstanceId", processInstance.getId());
+        response.put("processDefinitionId", processInstance.getProcessDefinitionId());
+        response.put("businessKey", processInstance.getBusinessKey());
+        response.put("isEnded", processInstance.isEnded());
+        response.put("variables", processVariables);
+        response.put("message", "Age-based routing process started successfully");
+        return response;
+    }
+    
+    private ResponseEntity<Map<String, Object>> idempotencyError(HttpStatus status, RuntimeException e) {
+        logger.warn("Rejected age-based routing start: {}", e.getMessage());
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(status).body(response);
+    }
+    
+    /**
+     * Démarre un processus de routage par âge pour chaque élément de la liste (un commit par lot)
+     */
+    @PostMapping("/start-batch")
+    public ResponseEntity<Map<String, Object>> startAgeRoutingBatch(@RequestBody List<Map<String, Object>> items) {
+        try {
+            logger.info("Starting age-based routing batch with {} items", items.size());
             
-            logger.info("Age-based routing process started with id: {}", processInstance.getId());
+            if (items.size() > batchService.getMaxItems()) {
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", false);
+                response.put("message", "Batch too large: " + items.size() + " items (max " + batchService.getMaxItems() + ")");
+                return ResponseEntity.badRequest().body(response);
+            }
             
-            // Récupérer les variables du processus depuis l'historique (car le processus peut être terminé)
-            Map<String, Object> processVariables = new HashMap<>();
-            processEngine.getHistoryService()
-                    .createHistoricVariableInstanceQuery()
-                    .processInstanceId(processInstance.getId())
-                    .list()
-                    .forEach(variable -> {
-                        processVariables.put(variable.getName(), variable.getValue());
-                    });
+            List<Map<String, Object>> results = batchService.startBatch(items);
+            long succeeded = results.stream().filter(result -> Boolean.TRUE.equals(result.get("success"))).count();
             
             Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("processInstanceId", processInstance.getId());
-            response.put("processDefinitionId", processInstance.getProcessDefinitionId());
-            response.put("businessKey", processInstance.getBusinessKey());
-            response.put("isEnded", processInstance.isEnded());
-            response.put("variables", processVariables);
-            response.put("message", "Age-based routing process started successfully");
+            response.put("success", succeeded == results.size());
+            response.put("count", results.size());
+            response.put("succeeded", succeeded);
+            response.put("failed", results.size() - succeeded);
+            response.put("results", results);
+            response.put("message", "Age-based routing batch processed");
             
+            logger.info("Age-based routing batch completed - Succeeded: {}, Failed: {}", succeeded, results.size() - succeeded);
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
-            logger.error("Error starting age-based routing process: ", e);
+            logger.error("Error starting age-based routing batch: ", e);
             Map<String, Object> response = new HashMap<>();
             response.put("success", false);
-            response.put("message", "Error starting process: " + e.getMessage());
+            response.put("message", "Error starting batch: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
@@ -116,6 +203,11 @@ public class AgeRoutingProcessController {
                         .processInstanceId(processInstanceId)
                         .singleResult();
                 
+                // Instance straight-through : pas d'historique, seulement l'enregistrement d'audit
+                Optional<Map<String, Object>> auditRecord = historicProcess == null
+                        ? auditService.findAuditRecord(processInstanceId)
+                        : Optional.empty();
+                
                 if (historicProcess != null) {
                     List<HistoricVariableInstance> historicVariables = processEngine.getHistoryService()
                             .createHistoricVariableInstanceQuery()
@@ -136,6 +228,15 @@ public class AgeRoutingProcessController {
                     response.put("duration", historicProcess.getDurationInMillis());
                     response.put("variables", variables);
                     response.put("message", "Process completed successfully");
+                } else if (auditRecord.isPresent()) {
+                    response.put("success", true);
+                    response.put("status", "COMPLETED");
+                    response.put("processInstanceId", processInstanceId);
+                    response.put("startTime", auditRecord.get().get("startTime"));
+                    response.put("endTime", auditRecord.get().get("endTime"));
+                    response.put("duration", auditRecord.get().get("duration"));
+                    response.put("variables", auditRecord.get().get("variables"));
+                    response.put("message", "Process completed successfully");
                 } else {
                     response.put("success", false);
                     response.put("message", "Process instance not found: " + processInstanceId);
@@ -155,27 +256,113 @@ public class AgeRoutingProcessController {
     }
     
     /**
-     * Récupère tous les processus de routage par âge actifs
+     * Statut en long polling : répond dès la fin de l'instance (événement du moteur, sans relire l'historique),
+     * ou avec le statut courant au bout de waitMillis. Une seule lecture en base au lieu d'une par poll.
+     */
+    @GetMapping(value = "/status/{processInstanceId}", params = "waitMillis")
+    public DeferredResult<ResponseEntity<Map<String, Object>>> awaitProcessStatus(
+            @PathVariable String processInstanceId, @RequestParam long waitMillis) {
+        logger.info("Awaiting completion of process instance: {} (up to {} ms)", processInstanceId, waitMillis);
+        
+        long wait = eventBroker.clampWait(waitMillis);
+        DeferredResult<ResponseEntity<Map<String, Object>>> result = new DeferredResult<>(wait);
+        // Délai nul : un DeferredResult de délai 0 n'expirerait jamais, on répond tout de suite
+        if (wait <= 0) {
+            result.setResult(getProcessStatus(processInstanceId));
+            return result;
+        }
+        // Attente enregistrée avant la lecture du statut : une fin entre les deux n'est pas manquée
+        CompletableFuture<ProcessCompletionEvent> completion = eventBroker.awaitCompletion(processInstanceId);
+        result.onCompletion(() -> completion.cancel(false));
+        result.onTimeout(() -> result.setResult(getProcessStatus(processInstanceId)));
+        
+        if (!completion.isDone()) {
+            ResponseEntity<Map<String, Object>> current = getProcessStatus(processInstanceId);
+            if (current.getBody() == null || !"ACTIVE".equals(current.getBody().get("status"))) {
+                result.setResult(current);
+                return result;
+            }
+        }
+        completion.thenAccept(event -> result.setResult(ResponseEntity.ok(completedStatus(event))));
+        return result;
+    }
+    
+    private Map<String, Object> completedStatus(ProcessCompletionEvent event) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("status", event.status());
+        response.put("processInstanceId", event.processInstanceId());
+        response.put("endTime", new Date(event.endTime()));
+        response.put("endActivityId", event.endActivityId());
+        response.put("variables", event.variables());
+        response.put("message", ProcessCompletionEvent.COMPLETED.equals(event.status())
+                ? "Process completed successfully" : "Process was canceled");
+        return response;
+    }
+    
+    /**
+     * Récupère les processus de routage par âge actifs, page par page.
+     * Nombre de requêtes borné (count + page d'instances + variables de la page), quel que soit le volume.
      */
     @GetMapping("/active")
-    public ResponseEntity<Map<String, Object>> getActiveAgeRoutingProcesses() {
+    public ResponseEntity<Map<String, Object>> getActiveAgeRoutingProcesses(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
         try {
-            logger.info("Fetching active age-based routing processes");
+            logger.info("Fetching active age-based routing processes (page: {}, size: {})", page, size);
             
-            List<ProcessInstance> activeProcesses = processEngine.getRuntimeService()
-                    .createProcessInstanceQuery()
+            if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", false);
+                response.put("message", "Invalid pagination: page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+                return ResponseEntity.badRequest().body(response);
+            }
+            
+            // En long : page * size dépasse un int pour les grandes pages ; le moteur calcule aussi offset + size + 1
+            long offset = (long) page * size;
+            if (offset + size >= Integer.MAX_VALUE) {
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", false);
+                response.put("message", "Invalid pagination: page * size must stay below " + (Integer.MAX_VALUE - size));
+                return ResponseEntity.badRequest().body(response);
+            }
+            
+            RuntimeService runtimeService = processEngine.getRuntimeService();
+            
+            long totalCount = runtimeService.createProcessInstanceQuery()
                     .processDefinitionKey("age-based-routing-process")
-                    .list();
+                    .count();
+            
+            List<ProcessInstance> activeProcesses = runtimeService.createProcessInstanceQuery()
+                    .processDefinitionKey("age-based-routing-process")
+                    .orderByProcessInstanceId().asc()
+                    .listPage((int) offset, size);
+            
+            // Une seule requête pour les variables utiles de toutes les instances de la page
+            Map<String, Map<String, Object>> variablesByInstance = new HashMap<>();
+            if (!activeProcesses.isEmpty()) {
+                String[] processInstanceIds = activeProcesses.stream()
+                        .map(ProcessInstance::getId)
+                        .toArray(String[]::new);
+                
+                runtimeService.createVariableInstanceQuery()
+                        .processInstanceIdIn(processInstanceIds)
+                        .variableNameIn("personId", "email", "targetDatabase")
+                        .disableBinaryFetching()
+                        .disableCustomObjectDeserialization()
+                        .list()
+                        .forEach(variable -> variablesByInstance
+                                .computeIfAbsent(variable.getProcessInstanceId(), id -> new HashMap<>())
+                                .put(variable.getName(), variable.getValue()));
+            }
             
             List<Map<String, Object>> processData = activeProcesses.stream()
                     .map(process -> {
+                        Map<String, Object> variables = variablesByInstance.getOrDefault(process.getId(), Map.of());
+                        
                         Map<String, Object> data = new HashMap<>();
                         data.put("processInstanceId", process.getId());
                         data.put("businessKey", process.getBusinessKey());
-                        
-                        // Récupérer quelques variables clés
-                        Map<String, Object> variables = processEngine.getRuntimeService()
-                                .getVariables(process.getId());
                         data.put("personId", variables.get("personId"));
                         data.put("email", variables.get("email"));
                         data.put("targetDatabase", variables.get("targetDatabase"));
@@ -188,6 +375,9 @@ public class AgeRoutingProcessController {
             response.put("success", true);
             response.put("activeProcesses", processData);
             response.put("count", processData.size());
+            response.put("totalCount", totalCount);
+            response.put("page", page);
+            response.put("size", size);
             response.put("message", "Active processes retrieved successfully");
             
             return ResponseEntity.ok(response);
@@ -209,33 +399,11 @@ public class AgeRoutingProcessController {
         try {
             logger.info("Fetching age-based routing process statistics");
             
-            // Processus actifs
-            long activeCount = processEngine.getRuntimeService()
-                    .createProcessInstanceQuery()
-                    .processDefinitionKey("age-based-routing-process")
-                    .count();
-            
-            // Processus complétés
-            long completedCount = processEngine.getHistoryService()
-                    .createHistoricProcessInstanceQuery()
-                    .processDefinitionKey("age-based-routing-process")
-                    .finished()
-                    .count();
-            
-            // Processus total
-            long totalCount = processEngine.getHistoryService()
-                    .createHistoricProcessInstanceQuery()
-                    .processDefinitionKey("age-based-routing-process")
-                    .count();
-            
+            // Compteurs en mémoire alimentés par les événements du moteur (aucune requête en base)
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("statistics", Map.of(
-                "active", activeCount,
-                "completed", completedCount,
-                "total", totalCount,
-                "completionRate", totalCount > 0 ? (completedCount * 100.0 / totalCount) : 0
-            ));
+            response.put("statistics", statisticsService.getStatistics("age-based-routing-process"));
+            response.put("idempotency", idempotencyIndex.getStatistics());
             response.put("message", "Process statistics retrieved successfully");
             
             return ResponseEntity.ok(response);
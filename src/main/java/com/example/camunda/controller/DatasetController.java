@@ -0,0 +1,83 @@
+package com.example.camunda.controller;
+
+import com.example.camunda.dataset.DatasetLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/dataset")
+@CrossOrigin(origins = "*")
+public class DatasetController {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetController.class);
+
+    @Autowired
+    private DatasetLoader datasetLoader;
+
+    /**
+     * Lance en arrière-plan le chargement de persons personnes synthétiques (index from à from + persons - 1),
+     * suivi par GET /api/admin/dataset
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> loadDataset(@RequestParam long persons,
+                                                           @RequestParam(defaultValue = "0") long from,
+                                                           @RequestParam(required = false) Long seed,
+                                                           @RequestParam(required = false) Integer batchSize,
+                                                           @RequestParam(required = false) Integer parallelism) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            if (datasetLoader.isLoaded(from)) {
+                response.put("success", false);
+                response.put("message", "Synthetic persons already loaded from index " + from);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+            }
+            DatasetLoader.DatasetLoad load = datasetLoader.start(from, persons, seed, batchSize, parallelism);
+            logger.info("Dataset load of {} persons started from index {}", persons, from);
+
+            response.put("success", true);
+            response.put("load", load.toMap());
+            response.put("message", "Dataset load started");
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (IllegalStateException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (Exception e) {
+            logger.error("Error starting dataset load: ", e);
+            response.put("success", false);
+            response.put("message", "Error starting dataset load: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Avancement du dernier chargement : lignes par shard, durée et débit (rows/s)
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getDatasetLoad() {
+        DatasetLoader.DatasetLoad load = datasetLoader.getLastLoad();
+
+        Map<String, Object> response = new HashMap<>();
+        if (load == null) {
+            response.put("success", false);
+            response.put("message", "No dataset load since startup");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        response.put("success", true);
+        response.put("load", load.toMap());
+        response.put("message", "Dataset load status retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+}
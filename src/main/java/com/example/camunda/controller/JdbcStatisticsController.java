@@ -0,0 +1,79 @@
+package com.example.camunda.controller;
+
+import com.example.camunda.jdbc.QueryRecorder;
+import com.example.camunda.jdbc.QueryStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/jdbc/statistics")
+@CrossOrigin(origins = "*")
+public class JdbcStatisticsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcStatisticsController.class);
+
+    @Autowired
+    private QueryRecorder recorder;
+
+    /**
+     * Instructions JDBC par DataSource, par endpoint (avec budget), instances les plus coûteuses et
+     * derniers dépassements de budget
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStatistics(@RequestParam(defaultValue = "10") int topInstances) {
+        try {
+            Map<String, Object> response = new HashMap<>(recorder.getStatistics(topInstances));
+            response.put("success", true);
+            response.put("message", "JDBC statistics retrieved successfully");
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            logger.error("Error fetching JDBC statistics: ", e);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Error fetching JDBC statistics: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Instructions JDBC cumulées d'une instance de processus (toutes ses commandes)
+     */
+    @GetMapping("/instances/{processInstanceId}")
+    public ResponseEntity<Map<String, Object>> getInstanceStatistics(@PathVariable String processInstanceId) {
+        QueryStats stats = recorder.getInstanceStats(processInstanceId);
+
+        Map<String, Object> response = new HashMap<>();
+        if (stats == null) {
+            response.put("success", false);
+            response.put("message", "No JDBC statistics for process instance: " + processInstanceId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        response.put("success", true);
+        response.put("processInstanceId", processInstanceId);
+        response.put("statistics", stats.toMap());
+        response.put("message", "JDBC statistics retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Remet les compteurs à zéro (entre deux campagnes de mesure)
+     */
+    @DeleteMapping
+    public ResponseEntity<Map<String, Object>> resetStatistics() {
+        recorder.reset();
+        logger.info("JDBC statistics cleared");
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "JDBC statistics cleared");
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,5 +1,9 @@
 package com.example.camunda.controller;
 
+import com.example.camunda.events.ProcessCompletionEvent;
+import com.example.camunda.events.ProcessEventBroker;
+import com.example.camunda.service.IdempotencyIndex;
+import com.example.camunda.service.ProcessStatisticsService;
 import org.camunda.bpm.engine.ProcessEngine;
 import org.camunda.bpm.engine.runtime.ProcessInstance;
 import org.slf4j.Logger;
@@ -8,9 +12,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/process")
@@ -19,27 +25,42 @@ public class ProcessController {
     
     private static final Logger logger = LoggerFactory.getLogger(ProcessController.class);
     
+    private static final String PERSON_PROCESS_KEY = "person-process";
+    
     @Autowired
     private ProcessEngine processEngine;
     
+    @Autowired
+    private ProcessStatisticsService statisticsService;
+    
+    @Autowired
+    private ProcessEventBroker eventBroker;
+    
+    @Autowired
+    private IdempotencyIndex idempotencyIndex;
+    
+    /**
+     * Démarre le processus personne ; avec un en-tête Idempotency-Key, une répétition renvoie l'instance existante
+     */
     @PostMapping("/start-person-process")
-    public ResponseEntity<Map<String, Object>> startPersonProcess(@RequestBody Map<String, Object> variables) {
+    public ResponseEntity<Map<String, Object>> startPersonProcess(
+            @RequestBody Map<String, Object> variables,
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
             logger.info("Starting person process with variables: {}", variables);
             
-            ProcessInstance processInstance = processEngine.getRuntimeService()
-                    .startProcessInstanceByKey("person-process", variables);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("processInstanceId", processInstance.getId());
-            response.put("processDefinitionId", processInstance.getProcessDefinitionId());
-            response.put("businessKey", processInstance.getBusinessKey());
-            response.put("message", "Person process started successfully");
-            
-            logger.info("Person process started with ID: {}", processInstance.getId());
+            Map<String, Object> response = idempotencyKey == null
+                    ? startInstance(variables, null)
+                    : idempotencyIndex.startOnce(PERSON_PROCESS_KEY, idempotencyKey, variables,
+                            businessKey -> startInstance(variables, businessKey));
             return ResponseEntity.ok(response);
             
+        } catch (IdempotencyIndex.InFlightException e) {
+            return idempotencyError(HttpStatus.CONFLICT, e);
+        } catch (IdempotencyIndex.KeyReuseException e) {
+            return idempotencyError(HttpStatus.UNPROCESSABLE_ENTITY, e);
+        } catch (IllegalArgumentException e) {
+            return idempotencyError(HttpStatus.BAD_REQUEST, e);
         } catch (Exception e) {
             logger.error("Error starting person process", e);
             Map<String, Object> response = new HashMap<>();
@@ -49,6 +70,30 @@ public class ProcessController {
         }
     }
     
+    private Map<String, Object> startInstance(Map<String, Object> variables, String businessKey) {
+        ProcessInstance processInstance = processEngine.getRuntimeService()
+                .startProcessInstanceByKey(PERSON_PROCESS_KEY, businessKey, variables);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("processInstanceId", processInstance.getId());
+        response.put("processDefinitionId", processInstance.getProcessDefinitionId());
+        response.put("businessKey", processInstance.getBusinessKey());
+        response.put("isEnded", processInstance.isEnded());
+        response.put("message", "Person process started successfully");
+        
+        logger.info("Person process started with ID: {}", processInstance.getId());
+        return response;
+    }
+    
+    private ResponseEntity<Map<String, Object>> idempotencyError(HttpStatus status, RuntimeException e) {
+        logger.warn("Rejected person process start: {}", e.getMessage());
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(status).body(response);
+    }
+    
     @GetMapping("/instance/{processInstanceId}/status")
     public ResponseEntity<Map<String, Object>> getProcessStatus(@PathVariable String processInstanceId) {
         try {
@@ -107,27 +152,62 @@ public class ProcessController {
         }
     }
     
+    /**
+     * Statut en long polling : répond dès la fin de l'instance, ou avec le statut courant au bout de waitMillis
+     */
+    @GetMapping(value = "/instance/{processInstanceId}/status", params = "waitMillis")
+    public DeferredResult<ResponseEntity<Map<String, Object>>> awaitProcessStatus(
+            @PathVariable String processInstanceId, @RequestParam long waitMillis) {
+        logger.info("Awaiting completion of process instance: {} (up to {} ms)", processInstanceId, waitMillis);
+        
+        long wait = eventBroker.clampWait(waitMillis);
+        DeferredResult<ResponseEntity<Map<String, Object>>> result = new DeferredResult<>(wait);
+        // Délai nul : un DeferredResult de délai 0 n'expirerait jamais, on répond tout de suite
+        if (wait <= 0) {
+            result.setResult(getProcessStatus(processInstanceId));
+            return result;
+        }
+        CompletableFuture<ProcessCompletionEvent> completion = eventBroker.awaitCompletion(processInstanceId);
+        result.onCompletion(() -> completion.cancel(false));
+        result.onTimeout(() -> result.setResult(getProcessStatus(processInstanceId)));
+        
+        if (!completion.isDone()) {
+            ResponseEntity<Map<String, Object>> current = getProcessStatus(processInstanceId);
+            if (current.getBody() == null || !"running".equals(current.getBody().get("status"))) {
+                result.setResult(current);
+                return result;
+            }
+        }
+        completion.thenAccept(event -> {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("status", event.status().toLowerCase());
+            response.put("processInstanceId", event.processInstanceId());
+            response.put("businessKey", event.businessKey());
+            response.put("variables", event.variables());
+            response.put("message", ProcessCompletionEvent.COMPLETED.equals(event.status())
+                    ? "Process completed successfully" : "Process was canceled");
+            result.setResult(ResponseEntity.ok(response));
+        });
+        return result;
+    }
+    
     @GetMapping("/instances")
     public ResponseEntity<Map<String, Object>> getActiveProcessInstances() {
         try {
             logger.info("Getting all active process instances");
             
-            long activeCount = processEngine.getRuntimeService()
-                    .createProcessInstanceQuery()
-                    .processDefinitionKey("person-process")
-                    .count();
-            
-            long completedCount = processEngine.getHistoryService()
-                    .createHistoricProcessInstanceQuery()
-                    .processDefinitionKey("person-process")
-                    .finished()
-                    .count();
+            // Compteurs en mémoire alimentés par les événements du moteur (aucune requête en base)
+            Map<String, Object> statistics = statisticsService.getStatistics(PERSON_PROCESS_KEY);
+            long activeCount = (long) statistics.get("active");
+            long completedCount = (long) statistics.get("completed");
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("activeProcesses", activeCount);
             response.put("completedProcesses", completedCount);
             response.put("totalProcesses", activeCount + completedCount);
+            response.put("statistics", statistics);
             response.put("message", "Process statistics retrieved successfully");
             
             logger.info("Retrieved process statistics - Active: {}, Completed: {}", activeCount, completedCount);
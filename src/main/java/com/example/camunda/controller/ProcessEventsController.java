@@ -0,0 +1,59 @@
+package com.example.camunda.controller;
+
+import com.example.camunda.events.ProcessEventBroker;
+import com.example.camunda.events.ProcessEventFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/process/events")
+@CrossOrigin(origins = "*")
+public class ProcessEventsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessEventsController.class);
+
+    @Autowired
+    private ProcessEventBroker eventBroker;
+
+    /**
+     * Flux SSE des fins d'instance (événements "completed" / "canceled", "dropped" si le client ne suit pas).
+     * Avec une liste de processInstanceId, le flux se ferme quand elles sont toutes terminées.
+     */
+    @GetMapping
+    public ResponseEntity<SseEmitter> subscribe(
+            @RequestParam(required = false) String processDefinitionKey,
+            @RequestParam(required = false) List<String> processInstanceId,
+            @RequestParam(required = false) String businessKey,
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        ProcessEventFilter filter = new ProcessEventFilter(processDefinitionKey,
+                processInstanceId != null ? new HashSet<>(processInstanceId) : null, businessKey);
+        SseEmitter emitter = eventBroker.subscribe(filter, lastEventId);
+        if (emitter == null) {
+            // Pas de corps JSON possible sur ce type de retour : statut et Retry-After seulement
+            logger.warn("Rejecting process event subscriber: too many subscribers");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "5").build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Abonnés, événements livrés / perdus par abonné, attentes de long polling en cours
+     */
+    @GetMapping("/statistics")
+    public ResponseEntity<Map<String, Object>> getEventStatistics() {
+        Map<String, Object> response = new HashMap<>(eventBroker.getStatistics());
+        response.put("success", true);
+        response.put("message", "Process event statistics retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.camunda.controller;
+
+import com.example.camunda.routing.CompiledRoutingTable;
+import com.example.camunda.routing.RoutingRulesEngine;
+import com.example.camunda.routing.ShadowEvaluation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/routing/rules")
+@CrossOrigin(origins = "*")
+public class RoutingRulesController {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoutingRulesController.class);
+
+    @Autowired
+    private RoutingRulesEngine routingRules;
+
+    /**
+     * Règles actives : texte source et arbre compilé
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getActiveRules() {
+        CompiledRoutingTable active = routingRules.getActive();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("location", routingRules.getRulesLocation());
+        response.put("source", active.getSource());
+        response.put("compiled", active.describe());
+        response.put("shadowActive", routingRules.getShadow() != null);
+        response.put("message", "Routing rules retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Active un nouveau jeu de règles (corps text/plain) sans redémarrage
+     */
+    @PutMapping(consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<Map<String, Object>> activateRules(@RequestBody String source) {
+        try {
+            CompiledRoutingTable table = routingRules.activate(source);
+            return compiledResponse(table, "Routing rules version " + table.getVersion() + " activated");
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    /**
+     * Relit les règles depuis app.routing.rules-location
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<Map<String, Object>> reloadRules() {
+        try {
+            CompiledRoutingTable table = routingRules.reload();
+            return compiledResponse(table, "Routing rules version " + table.getVersion() + " reloaded");
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        } catch (Exception e) {
+            logger.error("Error reloading routing rules: ", e);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Error reloading routing rules: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Shard calculé par les règles actives (et par la candidate si le mode fantôme est actif)
+     */
+    @GetMapping("/evaluate")
+    public ResponseEntity<Map<String, Object>> evaluate(
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateOfBirth) {
+        LocalDate today = LocalDate.now();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("targetDatabase", routingRules.getActive().route(country, dateOfBirth, today));
+        response.put("version", routingRules.getActive().getVersion());
+        ShadowEvaluation shadow = routingRules.getShadow();
+        if (shadow != null) {
+            response.put("candidateTargetDatabase", shadow.getCandidate().route(country, dateOfBirth, today));
+            response.put("candidateVersion", shadow.getCandidate().getVersion());
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Évalue une version candidate en parallèle des règles actives, sans effet sur le routage
+     */
+    @PutMapping(value = "/shadow", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<Map<String, Object>> startShadow(@RequestBody String source) {
+        try {
+            ShadowEvaluation evaluation = routingRules.startShadow(source);
+            return compiledResponse(evaluation.getCandidate(),
+                    "Routing rules version " + evaluation.getCandidate().getVersion() + " evaluated in shadow mode");
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    /**
+     * Comparaison en cours entre règles actives et candidate
+     */
+    @GetMapping("/shadow")
+    public ResponseEntity<Map<String, Object>> getShadowReport() {
+        ShadowEvaluation shadow = routingRules.getShadow();
+        if (shadow == null) {
+            return notFound("No routing rules in shadow mode");
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("activeVersion", routingRules.getActive().getVersion());
+        response.put("shadow", shadow.report());
+        response.put("message", "Shadow evaluation retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Arrête le mode fantôme et renvoie le rapport final
+     */
+    @DeleteMapping("/shadow")
+    public ResponseEntity<Map<String, Object>> stopShadow() {
+        Map<String, Object> report = routingRules.stopShadow();
+        if (report == null) {
+            return notFound("No routing rules in shadow mode");
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("shadow", report);
+        response.put("message", "Shadow evaluation stopped");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Active la version candidate
+     */
+    @PostMapping("/shadow/promote")
+    public ResponseEntity<Map<String, Object>> promoteShadow() {
+        try {
+            CompiledRoutingTable table = routingRules.promoteShadow();
+            return compiledResponse(table, "Routing rules version " + table.getVersion() + " promoted");
+        } catch (IllegalStateException e) {
+            return notFound(e.getMessage());
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> compiledResponse(CompiledRoutingTable table, String message) {
+        logger.info(message);
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("compiled", table.describe());
+        response.put("message", message);
+        return ResponseEntity.ok(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> badRequest(IllegalArgumentException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", "Invalid routing rules: " + e.getMessage());
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> notFound(String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", message);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+}
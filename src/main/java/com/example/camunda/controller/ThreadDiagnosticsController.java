@@ -0,0 +1,71 @@
+package com.example.camunda.controller;
+
+import com.example.camunda.threads.InFlightRequestFilter;
+import com.example.camunda.threads.PinnedThreadMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/diagnostics/threads")
+@CrossOrigin(origins = "*")
+public class ThreadDiagnosticsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadDiagnosticsController.class);
+
+    @Autowired
+    private InFlightRequestFilter inFlightRequestFilter;
+
+    @Autowired(required = false)
+    private PinnedThreadMonitor pinnedThreadMonitor;
+
+    @Value("${app.threads.virtual:false}")
+    private boolean virtualThreads;
+
+    /**
+     * Mode d'exécution, requêtes en cours / maximum, et sites d'épinglage des threads virtuels
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getThreadDiagnostics() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("virtualThreads", virtualThreads);
+        response.put("inFlight", inFlightRequestFilter.getInFlight());
+        response.put("maxInFlight", inFlightRequestFilter.getMaxInFlight());
+        response.put("platformThreads", ManagementFactory.getThreadMXBean().getThreadCount());
+        response.put("pinningMonitor", pinnedThreadMonitor != null);
+        if (pinnedThreadMonitor != null) {
+            List<Map<String, Object>> sites = pinnedThreadMonitor.snapshot();
+            response.put("pinningThresholdMillis", pinnedThreadMonitor.getThresholdMillis());
+            response.put("pinnedSites", sites);
+            response.put("pinnedEvents", sites.stream().mapToLong(site -> (Long) site.get("count")).sum());
+        }
+        response.put("message", "Thread diagnostics retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Remet à zéro le maximum de requêtes en cours et les sites d'épinglage (entre deux campagnes de charge)
+     */
+    @DeleteMapping
+    public ResponseEntity<Map<String, Object>> resetThreadDiagnostics() {
+        inFlightRequestFilter.resetMax();
+        if (pinnedThreadMonitor != null) {
+            pinnedThreadMonitor.reset();
+        }
+        logger.info("Thread diagnostics reset");
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Thread diagnostics reset");
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.camunda.controller;
+
+import com.example.camunda.tracing.LocalSpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/traces")
+@CrossOrigin(origins = "*")
+public class TraceController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TraceController.class);
+
+    @Autowired
+    private LocalSpanExporter spanExporter;
+
+    /**
+     * Dernières traces exportées (en mémoire), la plus récente en premier
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getRecentTraces(@RequestParam(defaultValue = "20") int limit) {
+        try {
+            List<Map<String, Object>> traces = spanExporter.recentTraces(limit);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("traces", traces);
+            response.put("count", traces.size());
+            response.put("message", "Traces retrieved successfully");
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            logger.error("Error fetching traces: ", e);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Error fetching traces: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Spans d'une trace par ordre de début (parentSpanId pour reconstruire l'arbre)
+     */
+    @GetMapping("/{traceId}")
+    public ResponseEntity<Map<String, Object>> getTrace(@PathVariable String traceId) {
+        List<LocalSpanExporter.SpanRecord> spans = spanExporter.trace(traceId);
+
+        Map<String, Object> response = new HashMap<>();
+        if (spans.isEmpty()) {
+            response.put("success", false);
+            response.put("message", "Trace not found: " + traceId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        response.put("success", true);
+        response.put("traceId", traceId);
+        response.put("spans", spans);
+        response.put("count", spans.size());
+        response.put("message", "Trace retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Vide le tampon des spans (entre deux campagnes de mesure)
+     */
+    @DeleteMapping
+    public ResponseEntity<Map<String, Object>> resetTraces() {
+        spanExporter.reset();
+        logger.info("Span buffer cleared");
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Traces cleared");
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.camunda.dataset;
+
+import com.example.camunda.model.Person;
+import com.example.camunda.service.AgeBasedPersonService;
+import com.example.camunda.service.ShardVersions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Chargement en masse de personnes synthétiques (SyntheticPersons) dans leur shard, selon les règles de
+ * routage actives. Chemin d'écriture le plus court : un PreparedStatement par lot, exécuté en batch JDBC
+ * et validé en une fois, sans relecture des clés générées ni journalisation par personne. La plage
+ * d'index est découpée entre plusieurs threads, chacun avec ses lots adultes et mineurs.
+ */
+@Service
+public class DatasetLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetLoader.class);
+
+    private static final long PROGRESS_INTERVAL = 100_000;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO persons (first_name, last_name, email, phone_number, date_of_birth,
+                                 address, city, country, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            """;
+
+    @Autowired
+    private AgeBasedPersonService personService;
+
+    @Autowired
+    private ShardVersions shardVersions;
+
+    @Autowired
+    @Qualifier("adultsJdbcTemplate")
+    private JdbcTemplate adultsJdbcTemplate;
+
+    @Autowired
+    @Qualifier("minorsJdbcTemplate")
+    private JdbcTemplate minorsJdbcTemplate;
+
+    @Value("${app.seed.random-seed:42}")
+    private long defaultSeed;
+
+    @Value("${app.seed.batch-size:1000}")
+    private int defaultBatchSize;
+
+    @Value("${app.seed.parallelism:4}")
+    private int defaultParallelism;
+
+    private final AtomicReference<DatasetLoad> lastLoad = new AtomicReference<>();
+
+    /**
+     * Chargement en cours ou terminé : compteurs lus pendant le chargement par GET /api/admin/dataset
+     */
+    public static final class DatasetLoad {
+
+        private final long from;
+        private final long count;
+        private final long seed;
+        private final int batchSize;
+        private final int parallelism;
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong adults = new AtomicLong();
+        private final AtomicLong minors = new AtomicLong();
+        private volatile long endNanos;
+        private volatile String status = "RUNNING";
+        private volatile String error;
+
+        private DatasetLoad(long from, long count, long seed, int batchSize, int parallelism) {
+            this.from = from;
+            this.count = count;
+            this.seed = seed;
+            this.batchSize = batchSize;
+            this.parallelism = parallelism;
+        }
+
+        public boolean isRunning() {
+            return "RUNNING".equals(status);
+        }
+
+        public long getRows() {
+            return adults.get() + minors.get();
+        }
+
+        public long getElapsedMillis() {
+            long end = endNanos != 0 ? endNanos : System.nanoTime();
+            return Math.max(1, (end - startNanos) / 1_000_000);
+        }
+
+        public long getRowsPerSecond() {
+            return getRows() * 1000 / getElapsedMillis();
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("status", status);
+            map.put("from", from);
+            map.put("count", count);
+            map.put("seed", seed);
+            map.put("batchSize", batchSize);
+            map.put("parallelism", parallelism);
+            map.put("rows", getRows());
+            map.put("adults", adults.get());
+            map.put("minors", minors.get());
+            map.put("elapsedMs", getElapsedMillis());
+            map.put("rowsPerSecond", getRowsPerSecond());
+            if (error != null) {
+                map.put("error", error);
+            }
+            return map;
+        }
+    }
+
+    /**
+     * Vrai si la personne d'index from existe déjà (jeu déjà chargé à partir de cet index)
+     */
+    public boolean isLoaded(long from) {
+        return personService.getPersonByEmail(SyntheticPersons.email(from)).isPresent();
+    }
+
+    /**
+     * Charge count personnes à partir de l'index from et attend la fin (graine, lots et threads par défaut
+     * de app.seed.* si null)
+     */
+    public DatasetLoad load(long from, long count, Long seed, Integer batchSize, Integer parallelism) {
+        DatasetLoad load = begin(from, count, seed, batchSize, parallelism);
+        run(load);
+        return load;
+    }
+
+    /**
+     * Lance le chargement en arrière-plan et rend la main aussitôt
+     */
+    public DatasetLoad start(long from, long count, Long seed, Integer batchSize, Integer parallelism) {
+        DatasetLoad load = begin(from, count, seed, batchSize, parallelism);
+        Thread thread = new Thread(() -> run(load), "dataset-loader");
+        thread.setDaemon(true);
+        thread.start();
+        return load;
+    }
+
+    /**
+     * Dernier chargement lancé, null si aucun
+     */
+    public DatasetLoad getLastLoad() {
+        return lastLoad.get();
+    }
+
+    private DatasetLoad begin(long from, long count, Long seed, Integer batchSize, Integer parallelism) {
+        if (count <= 0 || from < 0) {
+            throw new IllegalArgumentException("count must be positive and from non-negative");
+        }
+        DatasetLoad load = new DatasetLoad(from, count, seed != null ? seed : defaultSeed,
+                Math.max(1, batchSize != null ? batchSize : defaultBatchSize),
+                (int) Math.min(count, Math.max(1, parallelism != null ? parallelism : defaultParallelism)));
+        DatasetLoad previous = lastLoad.get();
+        if ((previous != null && previous.isRunning()) || !lastLoad.compareAndSet(previous, load)) {
+            throw new IllegalStateException("A dataset load is already running");
+        }
+        return load;
+    }
+
+    private void run(DatasetLoad load) {
+        logger.info("Loading {} synthetic persons from index {} (seed {}, batches of {}, {} threads)...",
+                load.count, load.from, load.seed, load.batchSize, load.parallelism);
+        personService.initializeTables();
+        SyntheticPersons generator = new SyntheticPersons(load.seed);
+        AtomicLong nextProgress = new AtomicLong(PROGRESS_INTERVAL);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(load.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "dataset-loader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            // Plages contiguës : chaque thread insère des e-mails voisins, dans l'ordre de l'index unique
+            List<Future<?>> partitions = new ArrayList<>();
+            long partitionSize = (load.count + load.parallelism - 1) / load.parallelism;
+            for (long start = load.from; start < load.from + load.count; start += partitionSize) {
+                long first = start;
+                long end = Math.min(start + partitionSize, load.from + load.count);
+                partitions.add(executor.submit(() -> loadRange(load, generator, first, end, nextProgress)));
+            }
+            for (Future<?> partition : partitions) {
+                partition.get();
+            }
+            load.status = "COMPLETED";
+        } catch (ExecutionException e) {
+            load.status = "FAILED";
+            load.error = e.getCause().getMessage();
+            logger.error("Dataset load failed after {} rows", load.getRows(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            load.status = "FAILED";
+            load.error = "Interrupted";
+        } finally {
+            executor.shutdownNow();
+            load.endNanos = System.nanoTime();
+            // Même en échec : des lots ont pu être validés
+            shardVersions.changed(ShardVersions.ADULTS);
+            shardVersions.changed(ShardVersions.MINORS);
+        }
+        logger.info("Loaded {} persons in {} ms ({} rows/s): {} adults, {} minors",
+                load.getRows(), load.getElapsedMillis(), load.getRowsPerSecond(), load.adults.get(), load.minors.get());
+    }
+
+    private void loadRange(DatasetLoad load, SyntheticPersons generator, long first, long end,
+                           AtomicLong nextProgress) {
+        List<Person> adults = new ArrayList<>(load.batchSize);
+        List<Person> minors = new ArrayList<>(load.batchSize);
+        for (long index = first; index < end; index++) {
+            Person person = generator.person(index);
+            boolean minor = personService.isMinor(person);
+            List<Person> batch = minor ? minors : adults;
+            batch.add(person);
+            if (batch.size() == load.batchSize) {
+                insertBatch(minor ? minorsJdbcTemplate : adultsJdbcTemplate, batch);
+                (minor ? load.minors : load.adults).addAndGet(batch.size());
+                batch.clear();
+                reportProgress(load, nextProgress);
+            }
+        }
+        if (!adults.isEmpty()) {
+            insertBatch(adultsJdbcTemplate, adults);
+            load.adults.addAndGet(adults.size());
+        }
+        if (!minors.isEmpty()) {
+            insertBatch(minorsJdbcTemplate, minors);
+            load.minors.addAndGet(minors.size());
+        }
+    }
+
+    private void insertBatch(JdbcTemplate template, List<Person> batch) {
+        template.execute((ConnectionCallback<Void>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL)) {
+                for (Person person : batch) {
+                    ps.setString(1, person.getFirstName());
+                    ps.setString(2, person.getLastName());
+                    ps.setString(3, person.getEmail());
+                    ps.setString(4, person.getPhoneNumber());
+                    ps.setDate(5, person.getDateOfBirth() != null ? Date.valueOf(person.getDateOfBirth()) : null);
+                    ps.setString(6, person.getAddress());
+                    ps.setString(7, person.getCity());
+                    ps.setString(8, person.getCountry());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+    }
+
+    private static void reportProgress(DatasetLoad load, AtomicLong nextProgress) {
+        long rows = load.getRows();
+        long threshold = nextProgress.get();
+        if (rows >= threshold && nextProgress.compareAndSet(threshold, threshold + PROGRESS_INTERVAL)) {
+            logger.info("Loaded {} / {} persons ({} rows/s)", rows, load.count, load.getRowsPerSecond());
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.camunda.dataset;
+
+import com.example.camunda.model.Person;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Personnes synthétiques déterministes : la personne d'index i ne dépend que de la graine et de i, quel que soit
+ * l'ordre ou le découpage de la génération. Distributions proches d'une population réelle : pyramide des âges,
+ * prénoms et noms en loi de Zipf (beaucoup d'homonymes), villes pondérées par population, domaines de
+ * messagerie courants, téléphone et adresse parfois absents.
+ * L'e-mail (seed-&lt;i&gt;@domaine) et la minorité (un index sur quatre) ne dépendent que de l'index : un harnais
+ * vise une personne existante, et son shard, sans la relire.
+ */
+public class SyntheticPersons {
+
+    public static final long DEFAULT_SEED = 42;
+
+    private static final String[] FIRST_NAMES = {"Marie", "Jean", "Pierre", "Nathalie", "Michel", "Isabelle",
+            "Philippe", "Sylvie", "Alain", "Catherine", "Nicolas", "Sophie", "Thomas", "Julie", "Lucas", "Emma",
+            "Louis", "Lea", "Hugo", "Chloe", "Gabriel", "Manon", "Arthur", "Camille", "Jules", "Ines", "Adam",
+            "Sarah", "Paul", "Laura", "Mohamed", "Fatima", "David", "Anne", "Karim", "Yasmine", "Antoine", "Lina",
+            "Olivier", "Zoe"};
+    private static final String[] LAST_NAMES = {"Martin", "Bernard", "Thomas", "Petit", "Robert", "Richard",
+            "Durand", "Dubois", "Moreau", "Laurent", "Simon", "Michel", "Lefebvre", "Leroy", "Roux", "David",
+            "Bertrand", "Morel", "Fournier", "Girard", "Bonnet", "Dupont", "Lambert", "Fontaine", "Rousseau",
+            "Vincent", "Muller", "Lefevre", "Faure", "Andre", "Mercier", "Blanc", "Guerin", "Boyer", "Garnier",
+            "Chevalier", "Francois", "Legrand", "Gauthier", "Garcia", "Perrin", "Robin", "Clement", "Morin",
+            "Nicolas", "Henry", "Roussel", "Mathieu", "Gautier", "Masson", "Nguyen", "Benali", "Lopez", "Fernandez",
+            "Da Silva", "Martinez", "Rossi", "Haddad", "Schmitt", "Meyer"};
+
+    private static final String[] COUNTRIES = {"France", "Belgique", "Suisse", "Canada", "Maroc", "Luxembourg"};
+    private static final int[] COUNTRY_WEIGHTS = {86, 5, 3, 3, 2, 1};
+    private static final String[][] CITIES = {
+            {"Paris", "Marseille", "Lyon", "Toulouse", "Nice", "Nantes", "Montpellier", "Strasbourg", "Bordeaux",
+                    "Lille", "Rennes", "Reims", "Toulon", "Saint-Etienne", "Le Havre", "Grenoble", "Dijon", "Angers",
+                    "Nimes", "Clermont-Ferrand"},
+            {"Bruxelles", "Anvers", "Gand", "Charleroi", "Liege", "Namur"},
+            {"Zurich", "Geneve", "Bale", "Lausanne", "Berne"},
+            {"Montreal", "Quebec", "Laval", "Gatineau", "Sherbrooke"},
+            {"Casablanca", "Rabat", "Fes", "Marrakech", "Tanger"},
+            {"Luxembourg", "Esch-sur-Alzette", "Differdange"}};
+    // Populations en milliers d'habitants
+    private static final int[][] CITY_WEIGHTS = {
+            {2133, 873, 522, 504, 342, 320, 302, 291, 261, 236, 222, 180, 180, 173, 166, 158, 159, 157, 151, 147},
+            {1222, 530, 265, 203, 197, 113},
+            {421, 203, 173, 140, 134},
+            {1762, 549, 438, 291, 172},
+            {3360, 577, 1112, 928, 948},
+            {128, 36, 28}};
+
+    private static final String[] EMAIL_DOMAINS = {"gmail.com", "hotmail.fr", "yahoo.fr", "orange.fr", "outlook.fr",
+            "free.fr", "sfr.fr", "laposte.net", "icloud.com", "wanadoo.fr"};
+    private static final int[] EMAIL_DOMAIN_WEIGHTS = {38, 12, 10, 10, 8, 7, 5, 5, 3, 2};
+
+    private static final String[] STREET_TYPES = {"Rue", "Avenue", "Boulevard", "Place", "Chemin", "Impasse", "Allee"};
+    private static final int[] STREET_TYPE_WEIGHTS = {60, 15, 8, 5, 5, 4, 3};
+    private static final String[] STREET_NAMES = {"de la Paix", "Victor Hugo", "Jean Jaures", "de la Republique",
+            "du General de Gaulle", "Pasteur", "Gambetta", "de l'Eglise", "des Ecoles", "du Moulin", "de la Gare",
+            "Jules Ferry", "Voltaire", "de la Liberte", "des Lilas", "du Chateau"};
+
+    // Adultes par tranche d'âge [min, max] : pyramide des âges en pour mille
+    private static final int[][] ADULT_AGE_BANDS = {{18, 24}, {25, 34}, {35, 44}, {45, 54}, {55, 64}, {65, 74},
+            {75, 84}, {85, 99}};
+    private static final int[] ADULT_AGE_WEIGHTS = {107, 145, 157, 161, 157, 138, 91, 44};
+
+    private static final int[] FIRST_NAME_WEIGHTS = zipf(FIRST_NAMES.length);
+    private static final int[] LAST_NAME_WEIGHTS = zipf(LAST_NAMES.length);
+    private static final Weighted COUNTRY_PICK = new Weighted(COUNTRY_WEIGHTS);
+    private static final Weighted[] CITY_PICKS = Arrays.stream(CITY_WEIGHTS).map(Weighted::new)
+            .toArray(Weighted[]::new);
+    private static final Weighted EMAIL_DOMAIN_PICK = new Weighted(EMAIL_DOMAIN_WEIGHTS);
+    private static final Weighted STREET_TYPE_PICK = new Weighted(STREET_TYPE_WEIGHTS);
+    private static final Weighted ADULT_AGE_PICK = new Weighted(ADULT_AGE_WEIGHTS);
+    private static final Weighted FIRST_NAME_PICK = new Weighted(FIRST_NAME_WEIGHTS);
+    private static final Weighted LAST_NAME_PICK = new Weighted(LAST_NAME_WEIGHTS);
+
+    private final long seed;
+    private final LocalDate today;
+
+    public SyntheticPersons(long seed) {
+        this(seed, LocalDate.now());
+    }
+
+    public SyntheticPersons(long seed, LocalDate today) {
+        this.seed = seed;
+        this.today = today;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * E-mail unique de la personne d'index donné, indépendant de la graine
+     */
+    public static String email(long index) {
+        return "seed-" + index + "@" + EMAIL_DOMAINS[EMAIL_DOMAIN_PICK.pick(mix(index))];
+    }
+
+    /**
+     * Une personne sur quatre est mineure (environ la part des moins de 18 ans en France)
+     */
+    public static boolean isMinor(long index) {
+        return index % 4 == 0;
+    }
+
+    public Person person(long index) {
+        SplittableRandom random = new SplittableRandom(mix(seed ^ mix(index)));
+        Person person = new Person();
+        person.setFirstName(FIRST_NAMES[FIRST_NAME_PICK.pick(random.nextLong())]);
+        person.setLastName(LAST_NAMES[LAST_NAME_PICK.pick(random.nextLong())]);
+        person.setEmail(email(index));
+
+        int age;
+        if (isMinor(index)) {
+            age = random.nextInt(18);
+        } else {
+            int[] band = ADULT_AGE_BANDS[ADULT_AGE_PICK.pick(random.nextLong())];
+            age = band[0] + random.nextInt(band[1] - band[0] + 1);
+        }
+        // Anniversaire déjà passé cette année ou non : âge exact à la date de référence
+        person.setDateOfBirth(today.minusYears(age).minusDays(random.nextInt(365)));
+
+        int country = COUNTRY_PICK.pick(random.nextLong());
+        person.setCountry(COUNTRIES[country]);
+        person.setCity(CITIES[country][CITY_PICKS[country].pick(random.nextLong())]);
+
+        // Environ 10 % sans téléphone, 5 % sans adresse
+        if (random.nextInt(10) != 0) {
+            // 1xxxxxxxx : huit chiffres sans String.format, coûteux sur des millions de lignes
+            String digits = Integer.toString(100_000_000 + random.nextInt(100_000_000));
+            person.setPhoneNumber("+33" + (6 + random.nextInt(2)) + digits.substring(1));
+        }
+        if (random.nextInt(20) != 0) {
+            person.setAddress((1 + random.nextInt(150)) + " " + STREET_TYPES[STREET_TYPE_PICK.pick(random.nextLong())]
+                    + " " + STREET_NAMES[random.nextInt(STREET_NAMES.length)]);
+        }
+        return person;
+    }
+
+    /**
+     * Poids en loi de Zipf (s = 1) : le premier rang est n fois plus fréquent que le n-ième
+     */
+    private static int[] zipf(int size) {
+        int[] weights = new int[size];
+        for (int rank = 0; rank < size; rank++) {
+            weights[rank] = 100_000 / (rank + 1);
+        }
+        return weights;
+    }
+
+    // SplitMix64 : bits bien répartis pour des index consécutifs
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Tirage pondéré par recherche dichotomique dans les poids cumulés
+     */
+    private static final class Weighted {
+
+        private final long[] cumulative;
+
+        private Weighted(int[] weights) {
+            cumulative = new long[weights.length];
+            long total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                total += weights[i];
+                cumulative[i] = total;
+            }
+        }
+
+        private int pick(long bits) {
+            long target = Long.remainderUnsigned(bits, cumulative[cumulative.length - 1]);
+            int index = Arrays.binarySearch(cumulative, target + 1);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+}
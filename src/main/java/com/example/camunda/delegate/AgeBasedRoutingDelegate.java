@@ -54,8 +54,8 @@ public class AgeBasedRoutingDelegate implements JavaDelegate {
             if (person != null) {
                 // Calculer l'âge et déterminer la base de données appropriée
                 int age = personService.calculateAge(person);
-                boolean isMinor = personService.isMinor(person);
-                String targetDatabase = isMinor ? "MINORS" : "ADULTS";
+                String targetDatabase = personService.resolveShard(person);
+                boolean isMinor = "MINORS".equals(targetDatabase);
                 
                 logger.info("Person found: {} {} (Age: {}, Target DB: {})", 
                            person.getFirstName(), person.getLastName(), age, targetDatabase);
@@ -9,6 +9,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Optional;
+
 @Component
 public class PersonProcessingDelegate implements JavaDelegate {
     
@@ -45,8 +47,11 @@ public class PersonProcessingDelegate implements JavaDelegate {
                     
                 case "update":
                     Long personId = person.getId();
-                    if (personId != null && personService.existsById(personId)) {
-                        Person updatedPerson = personService.updatePerson(personId, person);
+                    Optional<Person> updated = personId != null
+                            ? personService.updateExistingPerson(personId, person)
+                            : Optional.empty();
+                    if (updated.isPresent()) {
+                        Person updatedPerson = updated.get();
                         processingResult = "Person updated successfully: " + personId;
                         execution.setVariable("person", updatedPerson);
                         processingSuccess = true;
@@ -0,0 +1,34 @@
+package com.example.camunda.events;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fin d'une instance de processus, publiée après le commit de la transaction du moteur
+ */
+public record ProcessCompletionEvent(
+        long sequence,
+        String processInstanceId,
+        String processDefinitionKey,
+        String businessKey,
+        String status,
+        String endActivityId,
+        long endTime,
+        Map<String, Object> variables) {
+
+    public static final String COMPLETED = "COMPLETED";
+    public static final String CANCELED = "CANCELED";
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("sequence", sequence);
+        map.put("processInstanceId", processInstanceId);
+        map.put("processDefinitionKey", processDefinitionKey);
+        map.put("businessKey", businessKey);
+        map.put("status", status);
+        map.put("endActivityId", endActivityId);
+        map.put("endTime", endTime);
+        map.put("variables", variables);
+        return map;
+    }
+}
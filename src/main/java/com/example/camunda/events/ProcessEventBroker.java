@@ -0,0 +1,215 @@
+package com.example.camunda.events;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Diffusion des fins d'instance aux abonnés SSE (GET /api/process/events) et aux requêtes /status en
+ * long polling. Les dernières fins sont gardées en mémoire : un long polling sur une instance déjà terminée
+ * répond sans requête en base, et un client SSE qui se reconnecte avec Last-Event-ID reçoit ce qu'il a manqué.
+ * Les événements ne concernent que les instances terminées sur ce nœud (mode cluster : le long polling
+ * retombe sur la lecture en base à l'expiration du délai).
+ */
+@Component
+public class ProcessEventBroker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessEventBroker.class);
+
+    @Value("${app.process.events.max-subscribers:1000}")
+    private int maxSubscribers;
+
+    @Value("${app.process.events.subscriber-buffer:256}")
+    private int subscriberBuffer;
+
+    @Value("${app.process.events.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMillis;
+
+    @Value("${app.process.events.max-wait-ms:60000}")
+    private long maxWaitMillis;
+
+    private final Map<String, ProcessCompletionEvent> recentCompletions;
+    private final List<ProcessEventSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final Map<String, List<CompletableFuture<ProcessCompletionEvent>>> waiters = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+
+    // Un envoi SSE peut bloquer sur un client lent : un thread virtuel par envoi, jamais le thread du moteur
+    private final ExecutorService dispatcher =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("process-events-", 0).factory());
+
+    public ProcessEventBroker(@Value("${app.process.events.recent-completions:10000}") int recentCompletions) {
+        this.recentCompletions = new LinkedHashMap<>(1024, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ProcessCompletionEvent> eldest) {
+                return size() > recentCompletions;
+            }
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.forEach(subscription -> subscription.getEmitter().complete());
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * Appelé au commit de la transaction qui termine l'instance
+     */
+    public void publish(String processInstanceId, String processDefinitionKey, String businessKey,
+                        String status, String endActivityId, long endTime, Map<String, Object> variables) {
+        ProcessCompletionEvent event = new ProcessCompletionEvent(sequence.incrementAndGet(), processInstanceId,
+                processDefinitionKey, businessKey, status, endActivityId, endTime, variables);
+        synchronized (recentCompletions) {
+            recentCompletions.put(processInstanceId, event);
+        }
+        published.incrementAndGet();
+
+        List<CompletableFuture<ProcessCompletionEvent>> instanceWaiters = waiters.remove(processInstanceId);
+        if (instanceWaiters != null) {
+            instanceWaiters.forEach(waiter -> waiter.complete(event));
+        }
+        for (ProcessEventSubscription subscription : subscriptions) {
+            if (subscription.offer(event)) {
+                schedule(subscription);
+            }
+        }
+    }
+
+    public Optional<ProcessCompletionEvent> recentCompletion(String processInstanceId) {
+        synchronized (recentCompletions) {
+            return Optional.ofNullable(recentCompletions.get(processInstanceId));
+        }
+    }
+
+    /**
+     * Futur complété à la fin de l'instance (immédiatement si elle vient de se terminer).
+     * L'annuler retire l'attente.
+     */
+    public CompletableFuture<ProcessCompletionEvent> awaitCompletion(String processInstanceId) {
+        CompletableFuture<ProcessCompletionEvent> completion = new CompletableFuture<>();
+        waiters.computeIfAbsent(processInstanceId, id -> new CopyOnWriteArrayList<>()).add(completion);
+        completion.whenComplete((event, error) -> waiters.computeIfPresent(processInstanceId, (id, list) -> {
+            list.remove(completion);
+            return list.isEmpty() ? null : list;
+        }));
+        // Fin publiée avant l'enregistrement de l'attente
+        recentCompletion(processInstanceId).ifPresent(completion::complete);
+        return completion;
+    }
+
+    /**
+     * Délai de long polling borné par app.process.events.max-wait-ms ; 0 = réponse immédiate (à traiter par
+     * l'appelant : un délai asynchrone de 0 signifie "sans limite")
+     */
+    public long clampWait(long waitMillis) {
+        return Math.max(0, Math.min(waitMillis, maxWaitMillis));
+    }
+
+    /**
+     * Nouvel abonné SSE ; null si le nombre maximal d'abonnés est atteint
+     */
+    public SseEmitter subscribe(ProcessEventFilter filter, Long lastEventId) {
+        if (subscriptions.size() >= maxSubscribers) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        ProcessEventSubscription subscription = new ProcessEventSubscription(
+                UUID.randomUUID().toString(), filter, emitter, subscriberBuffer);
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(error -> remove(subscription));
+        subscriptions.add(subscription);
+
+        // Fins déjà connues : événements manqués depuis Last-Event-ID, ou instances demandées déjà terminées
+        if (lastEventId != null || filter.isBounded()) {
+            List<ProcessCompletionEvent> missed;
+            synchronized (recentCompletions) {
+                missed = recentCompletions.values().stream()
+                        .filter(event -> lastEventId == null || event.sequence() > lastEventId)
+                        .filter(filter::matches)
+                        .toList();
+            }
+            missed.forEach(subscription::offer);
+        }
+        subscription.requestHeartbeat();
+        schedule(subscription);
+        logger.debug("Process event subscriber {} added ({} active)", subscription.getId(), subscriptions.size());
+        return emitter;
+    }
+
+    /**
+     * Commentaire SSE périodique : garde la connexion ouverte derrière les proxys et détecte les clients partis
+     */
+    @Scheduled(fixedDelayString = "${app.process.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (ProcessEventSubscription subscription : subscriptions) {
+            subscription.requestHeartbeat();
+            schedule(subscription);
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        List<Map<String, Object>> subscribers = new ArrayList<>();
+        for (ProcessEventSubscription subscription : subscriptions) {
+            Map<String, Object> subscriber = new HashMap<>();
+            subscriber.put("id", subscription.getId());
+            subscriber.put("delivered", subscription.getDelivered());
+            subscriber.put("dropped", subscription.getDropped());
+            subscriber.put("buffered", subscription.getBuffered());
+            subscribers.add(subscriber);
+        }
+        statistics.put("published", published.get());
+        statistics.put("subscribers", subscribers);
+        statistics.put("longPollWaiters", waiters.values().stream().mapToInt(List::size).sum());
+        synchronized (recentCompletions) {
+            statistics.put("recentCompletions", recentCompletions.size());
+        }
+        return statistics;
+    }
+
+    private void schedule(ProcessEventSubscription subscription) {
+        if (subscription.markScheduled()) {
+            dispatcher.execute(() -> drain(subscription));
+        }
+    }
+
+    private void drain(ProcessEventSubscription subscription) {
+        try {
+            subscription.flush();
+        } catch (Exception e) {
+            logger.debug("Process event subscriber {} disconnected: {}", subscription.getId(), e.getMessage());
+            remove(subscription);
+            subscription.getEmitter().completeWithError(e);
+        } finally {
+            subscription.unmarkScheduled();
+        }
+        if (subscription.hasPending()) {
+            schedule(subscription);
+        }
+    }
+
+    private void remove(ProcessEventSubscription subscription) {
+        subscription.close();
+        subscriptions.remove(subscription);
+    }
+}
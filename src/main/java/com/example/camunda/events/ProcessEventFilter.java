@@ -0,0 +1,23 @@
+package com.example.camunda.events;
+
+import java.util.Set;
+
+/**
+ * Critères d'un abonné au flux d'événements ; un critère null (ou vide) accepte tout
+ */
+public record ProcessEventFilter(String processDefinitionKey, Set<String> processInstanceIds, String businessKey) {
+
+    public boolean matches(ProcessCompletionEvent event) {
+        return (processDefinitionKey == null || processDefinitionKey.equals(event.processDefinitionKey()))
+                && (processInstanceIds == null || processInstanceIds.isEmpty()
+                    || processInstanceIds.contains(event.processInstanceId()))
+                && (businessKey == null || businessKey.equals(event.businessKey()));
+    }
+
+    /**
+     * Abonnement limité à une liste d'instances : le flux se ferme quand elles sont toutes terminées
+     */
+    public boolean isBounded() {
+        return processInstanceIds != null && !processInstanceIds.isEmpty();
+    }
+}
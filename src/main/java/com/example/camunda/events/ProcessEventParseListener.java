@@ -0,0 +1,63 @@
+package com.example.camunda.events;
+
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.ExecutionListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.AbstractBpmnParseListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.impl.util.xml.Element;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ajoute un listener de fin à chaque processus déployé : les variables de l'instance sont capturées
+ * pendant qu'elles sont encore en mémoire, et l'événement n'est publié qu'au commit (une instance
+ * annulée par rollback n'est jamais annoncée). Indépendant du niveau d'historique et du mode straight-through.
+ */
+public class ProcessEventParseListener extends AbstractBpmnParseListener {
+
+    private final ProcessEventBroker broker;
+    private final boolean includeVariables;
+
+    public ProcessEventParseListener(ProcessEventBroker broker, boolean includeVariables) {
+        this.broker = broker;
+        this.includeVariables = includeVariables;
+    }
+
+    @Override
+    public void parseProcess(Element processElement, ProcessDefinitionEntity processDefinition) {
+        String processDefinitionKey = processDefinition.getKey();
+        processDefinition.addBuiltInListener(ExecutionListener.EVENTNAME_END,
+                (ExecutionListener) execution -> onProcessEnd(execution, processDefinitionKey));
+    }
+
+    private void onProcessEnd(DelegateExecution execution, String processDefinitionKey) {
+        ExecutionEntity processInstance = (ExecutionEntity) execution;
+        if (!processInstance.isProcessInstanceExecution()) {
+            return;
+        }
+        Map<String, Object> variables = includeVariables ? new HashMap<>(execution.getVariables()) : Map.of();
+        String status = processInstance.isCanceled() || processInstance.getDeleteReason() != null
+                ? ProcessCompletionEvent.CANCELED
+                : ProcessCompletionEvent.COMPLETED;
+        String processInstanceId = execution.getProcessInstanceId();
+        String businessKey = execution.getProcessBusinessKey();
+        String endActivityId = processInstance.getActivityId();
+        long endTime = ClockUtil.getCurrentTime().getTime();
+
+        Runnable publish = () -> broker.publish(processInstanceId, processDefinitionKey, businessKey,
+                status, endActivityId, endTime, variables);
+        CommandContext commandContext = Context.getCommandContext();
+        if (commandContext == null) {
+            publish.run();
+        } else {
+            commandContext.getTransactionContext()
+                    .addTransactionListener(TransactionState.COMMITTED, context -> publish.run());
+        }
+    }
+}
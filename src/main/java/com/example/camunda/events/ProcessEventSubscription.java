@@ -0,0 +1,130 @@
+package com.example.camunda.events;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Un abonné SSE : file bornée alimentée par le broker, vidée par une seule tâche d'envoi à la fois.
+ * File pleine (client trop lent) : les nouveaux événements sont comptés puis signalés par un événement
+ * "dropped", le client se recale alors via /status.
+ */
+class ProcessEventSubscription {
+
+    private final String id;
+    private final ProcessEventFilter filter;
+    private final SseEmitter emitter;
+    private final BlockingQueue<ProcessCompletionEvent> buffer;
+    private final Set<String> remainingInstances;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicLong pendingDrops = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean heartbeatPending;
+    private volatile boolean closed;
+
+    ProcessEventSubscription(String id, ProcessEventFilter filter, SseEmitter emitter, int bufferSize) {
+        this.id = id;
+        this.filter = filter;
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.remainingInstances = filter.isBounded() ? new HashSet<>(filter.processInstanceIds()) : null;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    long getDelivered() {
+        return delivered.get();
+    }
+
+    long getDropped() {
+        return dropped.get();
+    }
+
+    int getBuffered() {
+        return buffer.size();
+    }
+
+    /**
+     * Met l'événement en file s'il passe le filtre ; renvoie true si un envoi est à planifier
+     */
+    boolean offer(ProcessCompletionEvent event) {
+        if (closed || !filter.matches(event)) {
+            return false;
+        }
+        if (!buffer.offer(event)) {
+            pendingDrops.incrementAndGet();
+            dropped.incrementAndGet();
+        }
+        return true;
+    }
+
+    void requestHeartbeat() {
+        heartbeatPending = true;
+    }
+
+    boolean hasPending() {
+        return !closed && (!buffer.isEmpty() || pendingDrops.get() > 0 || heartbeatPending);
+    }
+
+    boolean markScheduled() {
+        return scheduled.compareAndSet(false, true);
+    }
+
+    void unmarkScheduled() {
+        scheduled.set(false);
+    }
+
+    /**
+     * Envoie tout ce qui est en attente (appelé par une seule tâche à la fois)
+     */
+    void flush() throws IOException {
+        long drops = pendingDrops.getAndSet(0);
+        if (drops > 0) {
+            emitter.send(SseEmitter.event().name("dropped").data(Map.of("count", drops), MediaType.APPLICATION_JSON));
+        }
+        ProcessCompletionEvent event;
+        while (!closed && (event = buffer.poll()) != null) {
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(event.sequence()))
+                    .name(event.status().toLowerCase())
+                    .data(event.toMap(), MediaType.APPLICATION_JSON));
+            delivered.incrementAndGet();
+            if (remainingInstances != null) {
+                remainingInstances.remove(event.processInstanceId());
+                if (remainingInstances.isEmpty()) {
+                    close();
+                    emitter.complete();
+                    return;
+                }
+            }
+        }
+        if (heartbeatPending) {
+            heartbeatPending = false;
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    void close() {
+        closed = true;
+        buffer.clear();
+    }
+}
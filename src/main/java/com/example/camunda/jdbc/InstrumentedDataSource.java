@@ -0,0 +1,276 @@
+package com.example.camunda.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DataSource qui mesure chaque instruction exécutée (execute*) : durée, type et lignes (nombre renvoyé par
+ * une mise à jour ou un batch, lignes parcourues d'un ResultSet), transmis au QueryRecorder sous son nom.
+ * Les valeurs liées (setXxx) passent sans être lues. DelegatingDataSource : DataSourceUnwrapper retrouve
+ * le pool Hikari derrière, pour ses métriques hikaricp.*.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    private static final ClassLoader CLASS_LOADER = InstrumentedDataSource.class.getClassLoader();
+
+    private final String name;
+    private final QueryRecorder recorder;
+
+    public InstrumentedDataSource(String name, DataSource target, QueryRecorder recorder) {
+        super(target);
+        this.name = name;
+        this.recorder = recorder;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * equals, hashCode, toString, unwrap et isWrapperFor du proxy ; null si la méthode n'en fait pas partie
+     */
+    private static Object proxyMethod(Object proxy, Object target, Method method, Object[] args) throws SQLException {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "toString" -> "Instrumented[" + target + "]";
+            case "unwrap" -> ((Class<?>) args[0]).isInstance(proxy) ? proxy
+                    : ((java.sql.Wrapper) target).unwrap((Class<?>) args[0]);
+            case "isWrapperFor" -> ((Class<?>) args[0]).isInstance(proxy)
+                    || ((java.sql.Wrapper) target).isWrapperFor((Class<?>) args[0]);
+            default -> null;
+        };
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object own = proxyMethod(proxy, target, method, args);
+            if (own != null) {
+                return own;
+            }
+            Object result = invokeTarget(target, method, args);
+            return switch (method.getName()) {
+                case "createStatement" -> wrapStatement((Statement) result, null, Statement.class, proxy);
+                case "prepareStatement" ->
+                        wrapStatement((Statement) result, (String) args[0], PreparedStatement.class, proxy);
+                case "prepareCall" ->
+                        wrapStatement((Statement) result, (String) args[0], CallableStatement.class, proxy);
+                default -> result;
+            };
+        }
+
+        private Object wrapStatement(Statement statement, String sql, Class<?> type, Object connection) {
+            return Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[]{type},
+                    new StatementHandler(statement, sql, (Connection) connection));
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private final Connection connection;
+
+        // Un Statement n'est utilisé que par un thread à la fois
+        private String batchSql;
+        private QueryStats[] lastTargets;
+        private boolean updateCountPending;
+        private List<ResultSetHandler> resultSets;
+
+        private StatementHandler(Statement target, String preparedSql, Connection connection) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object own = proxyMethod(proxy, target, method, args);
+            if (own != null) {
+                return own;
+            }
+            String methodName = method.getName();
+            if (methodName.startsWith("execute")) {
+                return execute(method, args);
+            }
+            switch (methodName) {
+                case "getConnection":
+                    return connection;
+                case "getResultSet": {
+                    ResultSet resultSet = (ResultSet) invokeTarget(target, method, args);
+                    return resultSet != null && lastTargets != null ? wrapResultSet(resultSet, lastTargets) : resultSet;
+                }
+                case "getUpdateCount": {
+                    // Mise à jour par execute() (MyBatis) : lignes connues au premier appel
+                    Object count = invokeTarget(target, method, args);
+                    if (updateCountPending) {
+                        updateCountPending = false;
+                        QueryRecorder.addRows(lastTargets, (Integer) count);
+                    }
+                    return count;
+                }
+                case "addBatch":
+                    if (args != null && args.length == 1 && batchSql == null) {
+                        batchSql = (String) args[0];
+                    }
+                    break;
+                case "clearBatch":
+                    batchSql = null;
+                    break;
+                case "close":
+                    flushResultSets();
+                    break;
+                default:
+                    break;
+            }
+            return invokeTarget(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String methodName = method.getName();
+            boolean batch = methodName.equals("executeBatch") || methodName.equals("executeLargeBatch");
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s
+                    : batch && preparedSql == null ? batchSql : preparedSql;
+            if (batch) {
+                batchSql = null;
+            }
+
+            QueryStats[] targets = recorder.targets(name);
+            long rows = 0;
+            long start = System.nanoTime();
+            Object result = null;
+            try {
+                result = invokeTarget(target, method, args);
+                rows = rowsOf(result);
+                return result instanceof ResultSet resultSet ? wrapResultSet(resultSet, targets) : result;
+            } finally {
+                recorder.recorded(name, sql, targets, System.nanoTime() - start, rows);
+                lastTargets = targets;
+                updateCountPending = methodName.equals("execute") && Boolean.FALSE.equals(result);
+            }
+        }
+
+        private ResultSet wrapResultSet(ResultSet resultSet, QueryStats[] targets) {
+            ResultSetHandler handler = new ResultSetHandler(resultSet, targets);
+            if (resultSets == null) {
+                resultSets = new ArrayList<>(1);
+            }
+            resultSets.add(handler);
+            return (ResultSet) Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[]{ResultSet.class}, handler);
+        }
+
+        private void flushResultSets() {
+            if (resultSets != null) {
+                resultSets.forEach(ResultSetHandler::flush);
+                resultSets = null;
+            }
+        }
+
+        private static long rowsOf(Object result) {
+            if (result instanceof Integer count) {
+                return Math.max(count, 0);
+            }
+            if (result instanceof Long count) {
+                return Math.max(count, 0);
+            }
+            long rows = 0;
+            if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    rows += Math.max(count, 0);
+                }
+            } else if (result instanceof long[] counts) {
+                for (long count : counts) {
+                    rows += Math.max(count, 0);
+                }
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Compte les lignes parcourues, reportées à la fin du parcours, à la fermeture du ResultSet ou de son
+     * Statement
+     */
+    private static final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+        private final QueryStats[] targets;
+        private long rows;
+
+        private ResultSetHandler(ResultSet target, QueryStats[] targets) {
+            this.target = target;
+            this.targets = targets;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object own = proxyMethod(proxy, target, method, args);
+            if (own != null) {
+                return own;
+            }
+            Object result = invokeTarget(target, method, args);
+            switch (method.getName()) {
+                case "next" -> {
+                    if ((Boolean) result) {
+                        rows++;
+                    } else {
+                        flush();
+                    }
+                }
+                case "close" -> flush();
+                default -> {
+                }
+            }
+            return result;
+        }
+
+        private void flush() {
+            QueryRecorder.addRows(targets, rows);
+            rows = 0;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.camunda.jdbc;
+
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.ExecutionListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.AbstractBpmnParseListener;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
+import org.camunda.bpm.engine.impl.pvm.process.ScopeImpl;
+import org.camunda.bpm.engine.impl.util.xml.Element;
+
+/**
+ * Rattache la commande en cours à l'instance qu'elle démarre ou fait avancer (début du processus ou d'une
+ * activité), pour cumuler ses instructions JDBC par instance
+ */
+public class QueryAttributionParseListener extends AbstractBpmnParseListener {
+
+    private final QueryRecorder recorder;
+
+    public QueryAttributionParseListener(QueryRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public void parseProcess(Element processElement, ProcessDefinitionEntity processDefinition) {
+        processDefinition.addBuiltInListener(ExecutionListener.EVENTNAME_START, (ExecutionListener) this::attribute);
+        addActivityListeners(processDefinition);
+    }
+
+    private void addActivityListeners(ScopeImpl scope) {
+        for (ActivityImpl activity : scope.getActivities()) {
+            activity.addBuiltInListener(ExecutionListener.EVENTNAME_START, (ExecutionListener) this::attribute);
+            addActivityListeners(activity);
+        }
+    }
+
+    private void attribute(DelegateExecution execution) {
+        recorder.attribute(execution.getProcessInstanceId());
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.camunda.jdbc;
+
+/**
+ * Budget de requêtes dépassé, levée par les assertions de QueryStats et QueryRecorder.
+ * AssertionError pour être rapportée comme un échec (et non une erreur) par JUnit.
+ */
+public class QueryBudgetExceededException extends AssertionError {
+
+    private static final long serialVersionUID = 1L;
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.camunda.jdbc;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Instructions JDBC de chaque requête /api/**, cumulées par endpoint (méthode et motif du mapping) et
+ * comparées à app.jdbc.budgets. Seul le traitement synchrone est compté : les corps écrits après coup
+ * (StreamingResponseBody, SSE) ne le sont pas.
+ */
+@Component
+@ConditionalOnProperty(name = "app.jdbc.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private QueryRecorder recorder;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryRecorder.Scope scope = recorder.open();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope.close();
+            // Absent pour une requête sans handler (404) ou écartée par un filtre (304, 503)
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                recorder.endpointCompleted(request.getMethod() + " " + pattern, scope.stats());
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.camunda.jdbc;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration de l'instrumentation JDBC (app.jdbc.*)
+ */
+@Component
+@ConfigurationProperties(prefix = "app.jdbc")
+public class QueryBudgetProperties {
+
+    /**
+     * Enveloppe les deux DataSources (adultes et mineurs) pour compter les instructions
+     */
+    private boolean enabled = true;
+
+    /**
+     * Instruction journalisée en WARN au-delà de cette durée (0 = jamais)
+     */
+    private long slowQueryMs = 100;
+
+    /**
+     * Instances dont les compteurs sont gardés, les plus anciennes oubliées au-delà
+     */
+    private int maxInstances = 10_000;
+
+    /**
+     * Dépassements gardés pour GET /api/jdbc/statistics et QueryRecorder.assertNoBudgetViolations
+     */
+    private int maxViolations = 100;
+
+    /**
+     * Nombre maximum d'instructions par requête HTTP, par endpoint : "GET /api/persons/{id}" -> 2
+     */
+    private Map<String, Integer> budgets = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getSlowQueryMs() {
+        return slowQueryMs;
+    }
+
+    public void setSlowQueryMs(long slowQueryMs) {
+        this.slowQueryMs = slowQueryMs;
+    }
+
+    public int getMaxInstances() {
+        return maxInstances;
+    }
+
+    public void setMaxInstances(int maxInstances) {
+        this.maxInstances = maxInstances;
+    }
+
+    public int getMaxViolations() {
+        return maxViolations;
+    }
+
+    public void setMaxViolations(int maxViolations) {
+        this.maxViolations = maxViolations;
+    }
+
+    public Map<String, Integer> getBudgets() {
+        return budgets;
+    }
+
+    public void setBudgets(Map<String, Integer> budgets) {
+        this.budgets = budgets;
+    }
+}
@@ -0,0 +1,415 @@
+package com.example.camunda.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Comptabilité des instructions JDBC exécutées via InstrumentedDataSource : totaux par DataSource, et
+ * portées ouvertes sur le thread courant (requête HTTP, commande du moteur, capture de test) qui reçoivent
+ * chacune toutes les instructions exécutées tant qu'elles sont ouvertes. Les commandes du moteur sont
+ * rattachées à leur instance de processus, dont les compteurs sont cumulés.
+ * Les instructions lentes sont journalisées avec leurs littéraux remplacés par "?" ; les valeurs liées
+ * des PreparedStatement ne sont jamais lues.
+ */
+@Component
+public class QueryRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryRecorder.class);
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w$.])-?\\d+(?:\\.\\d+)?");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_SQL_LENGTH = 1000;
+
+    @Autowired
+    private QueryBudgetProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ThreadLocal<Deque<Scope>> scopes = new ThreadLocal<>();
+
+    private final Map<String, QueryStats> totals = new ConcurrentHashMap<>();
+    private final Map<String, QueryStats[]> totalsOnly = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    // Protégés par leur propre moniteur
+    private final Map<String, QueryStats> instances = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, QueryStats> eldest) {
+            return size() > properties.getMaxInstances();
+        }
+    };
+    private final Deque<Map<String, Object>> violations = new ArrayDeque<>();
+
+    /**
+     * Portée de comptage, à fermer sur le thread qui l'a ouverte (try-with-resources)
+     */
+    public final class Scope implements AutoCloseable {
+
+        private final QueryStats stats;
+        private final boolean attributable;
+        private volatile String processInstanceId;
+
+        private Scope(QueryStats stats, boolean attributable, String processInstanceId) {
+            this.stats = stats;
+            this.attributable = attributable;
+            this.processInstanceId = processInstanceId;
+        }
+
+        public QueryStats stats() {
+            return stats;
+        }
+
+        public String getProcessInstanceId() {
+            return processInstanceId;
+        }
+
+        @Override
+        public void close() {
+            QueryRecorder.this.close(this);
+        }
+    }
+
+    /**
+     * Travail mesuré par capture()
+     */
+    @FunctionalInterface
+    public interface Work {
+        void run() throws Exception;
+    }
+
+    /**
+     * Portée anonyme (requête HTTP, mesure ponctuelle)
+     */
+    public Scope open() {
+        return push(new Scope(new QueryStats(), false, null));
+    }
+
+    /**
+     * Portée d'une commande du moteur : rattachée à la première instance qu'elle fait avancer (attribute)
+     */
+    public Scope openCommand() {
+        return push(new Scope(new QueryStats(), true, null));
+    }
+
+    /**
+     * Portée rattachée d'emblée à une instance (délégué d'une external task, hors commande)
+     */
+    public Scope openInstance(String processInstanceId) {
+        return push(new Scope(new QueryStats(), true, processInstanceId));
+    }
+
+    /**
+     * API de test : instructions exécutées par work sur ce thread (et les tâches du fan-out des shards),
+     * SQL compris pour le message d'échec. Ex. recorder.capture(() -> mockMvc.perform(get("/api/persons/1")))
+     * .assertAtMost(2)
+     */
+    public QueryStats capture(Work work) throws Exception {
+        Scope scope = push(new Scope(new QueryStats(true), false, null));
+        try {
+            work.run();
+        } finally {
+            scope.close();
+        }
+        return scope.stats();
+    }
+
+    /**
+     * Rattache la commande en cours sur ce thread à une instance, si elle ne l'est pas déjà
+     */
+    public void attribute(String processInstanceId) {
+        Deque<Scope> stack = scopes.get();
+        if (stack == null) {
+            return;
+        }
+        for (Iterator<Scope> it = stack.descendingIterator(); it.hasNext(); ) {
+            Scope scope = it.next();
+            if (scope.attributable) {
+                if (scope.processInstanceId == null) {
+                    scope.processInstanceId = processInstanceId;
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Tâche exécutée avec les portées ouvertes sur le thread appelant
+     */
+    public Runnable propagate(Runnable task) {
+        Deque<Scope> stack = scopes.get();
+        if (stack == null || stack.isEmpty()) {
+            return task;
+        }
+        List<Scope> snapshot = List.copyOf(stack);
+        return () -> {
+            Deque<Scope> previous = scopes.get();
+            scopes.set(new ArrayDeque<>(snapshot));
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    scopes.set(previous);
+                } else {
+                    scopes.remove();
+                }
+            }
+        };
+    }
+
+    /**
+     * Exécuteur dont les tâches héritent des portées de l'appelant (fan-out des shards)
+     */
+    public ExecutorService propagating(ExecutorService executor) {
+        return new ScopePropagatingExecutorService(executor, this);
+    }
+
+    /**
+     * Bilan d'une requête HTTP sur son endpoint ("GET /api/persons/{id}"), comparé au budget configuré
+     */
+    public void endpointCompleted(String endpoint, QueryStats stats) {
+        Integer budget = properties.getBudgets().get(endpoint);
+        EndpointStats endpointStats = endpoints.computeIfAbsent(endpoint, key -> new EndpointStats());
+        endpointStats.add(stats);
+
+        if (budget != null && stats.getStatements() > budget) {
+            endpointStats.violations.incrementAndGet();
+            logger.warn("Query budget exceeded for {}: {} statements (budget {})",
+                    endpoint, stats.getStatements(), budget);
+
+            Map<String, Object> violation = new LinkedHashMap<>();
+            violation.put("endpoint", endpoint);
+            violation.put("budget", budget);
+            violation.put("statements", stats.getStatements());
+            violation.put("timestamp", Instant.now().toString());
+            synchronized (violations) {
+                violations.addLast(violation);
+                if (violations.size() > properties.getMaxViolations()) {
+                    violations.removeFirst();
+                }
+            }
+        }
+    }
+
+    /**
+     * API de test (serveur réel, RestTemplate...) : échoue si une requête a dépassé le budget de son endpoint
+     * depuis le dernier reset()
+     */
+    public void assertNoBudgetViolations() {
+        List<Map<String, Object>> current = getViolations();
+        if (!current.isEmpty()) {
+            StringBuilder message = new StringBuilder("Query budgets exceeded:");
+            current.forEach(violation -> message.append(System.lineSeparator()).append("  ")
+                    .append(violation.get("endpoint")).append(": ").append(violation.get("statements"))
+                    .append(" statements (budget ").append(violation.get("budget")).append(')'));
+            throw new QueryBudgetExceededException(message.toString());
+        }
+    }
+
+    public List<Map<String, Object>> getViolations() {
+        synchronized (violations) {
+            return List.copyOf(violations);
+        }
+    }
+
+    /**
+     * Compteurs cumulés d'une instance de processus, null si inconnue ou oubliée
+     */
+    public QueryStats getInstanceStats(String processInstanceId) {
+        synchronized (instances) {
+            return instances.get(processInstanceId);
+        }
+    }
+
+    public Map<String, Object> getStatistics(int topInstances) {
+        Map<String, Object> dataSources = new TreeMap<>();
+        totals.forEach((name, stats) -> dataSources.put(name, stats.toMap()));
+
+        Map<String, Object> endpointMaps = new TreeMap<>();
+        endpoints.forEach((endpoint, stats) -> endpointMaps.put(endpoint,
+                stats.toMap(properties.getBudgets().get(endpoint))));
+
+        List<Map.Entry<String, QueryStats>> instanceEntries;
+        synchronized (instances) {
+            instanceEntries = new ArrayList<>(instances.entrySet());
+        }
+        List<Map<String, Object>> heaviest = instanceEntries.stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, QueryStats> entry) -> entry.getValue().getStatements()).reversed())
+                .limit(topInstances)
+                .map(entry -> {
+                    Map<String, Object> instance = new LinkedHashMap<>();
+                    instance.put("processInstanceId", entry.getKey());
+                    instance.putAll(entry.getValue().toMap());
+                    return instance;
+                })
+                .toList();
+
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("dataSources", dataSources);
+        statistics.put("endpoints", endpointMaps);
+        statistics.put("trackedInstances", instanceEntries.size());
+        statistics.put("heaviestInstances", heaviest);
+        statistics.put("violations", getViolations());
+        return statistics;
+    }
+
+    /**
+     * Remet à zéro les totaux, endpoints, instances et dépassements (entre deux campagnes de mesure)
+     */
+    public void reset() {
+        totals.clear();
+        totalsOnly.clear();
+        endpoints.clear();
+        synchronized (instances) {
+            instances.clear();
+        }
+        synchronized (violations) {
+            violations.clear();
+        }
+    }
+
+    /**
+     * Compteurs alimentés par une instruction lancée maintenant sur ce thread : total de la DataSource et
+     * portées ouvertes. Figés à l'exécution, pour les lignes lues ensuite, éventuellement ailleurs.
+     */
+    QueryStats[] targets(String dataSource) {
+        Deque<Scope> stack = scopes.get();
+        if (stack == null || stack.isEmpty()) {
+            return totalsOnly.computeIfAbsent(dataSource, name -> new QueryStats[]{total(name)});
+        }
+        QueryStats[] targets = new QueryStats[stack.size() + 1];
+        targets[0] = total(dataSource);
+        int i = 1;
+        for (Scope scope : stack) {
+            targets[i++] = scope.stats;
+        }
+        return targets;
+    }
+
+    void recorded(String dataSource, String sql, QueryStats[] targets, long elapsedNanos, long rows) {
+        StatementType type = StatementType.of(sql);
+        String redacted = null;
+        for (QueryStats stats : targets) {
+            if (redacted == null && stats.keepsStatements()) {
+                redacted = redact(sql);
+            }
+            stats.add(type, redacted, elapsedNanos, rows);
+        }
+        timers.computeIfAbsent(dataSource + ':' + type, key -> Timer.builder("jdbc.statements")
+                        .description("Instructions JDBC exécutées par DataSource et par type")
+                        .tag("datasource", dataSource)
+                        .tag("type", type.name().toLowerCase())
+                        .register(meterRegistry))
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        long slowQueryMs = properties.getSlowQueryMs();
+        if (slowQueryMs > 0 && elapsedNanos >= TimeUnit.MILLISECONDS.toNanos(slowQueryMs)) {
+            logger.warn("Slow query on {} ({} ms): {}",
+                    dataSource, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), redacted != null ? redacted : redact(sql));
+        }
+    }
+
+    static void addRows(QueryStats[] targets, long rows) {
+        if (rows > 0) {
+            for (QueryStats stats : targets) {
+                stats.addRows(rows);
+            }
+        }
+    }
+
+    /**
+     * SQL sur une ligne, littéraux chaînes et nombres remplacés par "?", tronqué
+     */
+    static String redact(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String redacted = STRING_LITERAL.matcher(sql).replaceAll("?");
+        redacted = NUMBER_LITERAL.matcher(redacted).replaceAll("?");
+        redacted = WHITESPACE.matcher(redacted).replaceAll(" ").trim();
+        return redacted.length() > MAX_SQL_LENGTH ? redacted.substring(0, MAX_SQL_LENGTH) + "..." : redacted;
+    }
+
+    private QueryStats total(String dataSource) {
+        return totals.computeIfAbsent(dataSource, name -> new QueryStats());
+    }
+
+    private Scope push(Scope scope) {
+        Deque<Scope> stack = scopes.get();
+        if (stack == null) {
+            stack = new ArrayDeque<>();
+            scopes.set(stack);
+        }
+        stack.addLast(scope);
+        return scope;
+    }
+
+    private void close(Scope scope) {
+        Deque<Scope> stack = scopes.get();
+        if (stack != null) {
+            stack.removeLastOccurrence(scope);
+            if (stack.isEmpty()) {
+                scopes.remove();
+            }
+        }
+        String processInstanceId = scope.processInstanceId;
+        if (scope.attributable && processInstanceId != null && scope.stats.getStatements() > 0) {
+            synchronized (instances) {
+                instances.computeIfAbsent(processInstanceId, id -> new QueryStats()).merge(scope.stats);
+            }
+        }
+    }
+
+    /**
+     * Cumul des requêtes HTTP d'un endpoint
+     */
+    private static final class EndpointStats {
+
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong maxStatements = new AtomicLong();
+        private final AtomicLong violations = new AtomicLong();
+        private final QueryStats total = new QueryStats();
+
+        private void add(QueryStats stats) {
+            requests.incrementAndGet();
+            maxStatements.accumulateAndGet(stats.getStatements(), Math::max);
+            total.merge(stats);
+        }
+
+        private Map<String, Object> toMap(Integer budget) {
+            long count = requests.get();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("requests", count);
+            map.put("avgStatements", count > 0 ? Math.round(total.getStatements() * 100.0 / count) / 100.0 : 0);
+            map.put("maxStatements", maxStatements.get());
+            map.put("avgRows", count > 0 ? Math.round(total.getRows() * 100.0 / count) / 100.0 : 0);
+            map.put("avgTimeMs", count > 0 ? Math.round(total.getTimeMs() * 100 / count) / 100.0 : 0);
+            map.put("budget", budget);
+            map.put("violations", violations.get());
+            return map;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.camunda.jdbc;
+
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandInterceptor;
+
+/**
+ * Une portée de comptage par commande de premier niveau, flush et commit compris (placé avant l'intercepteur
+ * transactionnel). Les commandes imbriquées comptent dans celle qui les appelle.
+ */
+public class QueryScopeCommandInterceptor extends CommandInterceptor {
+
+    private final QueryRecorder recorder;
+
+    public QueryScopeCommandInterceptor(QueryRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    @SuppressWarnings("try") // la portée n'est utilisée que pour sa fermeture
+    public <T> T execute(Command<T> command) {
+        if (Context.getCommandContext() != null) {
+            return next.execute(command);
+        }
+        try (QueryRecorder.Scope ignored = recorder.openCommand()) {
+            return next.execute(command);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.camunda.jdbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Compteurs JDBC d'une portée (requête HTTP, commande du moteur, instance, capture de test) : nombre
+ * d'instructions par type, temps d'exécution et lignes lues ou modifiées. Alimentée par plusieurs threads
+ * quand la portée suit le fan-out des shards.
+ */
+public class QueryStats {
+
+    private static final int MAX_KEPT_STATEMENTS = 200;
+
+    private final AtomicLong statements = new AtomicLong();
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLongArray byType = new AtomicLongArray(StatementType.values().length);
+
+    // SQL expurgé des instructions, pour le message d'un dépassement de budget (captures seulement)
+    private final List<String> kept;
+
+    public QueryStats() {
+        this(false);
+    }
+
+    QueryStats(boolean keepStatements) {
+        this.kept = keepStatements ? Collections.synchronizedList(new ArrayList<>()) : null;
+    }
+
+    void add(StatementType type, String redactedSql, long elapsedNanos, long rowCount) {
+        statements.incrementAndGet();
+        nanos.addAndGet(elapsedNanos);
+        byType.incrementAndGet(type.ordinal());
+        addRows(rowCount);
+        if (kept != null && kept.size() < MAX_KEPT_STATEMENTS) {
+            kept.add(redactedSql);
+        }
+    }
+
+    boolean keepsStatements() {
+        return kept != null;
+    }
+
+    void addRows(long rowCount) {
+        if (rowCount > 0) {
+            rows.addAndGet(rowCount);
+        }
+    }
+
+    void merge(QueryStats other) {
+        statements.addAndGet(other.statements.get());
+        nanos.addAndGet(other.nanos.get());
+        rows.addAndGet(other.rows.get());
+        for (int i = 0; i < byType.length(); i++) {
+            byType.addAndGet(i, other.byType.get(i));
+        }
+    }
+
+    public long getStatements() {
+        return statements.get();
+    }
+
+    public long getStatements(StatementType type) {
+        return byType.get(type.ordinal());
+    }
+
+    public long getRows() {
+        return rows.get();
+    }
+
+    public double getTimeMs() {
+        return nanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * SQL expurgé des instructions comptées, dans l'ordre (vide hors capture)
+     */
+    public List<String> getStatementsSql() {
+        if (kept == null) {
+            return List.of();
+        }
+        synchronized (kept) {
+            return List.copyOf(kept);
+        }
+    }
+
+    /**
+     * Échoue si la portée a exécuté plus de maxStatements instructions
+     */
+    public QueryStats assertAtMost(int maxStatements) {
+        if (getStatements() > maxStatements) {
+            throw new QueryBudgetExceededException(
+                    "Expected at most " + maxStatements + " statements but " + getStatements() + " were executed"
+                            + describeStatements());
+        }
+        return this;
+    }
+
+    /**
+     * Échoue si la portée a exécuté plus de maxStatements instructions du type donné
+     */
+    public QueryStats assertAtMost(StatementType type, int maxStatements) {
+        if (getStatements(type) > maxStatements) {
+            throw new QueryBudgetExceededException(
+                    "Expected at most " + maxStatements + " " + type + " statements but " + getStatements(type)
+                            + " were executed" + describeStatements());
+        }
+        return this;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("statements", getStatements());
+        map.put("timeMs", Math.round(getTimeMs() * 100) / 100.0);
+        map.put("rows", getRows());
+        Map<String, Long> types = new LinkedHashMap<>();
+        for (StatementType type : StatementType.values()) {
+            long count = getStatements(type);
+            if (count > 0) {
+                types.put(type.name(), count);
+            }
+        }
+        map.put("byType", types);
+        return map;
+    }
+
+    private String describeStatements() {
+        List<String> sql = getStatementsSql();
+        if (sql.isEmpty()) {
+            return "";
+        }
+        StringBuilder description = new StringBuilder(":");
+        for (int i = 0; i < sql.size(); i++) {
+            description.append(System.lineSeparator()).append("  ").append(i + 1).append(". ").append(sql.get(i));
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.camunda.jdbc;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exécuteur dont chaque tâche compte ses instructions dans les portées ouvertes par le thread qui l'a soumise
+ * (submit, invokeAll... passent tous par execute)
+ */
+class ScopePropagatingExecutorService extends AbstractExecutorService {
+
+    private final ExecutorService delegate;
+    private final QueryRecorder recorder;
+
+    ScopePropagatingExecutorService(ExecutorService delegate, QueryRecorder recorder) {
+        this.delegate = delegate;
+        this.recorder = recorder;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        delegate.execute(recorder.propagate(command));
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
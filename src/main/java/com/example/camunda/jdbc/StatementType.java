@@ -0,0 +1,31 @@
+package com.example.camunda.jdbc;
+
+/**
+ * Nature d'une instruction SQL, d'après son premier mot
+ */
+public enum StatementType {
+    SELECT, INSERT, UPDATE, DELETE, MERGE, DDL, OTHER;
+
+    public static StatementType of(String sql) {
+        if (sql == null) {
+            return OTHER;
+        }
+        int start = 0;
+        while (start < sql.length() && (Character.isWhitespace(sql.charAt(start)) || sql.charAt(start) == '(')) {
+            start++;
+        }
+        int end = start;
+        while (end < sql.length() && Character.isLetter(sql.charAt(end))) {
+            end++;
+        }
+        return switch (sql.substring(start, end).toUpperCase()) {
+            case "SELECT", "WITH", "VALUES" -> SELECT;
+            case "INSERT" -> INSERT;
+            case "UPDATE" -> UPDATE;
+            case "DELETE" -> DELETE;
+            case "MERGE" -> MERGE;
+            case "CREATE", "ALTER", "DROP", "TRUNCATE" -> DDL;
+            default -> OTHER;
+        };
+    }
+}
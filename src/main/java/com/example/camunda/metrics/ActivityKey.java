@@ -0,0 +1,7 @@
+package com.example.camunda.metrics;
+
+/**
+ * Dimension d'un histogramme de latence : processus, activité, issue et shard (base cible), ce dernier optionnel
+ */
+public record ActivityKey(String processDefinitionKey, String activityId, String outcome, String shard) {
+}
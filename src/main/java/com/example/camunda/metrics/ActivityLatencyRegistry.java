@@ -0,0 +1,143 @@
+package com.example.camunda.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latences des activités (microsecondes), un histogramme HDR et un Timer Micrometer par {@link ActivityKey}.
+ * Les débuts d'activité en cours sont indexés par id d'instance d'activité ; ceux qui ne finissent jamais sur
+ * cette JVM (tâche en attente, instance reprise par un autre nœud) sont oubliés au-delà de max-pending-age-ms.
+ */
+@Component
+public class ActivityLatencyRegistry {
+
+    public static final String OUTCOME_COMPLETED = "completed";
+    public static final String OUTCOME_CANCELED = "canceled";
+    public static final String OUTCOME_FAILED = "failed";
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLatencyRegistry.class);
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.process.activity-metrics.max-pending-age-ms:3600000}")
+    private long maxPendingAgeMs;
+
+    private final Map<String, Long> startNanos = new ConcurrentHashMap<>();
+    private final Map<ActivityKey, ActivityLatency> latencies = new ConcurrentHashMap<>();
+
+    void started(String activityInstanceId) {
+        startNanos.put(activityInstanceId, System.nanoTime());
+    }
+
+    /**
+     * Enregistre la fin d'une activité ; ignoré si son début n'a pas été vu par cette JVM
+     */
+    void ended(String activityInstanceId, ActivityKey key) {
+        Long start = startNanos.remove(activityInstanceId);
+        if (start != null) {
+            latencies.computeIfAbsent(key, this::newLatency).record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Oublie les débuts d'activité plus anciens que max-pending-age-ms : leur fin ne sera pas mesurée
+     */
+    @Scheduled(initialDelayString = "${app.process.activity-metrics.sweep-interval-ms:60000}",
+               fixedDelayString = "${app.process.activity-metrics.sweep-interval-ms:60000}")
+    public void evictStalePending() {
+        long oldest = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(maxPendingAgeMs);
+        int before = startNanos.size();
+        startNanos.values().removeIf(start -> start - oldest < 0);
+        int evicted = before - startNanos.size();
+        if (evicted > 0) {
+            logger.debug("Evicted {} activity starts older than {} ms", evicted, maxPendingAgeMs);
+        }
+    }
+
+    public int getPendingCount() {
+        return startNanos.size();
+    }
+
+    public List<Map<String, Object>> snapshot() {
+        List<Map<String, Object>> activities = new ArrayList<>();
+        latencies.forEach((key, latency) -> activities.add(latency.toMap(key)));
+        // Les activités qui coûtent le plus de temps cumulé en premier
+        activities.sort(Comparator.comparingDouble(
+                (Map<String, Object> activity) -> (double) activity.get("totalMillis")).reversed());
+        return activities;
+    }
+
+    /**
+     * Supprime histogrammes et Timers : les séries camunda.activity.duration repartent de zéro
+     * (vu comme une remise à zéro de compteur par Prometheus)
+     */
+    public void reset() {
+        for (ActivityKey key : latencies.keySet()) {
+            // Sous le verrou de la clé : pas de Timer créé entre-temps pour la même clé puis supprimé
+            latencies.computeIfPresent(key, (k, latency) -> {
+                meterRegistry.remove(latency.timer);
+                return null;
+            });
+        }
+    }
+
+    private ActivityLatency newLatency(ActivityKey key) {
+        // Mêmes clés de tags pour tous les Timers du même nom (exigé par certains registres, dont Prometheus)
+        Timer timer = Timer.builder("camunda.activity.duration")
+                .description("Durée des activités BPMN, du début à la fin")
+                .tag("process", key.processDefinitionKey())
+                .tag("activity", key.activityId())
+                .tag("outcome", key.outcome())
+                .tag("shard", key.shard() != null ? key.shard() : "n/a")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        return new ActivityLatency(new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 2), timer);
+    }
+
+    private record ActivityLatency(Histogram histogram, Timer timer) {
+
+        void record(long nanos) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+            histogram.recordValue(Math.min(Math.max(micros, 0), HIGHEST_TRACKABLE_MICROS));
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        Map<String, Object> toMap(ActivityKey key) {
+            Histogram copy = histogram.copy();
+            long count = copy.getTotalCount();
+
+            Map<String, Object> activity = new HashMap<>();
+            activity.put("processDefinitionKey", key.processDefinitionKey());
+            activity.put("activityId", key.activityId());
+            activity.put("outcome", key.outcome());
+            activity.put("shard", key.shard());
+            activity.put("count", count);
+            activity.put("meanMicros", count > 0 ? copy.getMean() : 0);
+            activity.put("p50Micros", copy.getValueAtPercentile(50));
+            activity.put("p95Micros", copy.getValueAtPercentile(95));
+            activity.put("p99Micros", copy.getValueAtPercentile(99));
+            activity.put("maxMicros", copy.getMaxValue());
+            activity.put("totalMillis", count > 0 ? copy.getMean() * count / 1000.0 : 0.0);
+            return activity;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.camunda.metrics;
+
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.ExecutionListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.AbstractBpmnParseListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
+import org.camunda.bpm.engine.impl.pvm.process.ScopeImpl;
+import org.camunda.bpm.engine.impl.util.xml.Element;
+
+/**
+ * Ajoute des listeners de chronométrage (début/fin) à toutes les activités de tous les processus déployés,
+ * sans modifier les fichiers BPMN. Une activité interrompue par un rollback est comptée en "failed".
+ */
+public class ActivityTimingParseListener extends AbstractBpmnParseListener {
+
+    private final ActivityLatencyRegistry registry;
+    private final String shardVariable;
+
+    public ActivityTimingParseListener(ActivityLatencyRegistry registry, String shardVariable) {
+        this.registry = registry;
+        this.shardVariable = shardVariable;
+    }
+
+    @Override
+    public void parseProcess(Element processElement, ProcessDefinitionEntity processDefinition) {
+        addTimingListeners(processDefinition.getKey(), processDefinition);
+    }
+
+    private void addTimingListeners(String processDefinitionKey, ScopeImpl scope) {
+        for (ActivityImpl activity : scope.getActivities()) {
+            String activityId = activity.getId();
+            activity.addBuiltInListener(ExecutionListener.EVENTNAME_START,
+                    (ExecutionListener) execution -> onStart(execution, processDefinitionKey, activityId));
+            activity.addBuiltInListener(ExecutionListener.EVENTNAME_END,
+                    (ExecutionListener) execution -> onEnd(execution, processDefinitionKey, activityId));
+            addTimingListeners(processDefinitionKey, activity);
+        }
+    }
+
+    private void onStart(DelegateExecution execution, String processDefinitionKey, String activityId) {
+        String activityInstanceId = execution.getActivityInstanceId();
+        registry.started(activityInstanceId);
+
+        CommandContext commandContext = Context.getCommandContext();
+        if (commandContext != null) {
+            commandContext.getTransactionContext().addTransactionListener(TransactionState.ROLLED_BACK,
+                    context -> registry.ended(activityInstanceId,
+                            new ActivityKey(processDefinitionKey, activityId, ActivityLatencyRegistry.OUTCOME_FAILED, null)));
+        }
+    }
+
+    private void onEnd(DelegateExecution execution, String processDefinitionKey, String activityId) {
+        String outcome = ((ExecutionEntity) execution).isCanceled()
+                ? ActivityLatencyRegistry.OUTCOME_CANCELED
+                : ActivityLatencyRegistry.OUTCOME_COMPLETED;
+        registry.ended(execution.getActivityInstanceId(),
+                new ActivityKey(processDefinitionKey, activityId, outcome, shardOf(execution)));
+    }
+
+    private String shardOf(DelegateExecution execution) {
+        if (shardVariable == null || shardVariable.isEmpty()) {
+            return null;
+        }
+        Object shard = execution.getVariable(shardVariable);
+        return shard != null ? shard.toString() : null;
+    }
+}
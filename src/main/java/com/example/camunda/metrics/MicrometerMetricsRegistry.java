@@ -0,0 +1,46 @@
+package com.example.camunda.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registre de métriques du moteur recopié dans Micrometer : chaque occurrence (job-acquisition-attempt,
+ * job-successful, job-failed, activity-instance-start...) incrémente aussi le compteur camunda.engine.occurrences
+ * tagué par son nom. Les compteurs du moteur sont remis à zéro à chaque écriture en base (ACT_RU_METER_LOG),
+ * ceux de Micrometer restent cumulatifs, comme l'attend Prometheus.
+ */
+public class MicrometerMetricsRegistry extends MetricsRegistry {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public MicrometerMetricsRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Les métriques par défaut du moteur passent par ici à l'initialisation : séries présentes dès le démarrage
+     */
+    @Override
+    public void createDbMeter(String name) {
+        super.createDbMeter(name);
+        counter(name);
+    }
+
+    @Override
+    public void markOccurrence(String name, long times) {
+        super.markOccurrence(name, times);
+        counter(name).increment(times);
+    }
+
+    private Counter counter(String name) {
+        return counters.computeIfAbsent(name, metric -> Counter.builder("camunda.engine.occurrences")
+                .description("Occurrences des métriques du moteur Camunda")
+                .tag("metric", metric)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.camunda.metrics;
+
+import com.example.camunda.tracing.ProcessTracing;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Durée des requêtes JDBC de AgeBasedPersonService par shard (adults, minors) et par opération
+ * (save, byId, byEmail, count) : métrique persons.shard.query, avec histogramme pour Prometheus.
+ * Les timers sont créés au démarrage pour que chaque série existe avant la première requête.
+ * Dans une trace, chaque requête est aussi un span persons.shard.query tagué avec le shard et l'opération.
+ */
+@Component
+public class ShardQueryMetrics {
+
+    public static final String SAVE = "save";
+    public static final String BY_ID = "byId";
+    public static final String BY_EMAIL = "byEmail";
+    public static final String COUNT = "count";
+
+    private static final String[] SHARDS = {"adults", "minors"};
+    private static final String[] OPERATIONS = {SAVE, BY_ID, BY_EMAIL, COUNT};
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProcessTracing tracing;
+
+    private final Map<String, Timer> timers = new HashMap<>();
+
+    @PostConstruct
+    public void registerTimers() {
+        for (String shard : SHARDS) {
+            for (String operation : OPERATIONS) {
+                timers.put(key(shard, operation), Timer.builder("persons.shard.query")
+                        .description("Requêtes JDBC sur les shards de personnes")
+                        .tag("shard", shard)
+                        .tag("operation", operation)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+            }
+        }
+    }
+
+    /**
+     * Exécute la requête et enregistre sa durée, y compris en cas d'erreur
+     */
+    public <T> T record(String shard, String operation, Supplier<T> query) {
+        String shardTag = shard.toLowerCase();
+        Timer timer = timers.get(key(shardTag, operation));
+        Span span = tracing.startChild("persons.shard.query");
+        if (span != null) {
+            span.tag("shard", shardTag);
+            span.tag("operation", operation);
+        }
+        return tracing.inSpan(span, () -> timer != null ? timer.record(query) : query.get());
+    }
+
+    private static String key(String shard, String operation) {
+        return shard + ':' + operation;
+    }
+}
@@ -1,13 +1,17 @@
 package com.example.camunda.repository;
 
 import com.example.camunda.model.Person;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PersonRepository extends JpaRepository<Person, Long> {
@@ -28,6 +32,11 @@ public interface PersonRepository extends JpaRepository<Person, Long> {
     
     List<Person> findByCountry(String country);
     
+    // Parcours sans liste intermédiaire, à consommer dans une transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM Person p")
+    Stream<Person> streamAll();
+    
     @Query("SELECT COUNT(p) FROM Person p")
     long countAllPersons();
 }
\ No newline at end of file
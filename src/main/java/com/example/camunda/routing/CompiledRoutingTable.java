@@ -0,0 +1,183 @@
+package com.example.camunda.routing;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Version compilée d'un jeu de règles : un arbre pays -> présence de la date de naissance -> âge.
+ * Chaque pays cité par les règles (plus une branche "autres pays") porte une table indexée par âge,
+ * pré-calculée en évaluant les règles dans l'ordre. Une évaluation coûte une recherche dans une map
+ * et un accès tableau, quel que soit le nombre de règles.
+ * Immuable : le moteur remplace la table entière à chaque rechargement.
+ */
+public final class CompiledRoutingTable {
+
+    /** Âge au-delà duquel toutes les personnes tombent dans la dernière case */
+    static final int MAX_AGE = 150;
+
+    private static final int MAX_RESOLVED_COUNTRIES = 1024;
+
+    private final int version;
+    private final String source;
+    private final LocalDateTime compiledAt;
+    private final List<RoutingRule> rules;
+    private final Map<String, Branch> branchesByCountry;
+    private final Branch otherCountries;
+    private final List<Integer> unreachableRuleLines;
+
+    // Pays bruts (non normalisés) déjà résolus, pour éviter la normalisation sur le chemin chaud
+    private final Map<String, Branch> resolvedCountries = new ConcurrentHashMap<>();
+
+    private CompiledRoutingTable(int version, String source, List<RoutingRule> rules,
+                                 Map<String, Branch> branchesByCountry, Branch otherCountries,
+                                 List<Integer> unreachableRuleLines) {
+        this.version = version;
+        this.source = source;
+        this.compiledAt = LocalDateTime.now();
+        this.rules = rules;
+        this.branchesByCountry = branchesByCountry;
+        this.otherCountries = otherCountries;
+        this.unreachableRuleLines = unreachableRuleLines;
+    }
+
+    public static CompiledRoutingTable compile(int version, String source, Set<String> allowedTargets) {
+        List<RoutingRule> rules = List.copyOf(RoutingRulesParser.parse(source, allowedTargets));
+
+        Set<String> countries = new LinkedHashSet<>();
+        for (RoutingRule rule : rules) {
+            if (rule.countries() != null) {
+                countries.addAll(rule.countries());
+            }
+        }
+
+        BitSet usedRules = new BitSet(rules.size());
+        Map<String, Branch> branches = new HashMap<>();
+        for (String country : countries) {
+            branches.put(country, compileBranch(rules, country, usedRules));
+        }
+        Branch otherCountries = compileBranch(rules, null, usedRules);
+
+        List<Integer> unreachable = new ArrayList<>();
+        for (int i = 0; i < rules.size(); i++) {
+            if (!usedRules.get(i)) {
+                unreachable.add(rules.get(i).line());
+            }
+        }
+        return new CompiledRoutingTable(version, source, rules, branches, otherCountries, List.copyOf(unreachable));
+    }
+
+    private static Branch compileBranch(List<RoutingRule> rules, String country, BitSet usedRules) {
+        String[] byAge = new String[MAX_AGE + 1];
+        for (int age = 0; age <= MAX_AGE; age++) {
+            byAge[age] = firstMatch(rules, country, age, usedRules);
+        }
+        return new Branch(byAge, firstMatch(rules, country, null, usedRules));
+    }
+
+    private static String firstMatch(List<RoutingRule> rules, String country, Integer age, BitSet usedRules) {
+        for (int i = 0; i < rules.size(); i++) {
+            if (rules.get(i).matches(country, age)) {
+                usedRules.set(i);
+                return rules.get(i).target();
+            }
+        }
+        // Inatteignable : le parseur impose une règle default
+        throw new IllegalStateException("No rule matched");
+    }
+
+    /**
+     * Shard cible d'une personne, à la date du jour donnée
+     */
+    public String route(String country, LocalDate dateOfBirth, LocalDate today) {
+        Branch branch = branchFor(country);
+        if (dateOfBirth == null) {
+            return branch.missingDateOfBirth;
+        }
+        int age = ageAt(dateOfBirth, today);
+        return branch.byAge[age < 0 ? 0 : Math.min(age, MAX_AGE)];
+    }
+
+    private Branch branchFor(String country) {
+        if (country == null || branchesByCountry.isEmpty()) {
+            return otherCountries;
+        }
+        Branch branch = resolvedCountries.get(country);
+        if (branch == null) {
+            branch = branchesByCountry.getOrDefault(RoutingRulesParser.normalizeCountry(country), otherCountries);
+            if (resolvedCountries.size() < MAX_RESOLVED_COUNTRIES) {
+                resolvedCountries.put(country, branch);
+            }
+        }
+        return branch;
+    }
+
+    /**
+     * Équivalent à Period.between(dateOfBirth, today).getYears(), sans allocation
+     */
+    static int ageAt(LocalDate dateOfBirth, LocalDate today) {
+        int age = today.getYear() - dateOfBirth.getYear();
+        if (today.getMonthValue() < dateOfBirth.getMonthValue()
+                || (today.getMonthValue() == dateOfBirth.getMonthValue() && today.getDayOfMonth() < dateOfBirth.getDayOfMonth())) {
+            age--;
+        }
+        return age;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public List<RoutingRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Vue lisible de l'arbre compilé : intervalles d'âge par pays
+     */
+    public Map<String, Object> describe() {
+        Map<String, Object> branches = new LinkedHashMap<>();
+        branchesByCountry.keySet().stream().sorted()
+                .forEach(country -> branches.put(country, branchesByCountry.get(country).describe()));
+        branches.put("*", otherCountries.describe());
+
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("version", version);
+        description.put("compiledAt", compiledAt);
+        description.put("ruleCount", rules.size());
+        description.put("unreachableRuleLines", unreachableRuleLines);
+        description.put("branches", branches);
+        return description;
+    }
+
+    private record Branch(String[] byAge, String missingDateOfBirth) {
+
+        Map<String, Object> describe() {
+            List<String> ranges = new ArrayList<>();
+            int start = 0;
+            for (int age = 1; age <= MAX_AGE + 1; age++) {
+                if (age == MAX_AGE + 1 || !byAge[age].equals(byAge[start])) {
+                    String upper = age == MAX_AGE + 1 ? "+" : "-" + (age - 1);
+                    ranges.add(start + upper + " -> " + byAge[start]);
+                    start = age;
+                }
+            }
+            Map<String, Object> description = new LinkedHashMap<>();
+            description.put("ages", ranges);
+            description.put("dobMissing", missingDateOfBirth);
+            return description;
+        }
+    }
+}
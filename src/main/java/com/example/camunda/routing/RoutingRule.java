@@ -0,0 +1,36 @@
+package com.example.camunda.routing;
+
+import java.util.Set;
+
+/**
+ * Règle de routage analysée : conditions sur le pays, la présence de la date de naissance
+ * et un intervalle d'âge [minAge, maxAge[, vers un shard cible.
+ * Une règle "default" n'a aucune condition.
+ */
+public record RoutingRule(int line,
+                          Set<String> countries,
+                          DateOfBirthCondition dateOfBirth,
+                          int minAge,
+                          int maxAge,
+                          String target,
+                          boolean isDefault) {
+
+    public enum DateOfBirthCondition { ANY, MISSING, PRESENT }
+
+    /**
+     * Évaluation interprétée, utilisée à la compilation (et comme référence dans les benchmarks).
+     * Le pays est attendu normalisé, l'âge vaut null si la date de naissance est absente.
+     */
+    public boolean matches(String country, Integer age) {
+        if (countries != null && (country == null || !countries.contains(country))) {
+            return false;
+        }
+        if (age == null) {
+            return dateOfBirth != DateOfBirthCondition.PRESENT;
+        }
+        if (dateOfBirth == DateOfBirthCondition.MISSING) {
+            return false;
+        }
+        return age >= minAge && age < maxAge;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.camunda.routing;
+
+import com.example.camunda.model.Person;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Moteur de règles de routage par shard.
+ * Les règles (DSL, voir RoutingRulesParser) sont compilées une fois en CompiledRoutingTable,
+ * puis remplacées à chaud : rechargement de app.routing.rules-location (surveillé si c'est un fichier)
+ * ou activation d'un nouveau texte par l'API. Une version candidate peut tourner en mode fantôme.
+ */
+@Component
+public class RoutingRulesEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoutingRulesEngine.class);
+
+    public static final Set<String> SHARDS = Set.of("ADULTS", "MINORS");
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Value("${app.routing.rules-location:classpath:routing-rules.rules}")
+    private String rulesLocation;
+
+    private final AtomicInteger versions = new AtomicInteger();
+    private volatile CompiledRoutingTable active;
+    private volatile ShadowEvaluation shadow;
+    private volatile long loadedLastModified;
+
+    @PostConstruct
+    public void init() throws IOException {
+        reload();
+    }
+
+    /**
+     * Shard cible d'une personne selon les règles actives
+     */
+    public String route(Person person) {
+        return route(person.getCountry(), person.getDateOfBirth(), LocalDate.now());
+    }
+
+    public String route(String country, LocalDate dateOfBirth, LocalDate today) {
+        String target = active.route(country, dateOfBirth, today);
+        ShadowEvaluation currentShadow = shadow;
+        if (currentShadow != null) {
+            currentShadow.compare(country, dateOfBirth, today, target);
+        }
+        return target;
+    }
+
+    /**
+     * Relit et active les règles de app.routing.rules-location
+     */
+    public synchronized CompiledRoutingTable reload() throws IOException {
+        Resource resource = resourceLoader.getResource(rulesLocation);
+        long lastModified = resource.isFile() ? resource.lastModified() : 0L;
+        String source;
+        try (InputStream in = resource.getInputStream()) {
+            source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        CompiledRoutingTable table = activate(source);
+        loadedLastModified = lastModified;
+        return table;
+    }
+
+    /**
+     * Compile et active un jeu de règles ; l'ancienne version reste active si la compilation échoue
+     */
+    public synchronized CompiledRoutingTable activate(String source) {
+        CompiledRoutingTable table = compile(source);
+        active = table;
+        logger.info("Routing rules version {} activated ({} rules)", table.getVersion(), table.getRules().size());
+        return table;
+    }
+
+    /**
+     * Recharge les règles quand le fichier surveillé a changé (sans effet pour une ressource du jar)
+     */
+    @Scheduled(initialDelayString = "${app.routing.reload-interval-ms:5000}",
+               fixedDelayString = "${app.routing.reload-interval-ms:5000}")
+    public void reloadIfModified() {
+        try {
+            Resource resource = resourceLoader.getResource(rulesLocation);
+            if (resource.isFile() && resource.lastModified() != loadedLastModified) {
+                logger.info("Routing rules file {} changed, reloading", rulesLocation);
+                reload();
+            }
+        } catch (Exception e) {
+            logger.error("Could not reload routing rules from {}, keeping version {}: {}",
+                    rulesLocation, active.getVersion(), e.getMessage());
+            loadedLastModified = lastModifiedOrZero();
+        }
+    }
+
+    private long lastModifiedOrZero() {
+        try {
+            return resourceLoader.getResource(rulesLocation).lastModified();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * Démarre l'évaluation fantôme d'une version candidate (remplace la précédente)
+     */
+    public synchronized ShadowEvaluation startShadow(String source) {
+        ShadowEvaluation evaluation = new ShadowEvaluation(compile(source));
+        shadow = evaluation;
+        logger.info("Routing rules version {} evaluated in shadow mode", evaluation.getCandidate().getVersion());
+        return evaluation;
+    }
+
+    public synchronized Map<String, Object> stopShadow() {
+        ShadowEvaluation evaluation = shadow;
+        shadow = null;
+        return evaluation == null ? null : evaluation.report();
+    }
+
+    /**
+     * Active la version candidate en cours d'évaluation fantôme
+     */
+    public synchronized CompiledRoutingTable promoteShadow() {
+        ShadowEvaluation evaluation = shadow;
+        if (evaluation == null) {
+            throw new IllegalStateException("No routing rules in shadow mode");
+        }
+        shadow = null;
+        active = evaluation.getCandidate();
+        logger.info("Routing rules version {} promoted from shadow mode", active.getVersion());
+        return active;
+    }
+
+    public CompiledRoutingTable getActive() {
+        return active;
+    }
+
+    public ShadowEvaluation getShadow() {
+        return shadow;
+    }
+
+    public String getRulesLocation() {
+        return rulesLocation;
+    }
+
+    private CompiledRoutingTable compile(String source) {
+        return CompiledRoutingTable.compile(versions.incrementAndGet(), source, SHARDS);
+    }
+}
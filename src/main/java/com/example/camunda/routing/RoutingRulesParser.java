@@ -0,0 +1,137 @@
+package com.example.camunda.routing;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Analyse le DSL des règles de routage, une règle par ligne :
+ * <pre>
+ * when country = "US" and age &lt; 21 -> MINORS
+ * when country in ("FR", "France") and dob missing -> ADULTS
+ * when age &lt; 18 -> MINORS
+ * default -> ADULTS
+ * </pre>
+ * Les lignes vides et les commentaires (#) sont ignorés. Les erreurs indiquent le numéro de ligne.
+ */
+public final class RoutingRulesParser {
+
+    private static final Pattern RULE = Pattern.compile("^(?:when\\s+(.+?)|default)\\s*->\\s*([A-Za-z_][A-Za-z0-9_]*)$",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern COUNTRY_EQUALS = Pattern.compile("^country\\s*=\\s*\"([^\"]+)\"$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern COUNTRY_IN = Pattern.compile("^country\\s+in\\s*\\((.+)\\)$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern QUOTED = Pattern.compile("\"([^\"]+)\"");
+    private static final Pattern DOB = Pattern.compile("^dob\\s+(missing|present)$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern AGE = Pattern.compile("^age\\s*(<=|>=|<|>)\\s*(\\d{1,3})$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern AND = Pattern.compile("\\s+and\\s+", Pattern.CASE_INSENSITIVE);
+
+    private RoutingRulesParser() {
+    }
+
+    public static List<RoutingRule> parse(String source, Set<String> allowedTargets) {
+        List<RoutingRule> rules = new ArrayList<>();
+        String[] lines = source.split("\\R");
+
+        for (int i = 0; i < lines.length; i++) {
+            int lineNumber = i + 1;
+            String line = stripComment(lines[i]).trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            Matcher rule = RULE.matcher(line);
+            if (!rule.matches()) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": expected 'when <conditions> -> SHARD' or 'default -> SHARD'");
+            }
+
+            String target = rule.group(2).toUpperCase(Locale.ROOT);
+            if (!allowedTargets.contains(target)) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": unknown shard " + target + ", expected one of " + allowedTargets);
+            }
+
+            if (rule.group(1) == null) {
+                rules.add(new RoutingRule(lineNumber, null, RoutingRule.DateOfBirthCondition.ANY, 0, Integer.MAX_VALUE, target, true));
+            } else {
+                rules.add(parseConditions(lineNumber, rule.group(1), target));
+            }
+        }
+
+        if (rules.stream().noneMatch(RoutingRule::isDefault)) {
+            throw new IllegalArgumentException("Missing 'default -> SHARD' rule");
+        }
+        return rules;
+    }
+
+    private static RoutingRule parseConditions(int lineNumber, String conditions, String target) {
+        Set<String> countries = null;
+        RoutingRule.DateOfBirthCondition dateOfBirth = RoutingRule.DateOfBirthCondition.ANY;
+        int minAge = 0;
+        int maxAge = Integer.MAX_VALUE;
+        boolean hasAgeCondition = false;
+
+        for (String condition : AND.split(conditions.trim())) {
+            Matcher matcher;
+            if ((matcher = COUNTRY_EQUALS.matcher(condition)).matches()) {
+                countries = intersect(countries, Set.of(normalizeCountry(matcher.group(1))));
+            } else if ((matcher = COUNTRY_IN.matcher(condition)).matches()) {
+                Set<String> values = new LinkedHashSet<>();
+                Matcher quoted = QUOTED.matcher(matcher.group(1));
+                while (quoted.find()) {
+                    values.add(normalizeCountry(quoted.group(1)));
+                }
+                if (values.isEmpty()) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": empty country list");
+                }
+                countries = intersect(countries, values);
+            } else if ((matcher = DOB.matcher(condition)).matches()) {
+                dateOfBirth = matcher.group(1).equalsIgnoreCase("missing")
+                        ? RoutingRule.DateOfBirthCondition.MISSING
+                        : RoutingRule.DateOfBirthCondition.PRESENT;
+            } else if ((matcher = AGE.matcher(condition)).matches()) {
+                int value = Integer.parseInt(matcher.group(2));
+                hasAgeCondition = true;
+                switch (matcher.group(1)) {
+                    case "<" -> maxAge = Math.min(maxAge, value);
+                    case "<=" -> maxAge = Math.min(maxAge, value + 1);
+                    case ">" -> minAge = Math.max(minAge, value + 1);
+                    default -> minAge = Math.max(minAge, value);
+                }
+            } else {
+                throw new IllegalArgumentException("Line " + lineNumber + ": unknown condition '" + condition + "'");
+            }
+        }
+
+        if (hasAgeCondition) {
+            if (dateOfBirth == RoutingRule.DateOfBirthCondition.MISSING) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": age condition cannot be combined with 'dob missing'");
+            }
+            dateOfBirth = RoutingRule.DateOfBirthCondition.PRESENT;
+        }
+        return new RoutingRule(lineNumber, countries, dateOfBirth, minAge, maxAge, target, false);
+    }
+
+    private static Set<String> intersect(Set<String> current, Set<String> values) {
+        if (current == null) {
+            return values;
+        }
+        Set<String> result = new LinkedHashSet<>(current);
+        result.retainAll(values);
+        return result;
+    }
+
+    private static String stripComment(String line) {
+        int index = line.indexOf('#');
+        return index >= 0 ? line.substring(0, index) : line;
+    }
+
+    /**
+     * Même normalisation à l'analyse et à l'évaluation : comparaison insensible à la casse et aux espaces
+     */
+    static String normalizeCountry(String country) {
+        return country == null ? null : country.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.camunda.routing;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Évaluation fantôme d'une version candidate des règles : chaque décision active est recalculée
+ * avec la candidate, sans effet sur le routage, et les divergences sont comptées par transition
+ * (par exemple ADULTS->MINORS) avec un échantillon des premières personnes concernées.
+ */
+public class ShadowEvaluation {
+
+    private static final int MAX_SAMPLES = 20;
+
+    private final CompiledRoutingTable candidate;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final LongAdder evaluated = new LongAdder();
+    private final LongAdder agreed = new LongAdder();
+    private final Map<String, LongAdder> disagreementsByTransition = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Map<String, Object>> samples = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger sampleCount = new AtomicInteger();
+
+    public ShadowEvaluation(CompiledRoutingTable candidate) {
+        this.candidate = candidate;
+    }
+
+    void compare(String country, LocalDate dateOfBirth, LocalDate today, String activeTarget) {
+        String candidateTarget = candidate.route(country, dateOfBirth, today);
+        evaluated.increment();
+        if (candidateTarget.equals(activeTarget)) {
+            agreed.increment();
+            return;
+        }
+
+        disagreementsByTransition.computeIfAbsent(activeTarget + "->" + candidateTarget, key -> new LongAdder()).increment();
+        if (sampleCount.getAndIncrement() < MAX_SAMPLES) {
+            Map<String, Object> sample = new LinkedHashMap<>();
+            sample.put("country", country);
+            sample.put("dateOfBirth", dateOfBirth);
+            sample.put("active", activeTarget);
+            sample.put("candidate", candidateTarget);
+            samples.add(sample);
+        }
+    }
+
+    public CompiledRoutingTable getCandidate() {
+        return candidate;
+    }
+
+    public Map<String, Object> report() {
+        long total = evaluated.sum();
+        long same = agreed.sum();
+
+        Map<String, Long> transitions = new TreeMap<>();
+        disagreementsByTransition.forEach((transition, count) -> transitions.put(transition, count.sum()));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("candidateVersion", candidate.getVersion());
+        report.put("startedAt", startedAt);
+        report.put("evaluated", total);
+        report.put("agreed", same);
+        report.put("disagreed", total - same);
+        report.put("agreementRate", total == 0 ? null : (double) same / total);
+        report.put("disagreementsByTransition", transitions);
+        report.put("samples", new ArrayList<>(samples));
+        return report;
+    }
+}
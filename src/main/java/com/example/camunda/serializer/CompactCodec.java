@@ -0,0 +1,25 @@
+package com.example.camunda.serializer;
+
+/**
+ * Codec binaire compact pour un type de domaine stocké comme variable de processus.
+ * Chaque codec porte sa propre version de format afin de pouvoir relire les anciennes valeurs.
+ */
+public interface CompactCodec<T> {
+
+    /**
+     * Type Java pris en charge par ce codec
+     */
+    Class<T> getType();
+
+    /**
+     * Version courante du format écrit par ce codec
+     */
+    int getVersion();
+
+    void write(T value, CompactBinaryWriter writer);
+
+    /**
+     * Relit une valeur écrite avec la version donnée (toujours inférieure ou égale à {@link #getVersion()})
+     */
+    T read(CompactBinaryReader reader, int version);
+}
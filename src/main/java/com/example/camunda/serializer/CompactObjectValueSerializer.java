@@ -0,0 +1,75 @@
+package com.example.camunda.serializer;
+
+import org.camunda.bpm.engine.impl.variable.serializer.AbstractObjectValueSerializer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sérialiseur Camunda pour les objets de domaine disposant d'un {@link CompactCodec}.
+ * Chaque valeur commence par la version du codec, ce qui permet de faire évoluer le format
+ * sans casser les variables déjà stockées dans ACT_GE_BYTEARRAY.
+ */
+public class CompactObjectValueSerializer extends AbstractObjectValueSerializer {
+
+    public static final String SERIALIZATION_DATA_FORMAT = "application/x-compact-binary";
+
+    private final Map<Class<?>, CompactCodec<?>> codecsByType = new HashMap<>();
+    private final Map<String, CompactCodec<?>> codecsByTypeName = new HashMap<>();
+
+    public CompactObjectValueSerializer(List<CompactCodec<?>> codecs) {
+        super(SERIALIZATION_DATA_FORMAT);
+        for (CompactCodec<?> codec : codecs) {
+            codecsByType.put(codec.getType(), codec);
+            codecsByTypeName.put(codec.getType().getName(), codec);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "compact-binary";
+    }
+
+    @Override
+    protected boolean canSerializeValue(Object value) {
+        return codecsByType.containsKey(value.getClass());
+    }
+
+    @Override
+    protected String getTypeNameForDeserialized(Object deserializedObject) {
+        return deserializedObject.getClass().getName();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected byte[] serializeToByteArray(Object deserializedObject) {
+        CompactCodec<Object> codec = (CompactCodec<Object>) codecsByType.get(deserializedObject.getClass());
+        if (codec == null) {
+            throw new IllegalArgumentException("No compact codec for type " + deserializedObject.getClass().getName());
+        }
+        CompactBinaryWriter writer = new CompactBinaryWriter();
+        writer.writeByte(codec.getVersion());
+        codec.write(deserializedObject, writer);
+        return writer.toByteArray();
+    }
+
+    @Override
+    protected Object deserializeFromByteArray(byte[] bytes, String objectTypeName) {
+        CompactCodec<?> codec = codecsByTypeName.get(objectTypeName);
+        if (codec == null) {
+            throw new IllegalArgumentException("No compact codec for type " + objectTypeName);
+        }
+        CompactBinaryReader reader = new CompactBinaryReader(bytes);
+        int version = reader.readByte();
+        if (version > codec.getVersion()) {
+            throw new IllegalStateException("Unsupported compact format version " + version + " for type " + objectTypeName);
+        }
+        return codec.read(reader, version);
+    }
+
+    @Override
+    protected boolean isSerializationTextBased() {
+        return false;
+    }
+}
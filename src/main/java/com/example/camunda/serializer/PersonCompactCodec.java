@@ -0,0 +1,80 @@
+package com.example.camunda.serializer;
+
+import com.example.camunda.model.Person;
+
+/**
+ * Codec compact pour {@link Person}.
+ * Format v1 : masque de présence des champs (varint) puis uniquement les champs non nuls.
+ */
+public class PersonCompactCodec implements CompactCodec<Person> {
+
+    private static final int ID = 1;
+    private static final int FIRST_NAME = 1 << 1;
+    private static final int LAST_NAME = 1 << 2;
+    private static final int EMAIL = 1 << 3;
+    private static final int PHONE_NUMBER = 1 << 4;
+    private static final int DATE_OF_BIRTH = 1 << 5;
+    private static final int ADDRESS = 1 << 6;
+    private static final int CITY = 1 << 7;
+    private static final int COUNTRY = 1 << 8;
+    private static final int CREATED_AT = 1 << 9;
+    private static final int UPDATED_AT = 1 << 10;
+
+    @Override
+    public Class<Person> getType() {
+        return Person.class;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public void write(Person person, CompactBinaryWriter writer) {
+        int mask = 0;
+        if (person.getId() != null) mask |= ID;
+        if (person.getFirstName() != null) mask |= FIRST_NAME;
+        if (person.getLastName() != null) mask |= LAST_NAME;
+        if (person.getEmail() != null) mask |= EMAIL;
+        if (person.getPhoneNumber() != null) mask |= PHONE_NUMBER;
+        if (person.getDateOfBirth() != null) mask |= DATE_OF_BIRTH;
+        if (person.getAddress() != null) mask |= ADDRESS;
+        if (person.getCity() != null) mask |= CITY;
+        if (person.getCountry() != null) mask |= COUNTRY;
+        if (person.getCreatedAt() != null) mask |= CREATED_AT;
+        if (person.getUpdatedAt() != null) mask |= UPDATED_AT;
+        writer.writeVarLong(mask);
+
+        if ((mask & ID) != 0) writer.writeVarLong(person.getId());
+        if ((mask & FIRST_NAME) != 0) writer.writeString(person.getFirstName());
+        if ((mask & LAST_NAME) != 0) writer.writeString(person.getLastName());
+        if ((mask & EMAIL) != 0) writer.writeString(person.getEmail());
+        if ((mask & PHONE_NUMBER) != 0) writer.writeString(person.getPhoneNumber());
+        if ((mask & DATE_OF_BIRTH) != 0) writer.writeDate(person.getDateOfBirth());
+        if ((mask & ADDRESS) != 0) writer.writeString(person.getAddress());
+        if ((mask & CITY) != 0) writer.writeString(person.getCity());
+        if ((mask & COUNTRY) != 0) writer.writeString(person.getCountry());
+        if ((mask & CREATED_AT) != 0) writer.writeDateTime(person.getCreatedAt());
+        if ((mask & UPDATED_AT) != 0) writer.writeDateTime(person.getUpdatedAt());
+    }
+
+    @Override
+    public Person read(CompactBinaryReader reader, int version) {
+        int mask = (int) reader.readVarLong();
+
+        Person person = new Person();
+        if ((mask & ID) != 0) person.setId(reader.readVarLong());
+        if ((mask & FIRST_NAME) != 0) person.setFirstName(reader.readString());
+        if ((mask & LAST_NAME) != 0) person.setLastName(reader.readString());
+        if ((mask & EMAIL) != 0) person.setEmail(reader.readString());
+        if ((mask & PHONE_NUMBER) != 0) person.setPhoneNumber(reader.readString());
+        if ((mask & DATE_OF_BIRTH) != 0) person.setDateOfBirth(reader.readDate());
+        if ((mask & ADDRESS) != 0) person.setAddress(reader.readString());
+        if ((mask & CITY) != 0) person.setCity(reader.readString());
+        if ((mask & COUNTRY) != 0) person.setCountry(reader.readString());
+        if ((mask & CREATED_AT) != 0) person.setCreatedAt(reader.readDateTime());
+        if ((mask & UPDATED_AT) != 0) person.setUpdatedAt(reader.readDateTime());
+        return person;
+    }
+}
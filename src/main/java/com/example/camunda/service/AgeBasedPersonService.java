@@ -1,24 +1,33 @@
 package com.example.camunda.service;
 
+import com.example.camunda.metrics.ShardQueryMetrics;
 import com.example.camunda.model.Person;
+import com.example.camunda.routing.RoutingRulesEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.sql.Date;
 import java.sql.PreparedStatement;
-import java.sql.Statement;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.Period;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 
 /**
  * Service pour gérer les personnes avec routage automatique par âge
@@ -29,6 +38,24 @@ import java.util.Optional;
 public class AgeBasedPersonService {
 
     private static final Logger logger = LoggerFactory.getLogger(AgeBasedPersonService.class);
+
+    // Colonnes lues explicitement : BeanPropertyRowMapper résout et convertit chaque propriété par réflexion,
+    // à chaque ligne, et domine les allocations des lectures de listes
+    private static final RowMapper<Person> PERSON_ROW_MAPPER = (rs, rowNum) -> {
+        Person person = new Person();
+        person.setId(rs.getLong("id"));
+        person.setFirstName(rs.getString("first_name"));
+        person.setLastName(rs.getString("last_name"));
+        person.setEmail(rs.getString("email"));
+        person.setPhoneNumber(rs.getString("phone_number"));
+        person.setDateOfBirth(rs.getObject("date_of_birth", LocalDate.class));
+        person.setAddress(rs.getString("address"));
+        person.setCity(rs.getString("city"));
+        person.setCountry(rs.getString("country"));
+        person.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        person.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        return person;
+    };
     
     @Autowired
     @Qualifier("adultsJdbcTemplate")
@@ -38,6 +65,23 @@ public class AgeBasedPersonService {
     @Qualifier("minorsJdbcTemplate")
     private JdbcTemplate minorsJdbcTemplate;
 
+    @Autowired
+    private RoutingRulesEngine routingRules;
+
+    @Autowired
+    private ShardVersions shardVersions;
+
+    @Autowired
+    private ShardQueryMetrics queryMetrics;
+
+    // Threads plateforme ou virtuels selon app.threads.virtual (VirtualThreadConfig)
+    @Autowired
+    @Qualifier("shardFanOutExecutor")
+    private ExecutorService shardFanOutExecutor;
+
+    @Value("${app.threads.virtual:false}")
+    private boolean virtualThreads;
+
     /**
      * Initialise les tables dans les deux bases de données
      */
@@ -66,13 +110,17 @@ public class AgeBasedPersonService {
     }
 
     /**
-     * Détermine si une personne est mineure (< 18 ans)
+     * Shard cible d'une personne (ADULTS ou MINORS) selon les règles de routage actives
+     */
+    public String resolveShard(Person person) {
+        return routingRules.route(person);
+    }
+
+    /**
+     * Détermine si une personne est routée vers la base des mineurs
      */
     public boolean isMinor(Person person) {
-        if (person.getDateOfBirth() == null) {
-            return false;
-        }
-        return Period.between(person.getDateOfBirth(), LocalDate.now()).getYears() < 18;
+        return "MINORS".equals(resolveShard(person));
     }
 
     /**
@@ -91,9 +139,8 @@ public class AgeBasedPersonService {
     public Person savePerson(Person person) {
         initializeTables(); // S'assurer que les tables existent
         
-        boolean isMinor = isMinor(person);
-        JdbcTemplate targetTemplate = isMinor ? minorsJdbcTemplate : adultsJdbcTemplate;
-        String database = isMinor ? "MINORS" : "ADULTS";
+        String database = resolveShard(person);
+        JdbcTemplate targetTemplate = "MINORS".equals(database) ? minorsJdbcTemplate : adultsJdbcTemplate;
         
         logger.info("Saving person: {} {} (Age: {}) -> Database: {}", 
                    person.getFirstName(), person.getLastName(), calculateAge(person), database);
@@ -107,8 +154,8 @@ public class AgeBasedPersonService {
         // Utiliser KeyHolder pour récupérer l'ID généré (compatible H2)
         KeyHolder keyHolder = new GeneratedKeyHolder();
         
-        targetTemplate.update(connection -> {
-            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+        queryMetrics.record(database, ShardQueryMetrics.SAVE, () -> targetTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, new String[]{"id"});
             ps.setString(1, person.getFirstName());
             ps.setString(2, person.getLastName());
             ps.setString(3, person.getEmail());
@@ -118,7 +165,8 @@ public class AgeBasedPersonService {
             ps.setString(7, person.getCity());
             ps.setString(8, person.getCountry());
             return ps;
-        }, keyHolder);
+        }, keyHolder));
+        shardVersions.changed(database);
 
         // Récupérer l'ID généré
         Number key = keyHolder.getKey();
@@ -135,28 +183,17 @@ public class AgeBasedPersonService {
     public List<Person> getAllPersons() {
         initializeTables();
         
-        List<Person> allPersons = new ArrayList<>();
-        
-        // Récupérer des adultes
-        try {
-            List<Person> adults = adultsJdbcTemplate.query(
-                    "SELECT * FROM persons", 
-                    new BeanPropertyRowMapper<>(Person.class));
-            allPersons.addAll(adults);
-        } catch (Exception e) {
-            logger.warn("Could not retrieve adults: {}", e.getMessage());
-        }
-        
-        // Récupérer des mineurs
-        try {
-            List<Person> minors = minorsJdbcTemplate.query(
-                    "SELECT * FROM persons", 
-                    new BeanPropertyRowMapper<>(Person.class));
-            allPersons.addAll(minors);
-        } catch (Exception e) {
-            logger.warn("Could not retrieve minors: {}", e.getMessage());
-        }
-        
+        ShardResults<List<Person>> results = onBothShards((shard, template) -> {
+            try {
+                return template.query("SELECT * FROM persons", PERSON_ROW_MAPPER);
+            } catch (Exception e) {
+                logger.warn("Could not retrieve {}: {}", shard, e.getMessage());
+                return List.of();
+            }
+        });
+
+        List<Person> allPersons = new ArrayList<>(results.adults());
+        allPersons.addAll(results.minors());
         return allPersons;
     }
 
@@ -168,7 +205,7 @@ public class AgeBasedPersonService {
         try {
             return adultsJdbcTemplate.query(
                     "SELECT * FROM persons", 
-                    new BeanPropertyRowMapper<>(Person.class));
+                    PERSON_ROW_MAPPER);
         } catch (Exception e) {
             logger.warn("Could not retrieve adults: {}", e.getMessage());
             return new ArrayList<>();
@@ -183,44 +220,48 @@ public class AgeBasedPersonService {
         try {
             return minorsJdbcTemplate.query(
                     "SELECT * FROM persons", 
-                    new BeanPropertyRowMapper<>(Person.class));
+                    PERSON_ROW_MAPPER);
         } catch (Exception e) {
             logger.warn("Could not retrieve minors: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
 
+    /**
+     * Parcourt les adultes ligne à ligne, sans liste intermédiaire
+     */
+    public void forEachAdult(Consumer<? super Person> consumer) {
+        forEachRow(adultsJdbcTemplate, consumer);
+    }
+
+    /**
+     * Parcourt les mineurs ligne à ligne, sans liste intermédiaire
+     */
+    public void forEachMinor(Consumer<? super Person> consumer) {
+        forEachRow(minorsJdbcTemplate, consumer);
+    }
+
+    private void forEachRow(JdbcTemplate template, Consumer<? super Person> consumer) {
+        initializeTables();
+        template.query("SELECT * FROM persons",
+                (RowCallbackHandler) rs -> consumer.accept(PERSON_ROW_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
     /**
      * Recherche une personne par ID dans les deux bases
      */
     public Optional<Person> getPersonById(Long id) {
         initializeTables();
         
-        // Chercher dans les adultes d'abord
-        try {
-            List<Person> adults = adultsJdbcTemplate.query(
-                    "SELECT * FROM persons WHERE id = ?", 
-                    new BeanPropertyRowMapper<>(Person.class), id);
-            if (!adults.isEmpty()) {
-                return Optional.of(adults.get(0));
-            }
-        } catch (Exception e) {
-            logger.warn("Error searching adults for ID {}: {}", id, e.getMessage());
-        }
-        
-        // Chercher dans les mineurs
-        try {
-            List<Person> minors = minorsJdbcTemplate.query(
-                    "SELECT * FROM persons WHERE id = ?", 
-                    new BeanPropertyRowMapper<>(Person.class), id);
-            if (!minors.isEmpty()) {
-                return Optional.of(minors.get(0));
+        return findFirst((shard, template) -> {
+            try {
+                return queryMetrics.record(shard, ShardQueryMetrics.BY_ID, () -> template.query(
+                        "SELECT * FROM persons WHERE id = ?", PERSON_ROW_MAPPER, id).stream().findFirst());
+            } catch (Exception e) {
+                logger.warn("Error searching {} for ID {}: {}", shard, id, e.getMessage());
+                return Optional.empty();
             }
-        } catch (Exception e) {
-            logger.warn("Error searching minors for ID {}: {}", id, e.getMessage());
-        }
-        
-        return Optional.empty();
+        });
     }
 
     /**
@@ -229,40 +270,24 @@ public class AgeBasedPersonService {
     public Optional<Person> getPersonByEmail(String email) {
         initializeTables();
         
-        // Chercher dans les adultes d'abord
-        try {
-            List<Person> adults = adultsJdbcTemplate.query(
-                    "SELECT * FROM persons WHERE email = ?", 
-                    new BeanPropertyRowMapper<>(Person.class), email);
-            if (!adults.isEmpty()) {
-                return Optional.of(adults.get(0));
+        return findFirst((shard, template) -> {
+            try {
+                return queryMetrics.record(shard, ShardQueryMetrics.BY_EMAIL, () -> template.query(
+                        "SELECT * FROM persons WHERE email = ?", PERSON_ROW_MAPPER, email).stream().findFirst());
+            } catch (Exception e) {
+                logger.warn("Error searching {} for email {}: {}", shard, email, e.getMessage());
+                return Optional.empty();
             }
-        } catch (Exception e) {
-            logger.warn("Error searching adults for email {}: {}", email, e.getMessage());
-        }
-        
-        // Chercher dans les mineurs
-        try {
-            List<Person> minors = minorsJdbcTemplate.query(
-                    "SELECT * FROM persons WHERE email = ?", 
-                    new BeanPropertyRowMapper<>(Person.class), email);
-            if (!minors.isEmpty()) {
-                return Optional.of(minors.get(0));
-            }
-        } catch (Exception e) {
-            logger.warn("Error searching minors for email {}: {}", email, e.getMessage());
-        }
-        
-        return Optional.empty();
+        });
     }
 
     /**
      * Compte le nombre total de personnes
      */
     public long countPersons() {
-        long adultsCount = countAdults();
-        long minorsCount = countMinors();
-        return adultsCount + minorsCount;
+        initializeTables();
+        ShardResults<Long> counts = onBothShards(this::countRows);
+        return counts.adults() + counts.minors();
     }
 
     /**
@@ -270,13 +295,7 @@ public class AgeBasedPersonService {
      */
     public long countAdults() {
         initializeTables();
-        try {
-            Long count = adultsJdbcTemplate.queryForObject("SELECT COUNT(*) FROM persons", Long.class);
-            return count != null ? count : 0;
-        } catch (Exception e) {
-            logger.warn("Error counting adults: {}", e.getMessage());
-            return 0;
-        }
+        return countRows("adults", adultsJdbcTemplate);
     }
 
     /**
@@ -284,12 +303,56 @@ public class AgeBasedPersonService {
      */
     public long countMinors() {
         initializeTables();
+        return countRows("minors", minorsJdbcTemplate);
+    }
+
+    private long countRows(String shard, JdbcTemplate template) {
         try {
-            Long count = minorsJdbcTemplate.queryForObject("SELECT COUNT(*) FROM persons", Long.class);
+            Long count = queryMetrics.record(shard, ShardQueryMetrics.COUNT,
+                    () -> template.queryForObject("SELECT COUNT(*) FROM persons", Long.class));
             return count != null ? count : 0;
         } catch (Exception e) {
-            logger.warn("Error counting minors: {}", e.getMessage());
+            logger.warn("Error counting {}: {}", shard, e.getMessage());
             return 0;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Recherche d'abord chez les adultes, puis chez les mineurs seulement si rien n'a été trouvé.
+     * En threads virtuels et hors transaction, les deux bases sont interrogées en parallèle : une requête de plus
+     * sur les mineurs à chaque succès chez les adultes, contre la latence d'un aller-retour en moins sinon.
+     */
+    private Optional<Person> findFirst(BiFunction<String, JdbcTemplate, Optional<Person>> query) {
+        if (fanOut()) {
+            ShardResults<Optional<Person>> results = onBothShards(query);
+            return results.adults().or(results::minors);
+        }
+        return query.apply("adults", adultsJdbcTemplate).or(() -> query.apply("minors", minorsJdbcTemplate));
+    }
+
+    /**
+     * Exécute la même requête sur les deux bases : en fan-out, les mineurs sur le pool dédié et les adultes dans
+     * le thread appelant ; sinon l'une après l'autre dans le thread appelant
+     */
+    private <T> ShardResults<T> onBothShards(BiFunction<String, JdbcTemplate, T> query) {
+        if (!fanOut()) {
+            return new ShardResults<>(query.apply("adults", adultsJdbcTemplate), query.apply("minors", minorsJdbcTemplate));
+        }
+        CompletableFuture<T> minors = CompletableFuture.supplyAsync(
+                () -> query.apply("minors", minorsJdbcTemplate), shardFanOutExecutor);
+        T adults = query.apply("adults", adultsJdbcTemplate);
+        return new ShardResults<>(adults, minors.join());
+    }
+
+    /**
+     * Fan-out seulement en threads virtuels (attente bon marché) et hors transaction : dans une transaction
+     * (délégués du moteur), la connexion mineurs y est liée jusqu'au commit, et le fan-out en prendrait une seconde,
+     * jusqu'à épuiser le pool sous charge
+     */
+    private boolean fanOut() {
+        return virtualThreads && !TransactionSynchronizationManager.isSynchronizationActive();
+    }
+
+    private record ShardResults<T>(T adults, T minors) {
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.camunda.service;
+
+import jakarta.annotation.PreDestroy;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.runtime.ProcessInstanceWithVariables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Démarrage en masse du processus de routage par âge.
+ * Les instances sont démarrées par lots (un commit par lot), les lots étant répartis sur un pool de threads.
+ * Si un lot échoue, ses éléments sont rejoués un par un pour isoler l'élément fautif.
+ */
+@Service
+public class AgeRoutingBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgeRoutingBatchService.class);
+
+    public static final String PROCESS_KEY = "age-based-routing-process";
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final int chunkSize;
+    private final int maxItems;
+
+    public AgeRoutingBatchService(PlatformTransactionManager transactionManager,
+                                  @Value("${app.process.batch.chunk-size:50}") int chunkSize,
+                                  @Value("${app.process.batch.parallelism:4}") int parallelism,
+                                  @Value("${app.process.batch.max-items:10000}") int maxItems) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "age-routing-batch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getMaxItems() {
+        return maxItems;
+    }
+
+    /**
+     * Démarre une instance par élément et renvoie un résultat par élément, dans l'ordre de la requête
+     */
+    public List<Map<String, Object>> startBatch(List<Map<String, Object>> items) throws InterruptedException {
+        // Une case par élément, remplie par les lots sur des index distincts (visibles après future.get())
+        List<Map<String, Object>> results = new ArrayList<>(Collections.nCopies(items.size(), null));
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            int start = from;
+            int end = Math.min(from + chunkSize, items.size());
+            futures.add(executor.submit(() -> startChunk(items, start, end, results)));
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                // startChunk enregistre déjà les erreurs par élément, on ne doit pas arriver ici
+                logger.error("Unexpected error in batch chunk", e.getCause());
+            }
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, failure(i, "Item was not processed"));
+            }
+        }
+        return results;
+    }
+
+    private void startChunk(List<Map<String, Object>> items, int start, int end, List<Map<String, Object>> results) {
+        try {
+            // Un seul commit pour tout le lot
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = start; i < end; i++) {
+                    results.set(i, startOne(i, items.get(i)));
+                }
+            });
+            logger.debug("Batch chunk [{}, {}) started in one transaction", start, end);
+        } catch (RuntimeException chunkError) {
+            logger.warn("Batch chunk [{}, {}) rolled back ({}), retrying items one by one",
+                       start, end, chunkError.getMessage());
+            for (int i = start; i < end; i++) {
+                int index = i;
+                try {
+                    results.set(i, transactionTemplate.execute(status -> startOne(index, items.get(index))));
+                } catch (RuntimeException itemError) {
+                    logger.error("Error starting batch item {}: {}", index, itemError.getMessage());
+                    results.set(i, failure(index, "Error starting process: " + itemError.getMessage()));
+                }
+            }
+        }
+    }
+
+    private Map<String, Object> startOne(int index, Map<String, Object> item) {
+        if (item == null || (!item.containsKey("personId") && !item.containsKey("email"))) {
+            return failure(index, "Either 'personId' or 'email' must be provided");
+        }
+
+        Map<String, Object> variables = new HashMap<>(item);
+        // Le délégué attend un Long, Jackson produit un Integer pour les petits nombres
+        if (variables.get("personId") instanceof Number number) {
+            variables.put("personId", number.longValue());
+        }
+        variables.put("processType", "age-based-routing");
+        variables.put("startTime", System.currentTimeMillis());
+
+        // Les variables finales sont renvoyées par la commande de démarrage, sans requête d'historique
+        ProcessInstanceWithVariables processInstance = runtimeService
+                .createProcessInstanceByKey(PROCESS_KEY)
+                .setVariables(variables)
+                .executeWithVariablesInReturn();
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("index", index);
+        result.put("success", true);
+        result.put("processInstanceId", processInstance.getId());
+        result.put("isEnded", processInstance.isEnded());
+        result.put("variables", new HashMap<>(processInstance.getVariables()));
+        return result;
+    }
+
+    private Map<String, Object> failure(int index, String message) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("index", index);
+        result.put("success", false);
+        result.put("message", message);
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.camunda.service;
+
+import com.example.camunda.events.ProcessEventBroker;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Déduplication des démarrages de processus par clé d'idempotence (en-tête Idempotency-Key), utilisée
+ * comme business key de l'instance. Le premier appel d'une clé démarre l'instance ; les répétitions dans
+ * la fenêtre (app.process.idempotency.window-ms) reçoivent la même réponse sans appel au moteur, en attendant
+ * le premier appel s'il est encore en cours. Une répétition avec un autre corps est refusée : les corps sont
+ * comparés par SHA-256 de leur JSON canonique (clés triées). Index en mémoire, borné, propre à chaque nœud.
+ */
+@Service
+public class IdempotencyIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyIndex.class);
+
+    // Taille de la colonne BUSINESS_KEY_ des tables du moteur
+    public static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private ProcessEventBroker eventBroker;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.process.idempotency.window-ms:600000}")
+    private long windowMillis;
+
+    @Value("${app.process.idempotency.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${app.process.idempotency.in-flight-wait-ms:30000}")
+    private long inFlightWaitMillis;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Ordre d'insertion = ordre d'expiration
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    // Incrémentée après chaque appel de startOnce, quelle qu'en soit l'issue (validateurs HTTP des statistiques)
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Démarre l'instance une seule fois par (processus, clé) : starter reçoit la business key et renvoie
+     * la réponse à mémoriser. Une répétition renvoie cette réponse (avec deduplicated=true), complétée par
+     * le résultat de l'instance si elle s'est terminée depuis.
+     */
+    public Map<String, Object> startOnce(String processKey, String idempotencyKey, Map<String, Object> request,
+                                         Function<String, Map<String, Object>> starter) throws InterruptedException {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        try {
+            return start(processKey, idempotencyKey, request, starter);
+        } finally {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Version des statistiques : change après chaque démarrage, répétition ou éviction
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    private Map<String, Object> start(String processKey, String idempotencyKey, Map<String, Object> request,
+                                      Function<String, Map<String, Object>> starter) throws InterruptedException {
+        long now = System.currentTimeMillis();
+        evict(now);
+
+        Entry candidate = new Entry(processKey + '\u0000' + idempotencyKey, requestDigest(request), now);
+        Entry entry = entries.compute(candidate.key,
+                (key, existing) -> existing != null && !existing.isExpired(now, windowMillis) ? existing : candidate);
+
+        if (entry != candidate) {
+            if (!MessageDigest.isEqual(entry.requestDigest, candidate.requestDigest)) {
+                throw new KeyReuseException("Idempotency-Key " + idempotencyKey + " was already used with a different request");
+            }
+            deduplicated.increment();
+            logger.info("Duplicate start for idempotency key {} on {}", idempotencyKey, processKey);
+            return duplicateResponse(entry);
+        }
+
+        insertionOrder.add(candidate);
+        try {
+            Map<String, Object> response = starter.apply(idempotencyKey);
+            response.put("idempotencyKey", idempotencyKey);
+            response.put("deduplicated", false);
+            candidate.response.complete(response);
+            started.increment();
+            return response;
+        } catch (RuntimeException e) {
+            // Échec : la clé est libérée pour que la prochaine tentative redémarre
+            entries.remove(candidate.key, candidate);
+            candidate.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("keys", entries.size());
+        statistics.put("started", started.sum());
+        statistics.put("deduplicated", deduplicated.sum());
+        statistics.put("windowMillis", windowMillis);
+        statistics.put("maxKeys", maxKeys);
+        return statistics;
+    }
+
+    private Map<String, Object> duplicateResponse(Entry entry) throws InterruptedException {
+        Map<String, Object> original;
+        try {
+            original = entry.response.get(inFlightWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new InFlightException("A request with the same Idempotency-Key is still in progress");
+        } catch (ExecutionException e) {
+            throw new InFlightException("The original request with this Idempotency-Key failed, retry it: "
+                    + e.getCause().getMessage());
+        }
+
+        Map<String, Object> response = new HashMap<>(original);
+        response.put("deduplicated", true);
+        // Instance démarrée en asynchrone, terminée depuis : résultat connu sans lecture en base
+        if (Boolean.FALSE.equals(original.get("isEnded"))) {
+            eventBroker.recentCompletion((String) original.get("processInstanceId")).ifPresent(event -> {
+                response.put("isEnded", true);
+                response.put("status", event.status());
+                response.put("variables", event.variables());
+            });
+        }
+        return response;
+    }
+
+    /**
+     * SHA-256 du corps en JSON canonique : clés triées à tous les niveaux, indépendamment de l'ordre reçu
+     */
+    private byte[] requestDigest(Map<String, Object> request) {
+        try {
+            byte[] canonical = objectMapper.writer()
+                    .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                    .writeValueAsBytes(request);
+            return MessageDigest.getInstance("SHA-256").digest(canonical);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request body cannot be fingerprinted: " + e.getOriginalMessage());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void evict(long now) {
+        Entry head;
+        while ((head = insertionOrder.peek()) != null
+                && (head.isExpired(now, windowMillis) || entries.size() > maxKeys)
+                && head.response.isDone()) {
+            if (insertionOrder.remove(head)) {
+                entries.remove(head.key, head);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final byte[] requestDigest;
+        private final long createdAt;
+        private final CompletableFuture<Map<String, Object>> response = new CompletableFuture<>();
+
+        private Entry(String key, byte[] requestDigest, long createdAt) {
+            this.key = key;
+            this.requestDigest = requestDigest;
+            this.createdAt = createdAt;
+        }
+
+        private boolean isExpired(long now, long windowMillis) {
+            return now - createdAt > windowMillis;
+        }
+    }
+
+    /**
+     * Répétition alors que le premier appel est encore en cours (au-delà de in-flight-wait-ms) ou a échoué
+     */
+    public static class InFlightException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public InFlightException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Clé déjà utilisée avec un autre corps de requête
+     */
+    public static class KeyReuseException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public KeyReuseException(String message) {
+            super(message);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.example.camunda.service;
 
 import com.example.camunda.model.Person;
 import com.example.camunda.repository.PersonRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +13,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -21,11 +25,32 @@ public class PersonService {
     @Autowired
     private PersonRepository personRepository;
     
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private ShardVersions shardVersions;
+    
     public List<Person> getAllPersons() {
         logger.info("Fetching all persons");
         return personRepository.findAll();
     }
     
+    /**
+     * Parcourt toutes les personnes sans les charger en liste : chaque entité est détachée une fois consommée
+     * pour que le contexte de persistance ne grossisse pas. La connexion reste prise pendant tout le parcours.
+     */
+    @Transactional(readOnly = true)
+    public void forEachPerson(Consumer<? super Person> consumer) {
+        logger.info("Streaming all persons");
+        try (Stream<Person> persons = personRepository.streamAll()) {
+            persons.forEach(person -> {
+                consumer.accept(person);
+                entityManager.detach(person);
+            });
+        }
+    }
+    
     public Optional<Person> getPersonById(Long id) {
         logger.info("Fetching person with id: {}", id);
         return personRepository.findById(id);
@@ -63,30 +88,47 @@ public class PersonService {
     
     public Person savePerson(Person person) {
         logger.info("Saving person: {}", person.getFullName());
+        shardVersions.changed(ShardVersions.ADULTS);
         return personRepository.save(person);
     }
     
     public Person updatePerson(Long id, Person personDetails) {
+        return updateExistingPerson(id, personDetails)
+                .orElseThrow(() -> new RuntimeException("Person not found with id: " + id));
+    }
+    
+    /**
+     * Met à jour la personne si elle existe, en une seule lecture (vide sinon)
+     */
+    public Optional<Person> updateExistingPerson(Long id, Person personDetails) {
         logger.info("Updating person with id: {}", id);
         
         return personRepository.findById(id)
                 .map(person -> {
-                    person.setFirstName(personDetails.getFirstName());
-                    person.setLastName(personDetails.getLastName());
-                    person.setEmail(personDetails.getEmail());
-                    person.setPhoneNumber(personDetails.getPhoneNumber());
-                    person.setDateOfBirth(personDetails.getDateOfBirth());
-                    person.setAddress(personDetails.getAddress());
-                    person.setCity(personDetails.getCity());
-                    person.setCountry(personDetails.getCountry());
+                    copyDetails(personDetails, person);
+                    shardVersions.changed(ShardVersions.ADULTS);
                     return personRepository.save(person);
-                })
-                .orElseThrow(() -> new RuntimeException("Person not found with id: " + id));
+                });
+    }
+    
+    /**
+     * Copie les champs modifiables d'une personne (id et dates techniques exclus)
+     */
+    private static void copyDetails(Person source, Person target) {
+        target.setFirstName(source.getFirstName());
+        target.setLastName(source.getLastName());
+        target.setEmail(source.getEmail());
+        target.setPhoneNumber(source.getPhoneNumber());
+        target.setDateOfBirth(source.getDateOfBirth());
+        target.setAddress(source.getAddress());
+        target.setCity(source.getCity());
+        target.setCountry(source.getCountry());
     }
     
     public void deletePerson(Long id) {
         logger.info("Deleting person with id: {}", id);
         personRepository.deleteById(id);
+        shardVersions.changed(ShardVersions.ADULTS);
     }
     
     public boolean existsById(Long id) {
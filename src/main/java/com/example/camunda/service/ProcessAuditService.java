@@ -0,0 +1,86 @@
+package com.example.camunda.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Lecture des enregistrements d'audit des instances straight-through (table process_audit),
+ * qui remplacent leur historique Camunda
+ */
+@Service
+public class ProcessAuditService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessAuditService.class);
+
+    @Autowired
+    @Qualifier("adultsJdbcTemplate")
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.process.straight-through.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Nombre d'instances terminées en mode straight-through pour une définition
+     */
+    public long countCompleted(String processDefinitionKey) {
+        if (!enabled) {
+            return 0;
+        }
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM process_audit WHERE proc_def_key = ?", Long.class, processDefinitionKey);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Enregistrement d'audit d'une instance, absent si l'instance n'a pas été exécutée en straight-through
+     */
+    public Optional<Map<String, Object>> findAuditRecord(String processInstanceId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        List<Map<String, Object>> records = jdbcTemplate.query("""
+                SELECT proc_inst_id, proc_def_key, business_key, start_time, end_time,
+                       duration_ms, end_activity_id, variables
+                FROM process_audit WHERE proc_inst_id = ?
+                """, (rs, rowNum) -> {
+            Map<String, Object> record = new HashMap<>();
+            record.put("processInstanceId", rs.getString("proc_inst_id"));
+            record.put("processDefinitionKey", rs.getString("proc_def_key"));
+            record.put("businessKey", rs.getString("business_key"));
+            record.put("startTime", rs.getTimestamp("start_time"));
+            record.put("endTime", rs.getTimestamp("end_time"));
+            record.put("duration", rs.getObject("duration_ms"));
+            record.put("endActivityId", rs.getString("end_activity_id"));
+            record.put("variables", parseVariables(rs.getString("variables")));
+            return record;
+        }, processInstanceId);
+        return records.stream().findFirst();
+    }
+
+    private Map<String, Object> parseVariables(String json) {
+        if (json == null) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+        } catch (Exception e) {
+            logger.warn("Invalid audit variables: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.camunda.service;
+
+import com.example.camunda.statistics.ProcessCounters;
+import com.example.camunda.statistics.ProcessStatisticsRegistry;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.history.HistoryLevel;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Statistiques des processus servies depuis la mémoire (compteurs alimentés par les événements du moteur).
+ * Une réconciliation périodique avec la base corrige les dérives (redémarrage, autre nœud, history-level none).
+ */
+@Service
+public class ProcessStatisticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessStatisticsService.class);
+
+    @Autowired
+    private ProcessStatisticsRegistry registry;
+
+    @Autowired
+    private ProcessEngine processEngine;
+
+    @Autowired
+    private ProcessAuditService auditService;
+
+    /**
+     * Statistiques d'une définition de processus, sans requête en base
+     */
+    public Map<String, Object> getStatistics(String processDefinitionKey) {
+        ProcessCounters counters = registry.counters(processDefinitionKey);
+        long completed = counters.getCompleted();
+        long active = counters.getActive();
+        long total = counters.getStarted();
+
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("active", active);
+        statistics.put("completed", completed);
+        statistics.put("total", total);
+        statistics.put("failed", counters.getFailed());
+        statistics.put("rolledBack", counters.getRolledBack());
+        statistics.put("completionRate", total > 0 ? (completed * 100.0 / total) : 0);
+        statistics.put("outcomes", counters.getOutcomes());
+        statistics.put("latency", counters.getLatency());
+        statistics.put("lastReconciledAt", counters.getLastReconciledAt());
+        return statistics;
+    }
+
+    /**
+     * Recale les compteurs sur la base, pour chaque définition déployée
+     */
+    @Scheduled(initialDelayString = "${app.process.statistics.reconcile-initial-delay-ms:0}",
+               fixedDelayString = "${app.process.statistics.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        HistoryLevel historyLevel = ((ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration())
+                .getHistoryLevel();
+        boolean historyAvailable = historyLevel.getId() >= HistoryLevel.HISTORY_LEVEL_ACTIVITY.getId();
+
+        for (ProcessDefinition definition : processEngine.getRepositoryService()
+                .createProcessDefinitionQuery()
+                .latestVersion()
+                .list()) {
+            String key = definition.getKey();
+            long active = processEngine.getRuntimeService()
+                    .createProcessInstanceQuery()
+                    .processDefinitionKey(key)
+                    .count();
+
+            if (historyAvailable) {
+                // Les instances straight-through n'ont pas d'historique, seulement un enregistrement d'audit
+                long audited = auditService.countCompleted(key);
+                long total = processEngine.getHistoryService()
+                        .createHistoricProcessInstanceQuery()
+                        .processDefinitionKey(key)
+                        .count() + audited;
+                long completed = processEngine.getHistoryService()
+                        .createHistoricProcessInstanceQuery()
+                        .processDefinitionKey(key)
+                        .finished()
+                        .count() + audited;
+                registry.counters(key).reconcile(total, completed, active);
+            } else {
+                registry.counters(key).reconcileActive(active);
+            }
+        }
+        logger.debug("Process statistics reconciled with the database");
+    }
+}
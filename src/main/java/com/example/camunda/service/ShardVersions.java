@@ -0,0 +1,47 @@
+package com.example.camunda.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version de chaque shard de personnes, incrémentée à chaque écriture (par nœud, repart de 0 au démarrage).
+ * Dans une transaction, l'incrément a lieu à la fin de celle-ci, validée ou non : une lecture qui voit la nouvelle
+ * version voit aussi les lignes écrites ; une annulation ne coûte qu'une relecture complète.
+ */
+@Component
+public class ShardVersions {
+
+    public static final String ADULTS = "ADULTS";
+    public static final String MINORS = "MINORS";
+
+    private final AtomicLong adults = new AtomicLong();
+    private final AtomicLong minors = new AtomicLong();
+
+    public long getVersion(String shard) {
+        return counter(shard).get();
+    }
+
+    /**
+     * Signale une écriture sur le shard (ADULTS ou MINORS)
+     */
+    public void changed(String shard) {
+        AtomicLong counter = counter(shard);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    counter.incrementAndGet();
+                }
+            });
+        } else {
+            counter.incrementAndGet();
+        }
+    }
+
+    private AtomicLong counter(String shard) {
+        return MINORS.equals(shard) ? minors : adults;
+    }
+}
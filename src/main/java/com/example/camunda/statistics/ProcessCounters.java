@@ -0,0 +1,118 @@
+package com.example.camunda.statistics;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs en mémoire d'une définition de processus (toutes versions confondues)
+ */
+public class ProcessCounters {
+
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong active = new AtomicLong();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rolledBack = new LongAdder();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    // Durées de 1 ms à 1 h, 2 chiffres significatifs
+    private final Histogram durations = new ConcurrentHistogram(3_600_000L, 2);
+    private volatile long lastReconciledAt;
+    // Incrémentée après chaque modification des compteurs (validateurs HTTP des statistiques)
+    private final AtomicLong version = new AtomicLong();
+
+    void onStarted() {
+        started.incrementAndGet();
+        active.incrementAndGet();
+        version.incrementAndGet();
+    }
+
+    void onCompleted(String endActivityId, Long durationInMillis) {
+        completed.incrementAndGet();
+        active.decrementAndGet();
+        outcomes.computeIfAbsent(endActivityId != null ? endActivityId : "unknown", id -> new LongAdder()).increment();
+        if (durationInMillis != null) {
+            durations.recordValue(Math.min(Math.max(durationInMillis, 0), durations.getHighestTrackableValue()));
+        }
+        version.incrementAndGet();
+    }
+
+    void onFailed() {
+        failed.increment();
+        version.incrementAndGet();
+    }
+
+    void onRolledBack() {
+        rolledBack.increment();
+        version.incrementAndGet();
+    }
+
+    /**
+     * Remplace les compteurs par les valeurs lues en base (les événements en vol peuvent être décalés d'une période)
+     */
+    public void reconcile(long startedCount, long completedCount, long activeCount) {
+        started.set(startedCount);
+        completed.set(completedCount);
+        active.set(activeCount);
+        lastReconciledAt = System.currentTimeMillis();
+        version.incrementAndGet();
+    }
+
+    public void reconcileActive(long activeCount) {
+        active.set(activeCount);
+        lastReconciledAt = System.currentTimeMillis();
+        version.incrementAndGet();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public long getStarted() {
+        return started.get();
+    }
+
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    public long getActive() {
+        return Math.max(active.get(), 0);
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getRolledBack() {
+        return rolledBack.sum();
+    }
+
+    public long getLastReconciledAt() {
+        return lastReconciledAt;
+    }
+
+    public Map<String, Long> getOutcomes() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        outcomes.forEach((endActivityId, count) -> snapshot.put(endActivityId, count.sum()));
+        return snapshot;
+    }
+
+    public Map<String, Object> getLatency() {
+        Histogram copy = durations.copy();
+        Map<String, Object> latency = new HashMap<>();
+        latency.put("count", copy.getTotalCount());
+        latency.put("meanMillis", copy.getTotalCount() > 0 ? copy.getMean() : 0);
+        latency.put("p50Millis", copy.getValueAtPercentile(50));
+        latency.put("p95Millis", copy.getValueAtPercentile(95));
+        latency.put("p99Millis", copy.getValueAtPercentile(99));
+        latency.put("maxMillis", copy.getMaxValue());
+        return latency;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.camunda.statistics;
+
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.history.event.HistoricIncidentEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoricProcessInstanceEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoryEventTypes;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoricProcessInstanceEntity;
+
+import java.util.List;
+
+/**
+ * Met à jour les compteurs de {@link ProcessStatisticsRegistry} à partir des événements d'historique.
+ * Les compteurs ne bougent qu'au commit de la transaction du moteur : une instance annulée par rollback
+ * n'est jamais comptée comme démarrée (elle est comptée dans rolledBack).
+ */
+public class ProcessStatisticsHistoryEventHandler implements HistoryEventHandler {
+
+    private final ProcessStatisticsRegistry registry;
+
+    public ProcessStatisticsHistoryEventHandler(ProcessStatisticsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void handleEvent(HistoryEvent historyEvent) {
+        if (historyEvent.getProcessDefinitionKey() == null) {
+            return;
+        }
+
+        if (historyEvent instanceof HistoricProcessInstanceEventEntity processEvent) {
+            if (processEvent.isEventOfType(HistoryEventTypes.PROCESS_INSTANCE_START)) {
+                ProcessCounters counters = registry.counters(processEvent.getProcessDefinitionKey());
+                afterCommit(counters::onStarted);
+                onRollback(counters::onRolledBack);
+            } else if (processEvent.isEventOfType(HistoryEventTypes.PROCESS_INSTANCE_END)) {
+                ProcessCounters counters = registry.counters(processEvent.getProcessDefinitionKey());
+                String outcome = processEvent.getDeleteReason() != null ? "canceled" : processEvent.getEndActivityId();
+                Long duration = durationOf(processEvent);
+                afterCommit(() -> counters.onCompleted(outcome, duration));
+            }
+        } else if (historyEvent instanceof HistoricIncidentEventEntity
+                && historyEvent.isEventOfType(HistoryEventTypes.INCIDENT_CREATE)) {
+            ProcessCounters counters = registry.counters(historyEvent.getProcessDefinitionKey());
+            afterCommit(counters::onFailed);
+        }
+    }
+
+    @Override
+    public void handleEvents(List<HistoryEvent> historyEvents) {
+        for (HistoryEvent historyEvent : historyEvents) {
+            handleEvent(historyEvent);
+        }
+    }
+
+    /**
+     * Quand l'instance se termine dans une autre transaction que son démarrage (async, external tasks),
+     * le moteur ne renseigne pas la durée : on la recalcule depuis l'instance historique.
+     */
+    private Long durationOf(HistoricProcessInstanceEventEntity processEvent) {
+        if (processEvent.getDurationInMillis() != null || processEvent.getEndTime() == null) {
+            return processEvent.getDurationInMillis();
+        }
+        CommandContext commandContext = Context.getCommandContext();
+        if (commandContext == null) {
+            return null;
+        }
+        HistoricProcessInstanceEntity historicProcessInstance = commandContext.getHistoricProcessInstanceManager()
+                .findHistoricProcessInstance(processEvent.getProcessInstanceId());
+        if (historicProcessInstance == null || historicProcessInstance.getStartTime() == null) {
+            return null;
+        }
+        return processEvent.getEndTime().getTime() - historicProcessInstance.getStartTime().getTime();
+    }
+
+    private void afterCommit(Runnable update) {
+        CommandContext commandContext = Context.getCommandContext();
+        if (commandContext == null) {
+            update.run();
+        } else {
+            commandContext.getTransactionContext()
+                    .addTransactionListener(TransactionState.COMMITTED, context -> update.run());
+        }
+    }
+
+    private void onRollback(Runnable update) {
+        CommandContext commandContext = Context.getCommandContext();
+        if (commandContext != null) {
+            commandContext.getTransactionContext()
+                    .addTransactionListener(TransactionState.ROLLED_BACK, context -> update.run());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.camunda.statistics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registre des compteurs par clé de définition de processus.
+ * Alimenté par les événements du moteur, sans dépendance vers le moteur lui-même.
+ */
+@Component
+public class ProcessStatisticsRegistry {
+
+    private final Map<String, ProcessCounters> countersByProcessKey = new ConcurrentHashMap<>();
+
+    public ProcessCounters counters(String processDefinitionKey) {
+        return countersByProcessKey.computeIfAbsent(processDefinitionKey, key -> new ProcessCounters());
+    }
+
+    public Set<String> getProcessDefinitionKeys() {
+        return countersByProcessKey.keySet();
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.camunda.straightthrough;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.history.event.HistoricProcessInstanceEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoricVariableUpdateEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoryEventTypes;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remplace le handler d'historique en base : les événements des processus straight-through ne sont pas écrits,
+ * une seule ligne process_audit est insérée en fin d'instance, dans la transaction du moteur.
+ * Les événements des autres processus sont transmis au handler par défaut.
+ */
+public class StraightThroughHistoryEventHandler implements HistoryEventHandler {
+
+    public static final String AUDIT_TABLE_DDL = """
+            CREATE TABLE IF NOT EXISTS process_audit (
+                proc_inst_id VARCHAR(64) PRIMARY KEY,
+                proc_def_key VARCHAR(255) NOT NULL,
+                business_key VARCHAR(255),
+                start_time TIMESTAMP,
+                end_time TIMESTAMP NOT NULL,
+                duration_ms BIGINT,
+                end_activity_id VARCHAR(255),
+                variables VARCHAR(4000)
+            )
+            """;
+
+    private static final String INSERT_AUDIT = """
+            INSERT INTO process_audit (proc_inst_id, proc_def_key, business_key, start_time, end_time,
+                                       duration_ms, end_activity_id, variables)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final int MAX_TEXT_VALUE_LENGTH = 255;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final StraightThroughRegistry registry;
+    private final HistoryEventHandler delegate;
+    private final Set<String> auditVariables;
+
+    // Variables simples des instances en cours, par id d'instance (démarrage et fin dans la même transaction)
+    private final Map<String, Map<String, Object>> pendingVariables = new ConcurrentHashMap<>();
+
+    public StraightThroughHistoryEventHandler(StraightThroughRegistry registry, HistoryEventHandler delegate,
+                                              Set<String> auditVariables) {
+        this.registry = registry;
+        this.delegate = delegate;
+        this.auditVariables = auditVariables;
+    }
+
+    @Override
+    public void handleEvent(HistoryEvent historyEvent) {
+        if (!registry.isStraightThrough(historyEvent.getProcessDefinitionKey())) {
+            delegate.handleEvent(historyEvent);
+            return;
+        }
+
+        if (historyEvent instanceof HistoricProcessInstanceEventEntity processEvent) {
+            if (processEvent.isEventOfType(HistoryEventTypes.PROCESS_INSTANCE_START)) {
+                onStart(processEvent);
+            } else if (processEvent.isEventOfType(HistoryEventTypes.PROCESS_INSTANCE_END)) {
+                onEnd(processEvent);
+            }
+        } else if (historyEvent instanceof HistoricVariableUpdateEventEntity variableEvent
+                && !variableEvent.isEventOfType(HistoryEventTypes.VARIABLE_INSTANCE_DELETE)) {
+            onVariable(variableEvent);
+        }
+    }
+
+    @Override
+    public void handleEvents(List<HistoryEvent> historyEvents) {
+        List<HistoryEvent> persisted = new ArrayList<>(historyEvents.size());
+        for (HistoryEvent historyEvent : historyEvents) {
+            if (registry.isStraightThrough(historyEvent.getProcessDefinitionKey())) {
+                handleEvent(historyEvent);
+            } else {
+                persisted.add(historyEvent);
+            }
+        }
+        if (!persisted.isEmpty()) {
+            delegate.handleEvents(persisted);
+        }
+    }
+
+    private void onStart(HistoricProcessInstanceEventEntity processEvent) {
+        String processInstanceId = processEvent.getProcessInstanceId();
+        pendingVariables.put(processInstanceId, new LinkedHashMap<>());
+
+        CommandContext commandContext = Context.getCommandContext();
+        if (commandContext != null) {
+            commandContext.getTransactionContext().addTransactionListener(TransactionState.ROLLED_BACK,
+                    context -> pendingVariables.remove(processInstanceId));
+        }
+    }
+
+    private void onVariable(HistoricVariableUpdateEventEntity variableEvent) {
+        Map<String, Object> variables = pendingVariables.get(variableEvent.getProcessInstanceId());
+        if (variables == null
+                || (!auditVariables.isEmpty() && !auditVariables.contains(variableEvent.getVariableName()))) {
+            return;
+        }
+        Object value = simpleValue(variableEvent);
+        if (value != null) {
+            variables.put(variableEvent.getVariableName(), value);
+        }
+    }
+
+    private void onEnd(HistoricProcessInstanceEventEntity processEvent) {
+        Map<String, Object> variables = pendingVariables.remove(processEvent.getProcessInstanceId());
+
+        Connection connection = Context.getCommandContext().getDbSqlSession().getSqlSession().getConnection();
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_AUDIT)) {
+            statement.setString(1, processEvent.getProcessInstanceId());
+            statement.setString(2, processEvent.getProcessDefinitionKey());
+            statement.setString(3, processEvent.getBusinessKey());
+            statement.setTimestamp(4, timestamp(processEvent.getStartTime()));
+            statement.setTimestamp(5, timestamp(processEvent.getEndTime()));
+            if (processEvent.getDurationInMillis() != null) {
+                statement.setLong(6, processEvent.getDurationInMillis());
+            } else {
+                statement.setNull(6, Types.BIGINT);
+            }
+            statement.setString(7, processEvent.getEndActivityId());
+            statement.setString(8, variables != null ? MAPPER.writeValueAsString(variables) : null);
+            statement.executeUpdate();
+        } catch (SQLException | JsonProcessingException e) {
+            throw new ProcessEngineException("Could not write audit record for process instance "
+                    + processEvent.getProcessInstanceId(), e);
+        }
+    }
+
+    /**
+     * Valeur des types simples uniquement ; les objets sérialisés ne vont pas dans l'audit
+     */
+    private static Object simpleValue(HistoricVariableUpdateEventEntity variableEvent) {
+        String serializer = variableEvent.getSerializerName();
+        if (serializer == null) {
+            return null;
+        }
+        return switch (serializer) {
+            case "string" -> {
+                String text = variableEvent.getTextValue();
+                yield text != null && text.length() <= MAX_TEXT_VALUE_LENGTH ? text : null;
+            }
+            case "long", "integer", "short", "date" -> variableEvent.getLongValue();
+            case "double" -> variableEvent.getDoubleValue();
+            case "boolean" -> variableEvent.getLongValue() != null ? variableEvent.getLongValue() == 1 : null;
+            default -> null;
+        };
+    }
+
+    private static Timestamp timestamp(Date date) {
+        return date != null ? new Timestamp(date.getTime()) : null;
+    }
+}
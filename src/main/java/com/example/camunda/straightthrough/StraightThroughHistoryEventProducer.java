@@ -0,0 +1,68 @@
+package com.example.camunda.straightthrough;
+
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.history.event.HistoricProcessInstanceEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoryEventTypes;
+import org.camunda.bpm.engine.impl.history.producer.CacheAwareHistoryEventProducer;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Producteur d'historique par défaut, sauf en fin d'instance straight-through :
+ * l'événement de démarrage n'est jamais écrit (donc absent du cache), l'heure de démarrage est conservée ici,
+ * et aucune mise à jour du temps de suppression (REMOVAL_TIME_) n'est faite dans les tables d'historique.
+ */
+public class StraightThroughHistoryEventProducer extends CacheAwareHistoryEventProducer {
+
+    private final StraightThroughRegistry registry;
+    private final Map<String, Date> startTimes = new ConcurrentHashMap<>();
+
+    public StraightThroughHistoryEventProducer(StraightThroughRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public HistoryEvent createProcessInstanceStartEvt(DelegateExecution execution) {
+        HistoryEvent evt = super.createProcessInstanceStartEvt(execution);
+        ExecutionEntity executionEntity = (ExecutionEntity) execution;
+        if (registry.isStraightThrough(executionEntity.getProcessDefinition().getKey())) {
+            String processInstanceId = executionEntity.getProcessInstanceId();
+            startTimes.put(processInstanceId, ((HistoricProcessInstanceEventEntity) evt).getStartTime());
+
+            CommandContext commandContext = Context.getCommandContext();
+            if (commandContext != null) {
+                commandContext.getTransactionContext().addTransactionListener(TransactionState.ROLLED_BACK,
+                        context -> startTimes.remove(processInstanceId));
+            }
+        }
+        return evt;
+    }
+
+    @Override
+    public HistoryEvent createProcessInstanceEndEvt(DelegateExecution execution) {
+        ExecutionEntity executionEntity = (ExecutionEntity) execution;
+        if (!registry.isStraightThrough(executionEntity.getProcessDefinition().getKey())) {
+            return super.createProcessInstanceEndEvt(execution);
+        }
+
+        HistoricProcessInstanceEventEntity evt = newProcessInstanceEventEntity(executionEntity);
+        initProcessInstanceEvent(evt, executionEntity, HistoryEventTypes.PROCESS_INSTANCE_END);
+        determineEndState(executionEntity, evt);
+        evt.setEndActivityId(executionEntity.getActivityId());
+        evt.setEndTime(ClockUtil.getCurrentTime());
+        Date startTime = startTimes.remove(executionEntity.getProcessInstanceId());
+        if (startTime != null) {
+            evt.setStartTime(startTime);
+            evt.setDurationInMillis(evt.getEndTime().getTime() - startTime.getTime());
+        }
+        return evt;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.camunda.straightthrough;
+
+import org.camunda.bpm.engine.impl.bpmn.behavior.ClassDelegateActivityBehavior;
+import org.camunda.bpm.engine.impl.bpmn.behavior.ExclusiveGatewayActivityBehavior;
+import org.camunda.bpm.engine.impl.bpmn.behavior.InclusiveGatewayActivityBehavior;
+import org.camunda.bpm.engine.impl.bpmn.behavior.NoneEndEventActivityBehavior;
+import org.camunda.bpm.engine.impl.bpmn.behavior.NoneStartEventActivityBehavior;
+import org.camunda.bpm.engine.impl.bpmn.behavior.ParallelGatewayActivityBehavior;
+import org.camunda.bpm.engine.impl.bpmn.behavior.ScriptTaskActivityBehavior;
+import org.camunda.bpm.engine.impl.bpmn.behavior.ServiceTaskDelegateExpressionActivityBehavior;
+import org.camunda.bpm.engine.impl.bpmn.behavior.ServiceTaskExpressionActivityBehavior;
+import org.camunda.bpm.engine.impl.bpmn.behavior.ServiceTaskJavaDelegateActivityBehavior;
+import org.camunda.bpm.engine.impl.bpmn.behavior.TaskActivityBehavior;
+import org.camunda.bpm.engine.impl.bpmn.parser.AbstractBpmnParseListener;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.impl.pvm.delegate.ActivityBehavior;
+import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
+import org.camunda.bpm.engine.impl.pvm.process.ScopeImpl;
+import org.camunda.bpm.engine.impl.util.xml.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Vérifie au parsing qu'un processus configuré en straight-through s'exécute d'un bout à l'autre
+ * dans la transaction de démarrage : uniquement des activités synchrones, sans continuation asynchrone.
+ * parseProcess est appelé une fois toutes les activités parsées, donc après les autres listeners
+ * (mode async ou external tasks), qui rendent alors le processus inéligible.
+ */
+public class StraightThroughParseListener extends AbstractBpmnParseListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(StraightThroughParseListener.class);
+
+    private static final Set<Class<? extends ActivityBehavior>> SYNCHRONOUS_BEHAVIORS = Set.of(
+            NoneStartEventActivityBehavior.class,
+            NoneEndEventActivityBehavior.class,
+            ServiceTaskDelegateExpressionActivityBehavior.class,
+            ServiceTaskJavaDelegateActivityBehavior.class,
+            ServiceTaskExpressionActivityBehavior.class,
+            ClassDelegateActivityBehavior.class,
+            ScriptTaskActivityBehavior.class,
+            TaskActivityBehavior.class,
+            ExclusiveGatewayActivityBehavior.class,
+            InclusiveGatewayActivityBehavior.class,
+            ParallelGatewayActivityBehavior.class);
+
+    private final StraightThroughRegistry registry;
+
+    public StraightThroughParseListener(StraightThroughRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void parseProcess(Element processElement, ProcessDefinitionEntity processDefinition) {
+        String key = processDefinition.getKey();
+        if (!registry.isConfigured(key)) {
+            return;
+        }
+
+        Optional<ActivityImpl> waitState = findWaitState(processDefinition);
+        if (waitState.isPresent()) {
+            registry.deactivate(key);
+            logger.warn("Process '{}' has a wait state at activity '{}', running it with full persistence",
+                       key, waitState.get().getId());
+        } else {
+            registry.activate(key);
+            logger.info("Process '{}' runs straight-through (single audit record, no history rows)", key);
+        }
+    }
+
+    private Optional<ActivityImpl> findWaitState(ScopeImpl scope) {
+        for (ActivityImpl activity : scope.getActivities()) {
+            ActivityBehavior behavior = activity.getActivityBehavior();
+            if (activity.isAsyncBefore() || activity.isAsyncAfter()
+                    || behavior == null || !SYNCHRONOUS_BEHAVIORS.contains(behavior.getClass())) {
+                return Optional.of(activity);
+            }
+            Optional<ActivityImpl> nested = findWaitState(activity);
+            if (nested.isPresent()) {
+                return nested;
+            }
+        }
+        return Optional.empty();
+    }
+}
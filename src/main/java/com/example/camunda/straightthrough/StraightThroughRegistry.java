@@ -0,0 +1,46 @@
+package com.example.camunda.straightthrough;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Processus exécutés en mode straight-through : configurés dans app.process.straight-through.process-keys
+ * et reconnus sans état d'attente au parsing (sinon exécution normale, avec historique complet).
+ */
+@Component
+public class StraightThroughRegistry {
+
+    private final Set<String> configuredKeys;
+    private final Set<String> activeKeys = ConcurrentHashMap.newKeySet();
+
+    public StraightThroughRegistry(@Value("${app.process.straight-through.process-keys:}") List<String> processKeys) {
+        this.configuredKeys = new HashSet<>(processKeys);
+        this.configuredKeys.remove("");
+    }
+
+    public boolean isConfigured(String processDefinitionKey) {
+        return configuredKeys.contains(processDefinitionKey);
+    }
+
+    public boolean isStraightThrough(String processDefinitionKey) {
+        return processDefinitionKey != null && activeKeys.contains(processDefinitionKey);
+    }
+
+    public Set<String> getActiveKeys() {
+        return Collections.unmodifiableSet(activeKeys);
+    }
+
+    void activate(String processDefinitionKey) {
+        activeKeys.add(processDefinitionKey);
+    }
+
+    void deactivate(String processDefinitionKey) {
+        activeKeys.remove(processDefinitionKey);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.camunda.threads;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Diagnostic d'épinglage des threads virtuels : un thread virtuel bloqué dans un bloc synchronized
+ * (ou du code natif) garde son thread porteur. Les événements JFR jdk.VirtualThreadPinned au-delà du seuil
+ * sont regroupés par pile d'appels (les premières frames hors JDK), pour repérer les verrous du chemin
+ * JDBC / H2 / Hikari / moteur à remplacer ou à sortir du chemin chaud.
+ */
+@Component
+@ConditionalOnProperty(name = "app.threads.pinning-monitor.enabled", havingValue = "true")
+public class PinnedThreadMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+
+    private static final int SIGNATURE_FRAMES = 6;
+
+    @Value("${app.threads.pinning-monitor.threshold-ms:20}")
+    private long thresholdMillis;
+
+    private final Map<String, PinnedSite> sites = new ConcurrentHashMap<>();
+    private RecordingStream recordingStream;
+
+    @PostConstruct
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable("jdk.VirtualThreadPinned")
+                .withThreshold(Duration.ofMillis(thresholdMillis))
+                .withStackTrace();
+        recordingStream.onEvent("jdk.VirtualThreadPinned", this::record);
+        recordingStream.startAsync();
+        logger.info("Virtual thread pinning monitor started (threshold {} ms)", thresholdMillis);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void record(RecordedEvent event) {
+        String signature = signature(event.getStackTrace());
+        sites.computeIfAbsent(signature, key -> new PinnedSite()).add(event.getDuration());
+    }
+
+    /**
+     * Sites d'épinglage, du plus coûteux (durée cumulée) au moins coûteux
+     */
+    public List<Map<String, Object>> snapshot() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        sites.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, PinnedSite> entry) -> entry.getValue().totalNanos.sum()).reversed())
+                .forEach(entry -> {
+                    Map<String, Object> site = new LinkedHashMap<>();
+                    site.put("count", entry.getValue().count.sum());
+                    site.put("totalMillis", entry.getValue().totalNanos.sum() / 1_000_000);
+                    site.put("maxMillis", entry.getValue().maxNanos / 1_000_000);
+                    site.put("stack", List.of(entry.getKey().split("\n")));
+                    result.add(site);
+                });
+        return result;
+    }
+
+    public void reset() {
+        sites.clear();
+    }
+
+    public long getThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    private static String signature(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "<no stack trace>";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        // Les frames du haut sont celles du parking (VirtualThread, LockSupport...) : on cherche le code appelant
+        int first = 0;
+        while (first < frames.size() && isJdkFrame(frames.get(first))) {
+            first++;
+        }
+        return frames.subList(Math.min(first, frames.size()), Math.min(first + SIGNATURE_FRAMES, frames.size()))
+                .stream()
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static boolean isJdkFrame(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.");
+    }
+
+    private static class PinnedSite {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private volatile long maxNanos;
+
+        void add(Duration duration) {
+            long nanos = duration.toNanos();
+            count.increment();
+            totalNanos.add(nanos);
+            if (nanos > maxNanos) {
+                maxNanos = nanos;
+            }
+        }
+    }
+}
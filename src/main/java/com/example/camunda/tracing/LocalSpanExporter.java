@@ -0,0 +1,185 @@
+package com.example.camunda.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Export local des spans, sans collecteur : les derniers spans en mémoire (app.tracing.buffer-size) pour
+ * GET /api/traces, et si app.tracing.file est renseigné, un span JSON par ligne dans ce fichier.
+ * Appelé par le BatchSpanProcessor d'OpenTelemetry, hors des threads des requêtes.
+ */
+@Component
+public class LocalSpanExporter implements SpanExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalSpanExporter.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.tracing.buffer-size:10000}")
+    private int bufferSize;
+
+    @Value("${app.tracing.file:}")
+    private String file;
+
+    // Protégé par this
+    private final Deque<SpanRecord> spans = new ArrayDeque<>();
+    private BufferedWriter writer;
+
+    /**
+     * Span terminé, dans une forme sérialisable (durées en microsecondes)
+     */
+    public record SpanRecord(String traceId, String spanId, String parentSpanId, String name, String kind,
+                             long startEpochMicros, long durationMicros, String status,
+                             Map<String, String> attributes) {
+    }
+
+    @PostConstruct
+    public synchronized void openFile() throws IOException {
+        if (!file.isBlank()) {
+            Path path = Path.of(file);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            logger.info("Exporting spans to {}", path.toAbsolutePath());
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> batch) {
+        for (SpanData data : batch) {
+            SpanRecord span = toRecord(data);
+            spans.addLast(span);
+            if (spans.size() > bufferSize) {
+                spans.removeFirst();
+            }
+            if (writer != null) {
+                try {
+                    writer.write(objectMapper.writeValueAsString(span));
+                    writer.newLine();
+                } catch (IOException e) {
+                    logger.warn("Could not write span to {}: {}", file, e.getMessage());
+                    return CompletableResultCode.ofFailure();
+                }
+            }
+        }
+        return flush();
+    }
+
+    @Override
+    public synchronized CompletableResultCode flush() {
+        if (writer != null) {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                logger.warn("Could not flush spans to {}: {}", file, e.getMessage());
+                return CompletableResultCode.ofFailure();
+            }
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                return CompletableResultCode.ofFailure();
+            } finally {
+                writer = null;
+            }
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * Dernières traces, la plus récente en premier : span racine (ou le plus ancien), durée et nombre de spans
+     */
+    public List<Map<String, Object>> recentTraces(int limit) {
+        Map<String, List<SpanRecord>> byTrace = new HashMap<>();
+        synchronized (this) {
+            spans.forEach(span -> byTrace.computeIfAbsent(span.traceId(), id -> new ArrayList<>()).add(span));
+        }
+        List<Map<String, Object>> traces = new ArrayList<>();
+        byTrace.forEach((traceId, traceSpans) -> {
+            SpanRecord root = traceSpans.stream()
+                    .filter(span -> span.parentSpanId() == null)
+                    .findFirst()
+                    .orElseGet(() -> traceSpans.stream()
+                            .min(Comparator.comparingLong(SpanRecord::startEpochMicros)).orElseThrow());
+            long end = traceSpans.stream()
+                    .mapToLong(span -> span.startEpochMicros() + span.durationMicros()).max().orElse(0);
+            long start = traceSpans.stream().mapToLong(SpanRecord::startEpochMicros).min().orElse(0);
+
+            Map<String, Object> trace = new LinkedHashMap<>();
+            trace.put("traceId", traceId);
+            trace.put("root", root.name());
+            trace.put("startEpochMicros", start);
+            trace.put("durationMicros", end - start);
+            trace.put("spans", traceSpans.size());
+            trace.put("errors", traceSpans.stream().filter(span -> "ERROR".equals(span.status())).count());
+            traces.add(trace);
+        });
+        traces.sort(Comparator.comparingLong((Map<String, Object> trace) -> (long) trace.get("startEpochMicros"))
+                .reversed());
+        return traces.subList(0, Math.min(limit, traces.size()));
+    }
+
+    /**
+     * Spans d'une trace, par ordre de début
+     */
+    public List<SpanRecord> trace(String traceId) {
+        List<SpanRecord> trace = new ArrayList<>();
+        synchronized (this) {
+            spans.stream().filter(span -> span.traceId().equals(traceId)).forEach(trace::add);
+        }
+        trace.sort(Comparator.comparingLong(SpanRecord::startEpochMicros));
+        return trace;
+    }
+
+    public synchronized void reset() {
+        spans.clear();
+    }
+
+    private static SpanRecord toRecord(SpanData data) {
+        Map<String, String> attributes = new TreeMap<>();
+        data.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), String.valueOf(value)));
+        String parentSpanId = data.getParentSpanId();
+        return new SpanRecord(data.getTraceId(), data.getSpanId(),
+                SpanId.isValid(parentSpanId) ? parentSpanId : null,
+                data.getName(), data.getKind().name(),
+                data.getStartEpochNanos() / 1_000,
+                (data.getEndEpochNanos() - data.getStartEpochNanos()) / 1_000,
+                data.getStatus().getStatusCode().name(),
+                attributes);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.camunda.tracing;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Spans du chemin requête → moteur → délégué → shard. Le contexte de trace du démarrage de chaque instance est
+ * gardé en mémoire (borné, par nœud) : les délégués exécutés plus tard par le job executor ou le worker external
+ * tasks se rattachent ainsi à la trace de la requête d'origine. Sans traceur (management.tracing.enabled=false),
+ * tous les spans sont des no-op.
+ */
+@Component
+public class ProcessTracing {
+
+    /**
+     * Travail exécuté dans un span
+     */
+    @FunctionalInterface
+    public interface Traced<T, E extends Throwable> {
+        T call() throws E;
+    }
+
+    @Autowired
+    private ObjectProvider<Tracer> tracerProvider;
+
+    @Value("${app.tracing.max-instances:10000}")
+    private int maxInstances;
+
+    private Tracer tracer = Tracer.NOOP;
+
+    // Ordre d'accès : au-delà de maxInstances, l'instance la moins récemment utilisée est oubliée.
+    // Protégé par son propre moniteur
+    private final Map<String, TraceContext> instances = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TraceContext> eldest) {
+            return size() > maxInstances;
+        }
+    };
+
+    @PostConstruct
+    public void resolveTracer() {
+        tracer = tracerProvider.getIfAvailable(() -> Tracer.NOOP);
+    }
+
+    /**
+     * Nouveau span, enfant du span courant s'il y en a un (sinon racine d'une nouvelle trace)
+     */
+    public Span start(String name) {
+        return tracer.nextSpan().name(name).start();
+    }
+
+    /**
+     * Span enfant du span courant, ou null hors trace : une requête isolée (chargement de données, tâche planifiée)
+     * ne crée pas de trace à elle seule
+     */
+    public Span startChild(String name) {
+        return tracer.currentSpan() != null ? start(name) : null;
+    }
+
+    /**
+     * Span enfant du span courant, sinon du démarrage de l'instance (job asynchrone), sinon null
+     */
+    public Span startForInstance(String name, String processInstanceId) {
+        if (tracer.currentSpan() != null) {
+            return start(name);
+        }
+        TraceContext parent = null;
+        if (processInstanceId != null) {
+            synchronized (instances) {
+                parent = instances.get(processInstanceId);
+            }
+        }
+        return parent != null ? tracer.spanBuilder().setParent(parent).name(name).start() : null;
+    }
+
+    /**
+     * Exécute le travail avec le span comme span courant, puis le termine (erreur comprise) ; span null : sans trace
+     */
+    @SuppressWarnings("try") // scope n'est utilisé que pour sa fermeture
+    public <T, E extends Throwable> T inSpan(Span span, Traced<T, E> work) throws E {
+        if (span == null) {
+            return work.call();
+        }
+        try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+            return work.call();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Ajoute un tag au span courant, s'il y en a un
+     */
+    public void tagCurrent(String key, String value) {
+        Span current = tracer.currentSpan();
+        if (current != null && value != null) {
+            current.tag(key, value);
+        }
+    }
+
+    /**
+     * Associe le span courant à l'instance qui démarre
+     */
+    public void remember(String processInstanceId) {
+        Span current = tracer.currentSpan();
+        if (current != null) {
+            synchronized (instances) {
+                instances.put(processInstanceId, current.context());
+            }
+        }
+    }
+
+    public void forget(String processInstanceId) {
+        synchronized (instances) {
+            instances.remove(processInstanceId);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.camunda.tracing;
+
+import org.camunda.bpm.engine.impl.cmd.StartProcessInstanceCmd;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandInterceptor;
+
+/**
+ * Span camunda.start-process-instance autour de chaque démarrage d'instance (startProcessInstanceByKey et
+ * constructeurs d'instanciation), transaction du moteur et commit compris. Placé avant l'intercepteur
+ * transactionnel ; les autres commandes (acquisition de jobs, requêtes) ne sont pas tracées.
+ */
+public class TracingCommandInterceptor extends CommandInterceptor {
+
+    private final ProcessTracing tracing;
+
+    public TracingCommandInterceptor(ProcessTracing tracing) {
+        this.tracing = tracing;
+    }
+
+    @Override
+    public <T> T execute(Command<T> command) {
+        if (!(command instanceof StartProcessInstanceCmd)) {
+            return next.execute(command);
+        }
+        return tracing.inSpan(tracing.start("camunda.start-process-instance"), () -> next.execute(command));
+    }
+}
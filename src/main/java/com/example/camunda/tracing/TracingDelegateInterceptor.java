@@ -0,0 +1,38 @@
+package com.example.camunda.tracing;
+
+import io.micrometer.tracing.Span;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.impl.bpmn.delegate.JavaDelegateInvocation;
+import org.camunda.bpm.engine.impl.delegate.DefaultDelegateInterceptor;
+import org.camunda.bpm.engine.impl.delegate.DelegateInvocation;
+
+/**
+ * Span camunda.delegate autour de chaque JavaDelegate (service tasks), tagué avec l'activité et l'instance.
+ * Les listeners, expressions et conditions passent aussi par l'intercepteur mais ne sont pas tracés.
+ */
+public class TracingDelegateInterceptor extends DefaultDelegateInterceptor {
+
+    private final ProcessTracing tracing;
+
+    public TracingDelegateInterceptor(ProcessTracing tracing) {
+        this.tracing = tracing;
+    }
+
+    @Override
+    public void handleInvocation(DelegateInvocation invocation) throws Exception {
+        if (!(invocation instanceof JavaDelegateInvocation)
+                || !(invocation.getContextExecution() instanceof DelegateExecution execution)) {
+            super.handleInvocation(invocation);
+            return;
+        }
+        Span span = tracing.startForInstance("camunda.delegate", execution.getProcessInstanceId());
+        if (span != null) {
+            span.tag("activity.id", execution.getCurrentActivityId());
+            span.tag("process.instance.id", execution.getProcessInstanceId());
+        }
+        tracing.inSpan(span, () -> {
+            super.handleInvocation(invocation);
+            return null;
+        });
+    }
+}
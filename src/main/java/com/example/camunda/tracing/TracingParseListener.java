@@ -0,0 +1,55 @@
+package com.example.camunda.tracing;
+
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.ExecutionListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.AbstractBpmnParseListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.impl.util.xml.Element;
+
+/**
+ * Début et fin de chaque instance : le span du démarrage est tagué avec le processus et l'instance, et son
+ * contexte gardé pour les jobs asynchrones de l'instance jusqu'à sa fin (ou l'annulation de la transaction).
+ */
+public class TracingParseListener extends AbstractBpmnParseListener {
+
+    private final ProcessTracing tracing;
+
+    public TracingParseListener(ProcessTracing tracing) {
+        this.tracing = tracing;
+    }
+
+    @Override
+    public void parseProcess(Element processElement, ProcessDefinitionEntity processDefinition) {
+        String processDefinitionKey = processDefinition.getKey();
+        processDefinition.addBuiltInListener(ExecutionListener.EVENTNAME_START,
+                (ExecutionListener) execution -> onProcessStart(execution, processDefinitionKey));
+        processDefinition.addBuiltInListener(ExecutionListener.EVENTNAME_END,
+                (ExecutionListener) execution -> onProcessEnd(execution));
+    }
+
+    private void onProcessStart(DelegateExecution execution, String processDefinitionKey) {
+        if (!((ExecutionEntity) execution).isProcessInstanceExecution()) {
+            return;
+        }
+        String processInstanceId = execution.getProcessInstanceId();
+        tracing.tagCurrent("process.key", processDefinitionKey);
+        tracing.tagCurrent("process.instance.id", processInstanceId);
+        tracing.remember(processInstanceId);
+
+        CommandContext commandContext = Context.getCommandContext();
+        if (commandContext != null) {
+            commandContext.getTransactionContext()
+                    .addTransactionListener(TransactionState.ROLLED_BACK, context -> tracing.forget(processInstanceId));
+        }
+    }
+
+    private void onProcessEnd(DelegateExecution execution) {
+        if (((ExecutionEntity) execution).isProcessInstanceExecution()) {
+            tracing.forget(execution.getProcessInstanceId());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.camunda.web;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Enveloppe typée des réponses (success, message, data, count), mêmes champs que les anciennes HashMap.
+ * Les champs null ne sont pas écrits.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ApiResponse<T>(boolean success, String message, T data, Long count) {
+
+    public static <T> ApiResponse<T> ok(T data, String message) {
+        return new ApiResponse<>(true, message, data, null);
+    }
+
+    public static <T> ApiResponse<List<T>> list(List<T> data, String message) {
+        return new ApiResponse<>(true, message, data, (long) data.size());
+    }
+
+    public static <T> ApiResponse<T> count(long count, String message) {
+        return new ApiResponse<>(true, message, null, count);
+    }
+
+    public static <T> ApiResponse<T> message(String message) {
+        return new ApiResponse<>(true, message, null, null);
+    }
+
+    public static <T> ApiResponse<T> error(String message) {
+        return new ApiResponse<>(false, message, null, null);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.camunda.web;
+
+import com.example.camunda.service.AgeRoutingBatchService;
+import com.example.camunda.service.IdempotencyIndex;
+import com.example.camunda.service.ShardVersions;
+import com.example.camunda.statistics.ProcessStatisticsRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Requêtes conditionnelles des lectures interrogées en boucle par les tableaux de bord (listes et statistiques
+ * de personnes, statistiques de processus). L'ETag est dérivé de la version des données lues (ShardVersions,
+ * compteurs de processus), pas du corps : If-None-Match répond 304 avant le contrôleur, sans aucune requête.
+ * Les ETags sont faibles (W/) : ils désignent un état des données et non des octets, et Tomcat ne compresse
+ * jamais une réponse portant un ETag fort.
+ */
+@Component
+@ConditionalOnProperty(name = "app.http.etag.enabled", havingValue = "true", matchIfMissing = true)
+public class ConditionalGetFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConditionalGetFilter.class);
+
+    private static final String PERSON_PROCESS_KEY = "person-process";
+
+    // Les versions repartent de 0 à chaque démarrage : l'instant de démarrage distingue les ETags d'un nœud à l'autre
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<String, Supplier<String>> versions;
+
+    @Autowired
+    public ConditionalGetFilter(ShardVersions shardVersions, ProcessStatisticsRegistry statisticsRegistry,
+                                IdempotencyIndex idempotencyIndex) {
+        Supplier<String> adults = () -> "a" + shardVersions.getVersion(ShardVersions.ADULTS);
+        Supplier<String> minors = () -> "m" + shardVersions.getVersion(ShardVersions.MINORS);
+        this.versions = Map.of(
+                "/api/persons", adults,
+                "/api/persons/count", adults,
+                "/api/persons/adults", adults,
+                "/api/persons/minors", minors,
+                "/api/persons/statistics", () -> adults.get() + minors.get(),
+                "/api/process/instances",
+                () -> "p" + statisticsRegistry.counters(PERSON_PROCESS_KEY).getVersion(),
+                "/api/process/age-routing/statistics",
+                () -> "r" + statisticsRegistry.counters(AgeRoutingBatchService.PROCESS_KEY).getVersion()
+                        + "i" + idempotencyIndex.getVersion());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("GET".equals(method) || "HEAD".equals(method)) || !versions.containsKey(pathOf(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Version lue avant les données : au pire une réponse plus récente que son ETag, jamais l'inverse
+        String etag = "W/\"" + epoch + "-" + versions.get(pathOf(request)).get() + "\"";
+
+        if (matches(request.getHeaders(HttpHeaders.IF_NONE_MATCH), etag)) {
+            logger.debug("Not modified: {} {}", request.getRequestURI(), etag);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            return;
+        }
+
+        ETagResponse tagged = new ETagResponse(response, etag);
+        chain.doFilter(request, tagged);
+        // Réponses sans corps lu par le filtre (HEAD)
+        tagged.tag();
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * Comparaison faible (RFC 9110) : W/ ignoré, liste de valeurs séparées par des virgules, "*"
+     */
+    private static boolean matches(Enumeration<String> ifNoneMatch, String etag) {
+        String opaque = etag.substring(2);
+        while (ifNoneMatch.hasMoreElements()) {
+            for (String candidate : ifNoneMatch.nextElement().split(",")) {
+                String value = candidate.trim();
+                if (value.equals("*")) {
+                    return true;
+                }
+                if (value.startsWith("W/")) {
+                    value = value.substring(2);
+                }
+                if (value.equals(opaque)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Pose l'ETag au moment où les en-têtes partent, et seulement sur un succès : une erreur 500 ne doit pas
+     * être reprise comme représentation valide par le client.
+     */
+    private static final class ETagResponse extends HttpServletResponseWrapper {
+
+        private final String etag;
+        private boolean decided;
+
+        private ETagResponse(HttpServletResponse response, String etag) {
+            super(response);
+            this.etag = etag;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            tag();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            tag();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            tag();
+            super.flushBuffer();
+        }
+
+        private void tag() {
+            if (decided || isCommitted()) {
+                return;
+            }
+            decided = true;
+            if (getStatus() >= 200 && getStatus() < 300) {
+                setHeader(HttpHeaders.ETAG, etag);
+                setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            }
+        }
+    }
+}
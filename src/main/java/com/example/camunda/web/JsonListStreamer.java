@@ -0,0 +1,85 @@
+package com.example.camunda.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Listes écrites dans la réponse au fur et à mesure de leur lecture : {"success":true,"data":[...],"count":n,
+ * "message":...}, sans liste ni HashMap intermédiaires. L'écriture a lieu après le retour du contrôleur,
+ * sur le thread MVC asynchrone : une erreur en cours de route coupe la réponse (JSON incomplet, jamais refermé
+ * artificiellement) au lieu de renvoyer un 500.
+ */
+@Component
+public class JsonListStreamer {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonListStreamer.class);
+
+    /**
+     * Producteur des éléments : appelle le consommateur pour chacun, dans l'ordre de la réponse
+     */
+    @FunctionalInterface
+    public interface Source<T> {
+        void forEach(Consumer<T> consumer);
+    }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public <T> ResponseEntity<StreamingResponseBody> list(Class<T> type, Source<T> source, String message,
+                                                          Map<String, Object> extraFields) {
+        // Pas de flush après chaque élément : le générateur et Tomcat envoient par blocs
+        ObjectWriter writer = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            long count = 0;
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+                generator.writeStartObject();
+                generator.writeBooleanField("success", true);
+                generator.writeArrayFieldStart("data");
+                // Un seul SequenceWriter : sérialiseur résolu une fois, pas un contexte par élément
+                SequenceWriter sequence = writer.writeValues(generator);
+                long[] written = {0};
+                source.forEach(item -> {
+                    try {
+                        sequence.write(item);
+                        written[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                count = written[0];
+                generator.writeEndArray();
+                generator.writeNumberField("count", count);
+                generator.writeStringField("message", message);
+                for (Map.Entry<String, Object> field : extraFields.entrySet()) {
+                    generator.writeObjectField(field.getKey(), field.getValue());
+                }
+                generator.writeEndObject();
+            } catch (UncheckedIOException e) {
+                // Client parti en cours de route
+                logger.warn("{} list stream interrupted: {}", type.getSimpleName(), e.getCause().getMessage());
+                throw e.getCause();
+            } catch (RuntimeException e) {
+                logger.error("Error streaming {} list", type.getSimpleName(), e);
+                throw e;
+            }
+            logger.info("Streamed {} {} items", count, type.getSimpleName());
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
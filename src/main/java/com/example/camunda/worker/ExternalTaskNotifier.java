@@ -0,0 +1,85 @@
+package com.example.camunda.worker;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Long polling en mémoire : le moteur signale la création d'une external task (après commit),
+ * les workers d'un topic sans travail attendent ce signal au lieu d'interroger la base en boucle.
+ */
+@Component
+public class ExternalTaskNotifier {
+
+    private final Map<String, TopicSignal> signals = new ConcurrentHashMap<>();
+    private final Set<String> topics = ConcurrentHashMap.newKeySet();
+    private final List<Consumer<String>> topicListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Topic découvert au parsing d'un processus, éventuellement après le démarrage
+     * (déploiement en arrière-plan, définition chargée à la première utilisation)
+     */
+    public void registerTopic(String topic) {
+        signal(topic);
+        if (topics.add(topic)) {
+            topicListeners.forEach(listener -> listener.accept(topic));
+        }
+    }
+
+    public Set<String> getTopics() {
+        return topics;
+    }
+
+    /**
+     * Appelé pour chaque nouveau topic enregistré après l'abonnement
+     */
+    public void addTopicListener(Consumer<String> listener) {
+        topicListeners.add(listener);
+    }
+
+    public void notifyTaskCreated(String topic) {
+        TopicSignal signal = signal(topic);
+        synchronized (signal) {
+            signal.generation++;
+            signal.notifyAll();
+        }
+    }
+
+    /**
+     * Génération courante du topic, à lire avant un fetchAndLock
+     */
+    public long currentGeneration(String topic) {
+        TopicSignal signal = signal(topic);
+        synchronized (signal) {
+            return signal.generation;
+        }
+    }
+
+    /**
+     * Attend une nouvelle tâche sur le topic depuis la génération donnée, ou la fin du délai
+     */
+    public void awaitTaskCreated(String topic, long seenGeneration, long timeoutMs) throws InterruptedException {
+        TopicSignal signal = signal(topic);
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (signal) {
+            long remaining = timeoutMs;
+            while (signal.generation == seenGeneration && remaining > 0) {
+                signal.wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+        }
+    }
+
+    private TopicSignal signal(String topic) {
+        return signals.computeIfAbsent(topic, t -> new TopicSignal());
+    }
+
+    private static class TopicSignal {
+        private long generation;
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.camunda.worker;
+
+import com.example.camunda.jdbc.QueryRecorder;
+import com.example.camunda.tracing.ProcessTracing;
+import io.micrometer.tracing.Span;
+import jakarta.annotation.PreDestroy;
+import org.camunda.bpm.engine.ExternalTaskService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.camunda.bpm.engine.externaltask.LockedExternalTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Worker external tasks embarqué : pour chaque topic, N threads font du fetchAndLock en long polling,
+ * exécutent le JavaDelegate du même nom (le topic est le nom du bean) et complètent le lot
+ * dans une seule transaction. Pour monter en charge : plus de threads par topic, ou plus d'instances
+ * de l'application avec des workerId différents.
+ * Les topics viennent de la configuration (ou des beans JavaDelegate) au démarrage, puis de chaque
+ * processus parsé ensuite : un nœud qui ne parse jamais le BPMN (base partagée, déploiement inchangé)
+ * traite quand même les tâches créées par les autres.
+ * Un topic dont le délégué porte {@link RequiresProcessEngine} fait échouer le démarrage.
+ */
+@Component
+@ConditionalOnProperty(name = "app.process.external-tasks.enabled", havingValue = "true")
+public class ExternalTaskWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExternalTaskWorker.class);
+
+    @Autowired
+    private ExternalTaskService externalTaskService;
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    private ExternalTaskNotifier notifier;
+
+    @Autowired
+    private ExternalTaskWorkerProperties properties;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProcessTracing tracing;
+
+    @Autowired
+    private QueryRecorder queryRecorder;
+
+    private final Map<String, ExecutorService> executors = new ConcurrentHashMap<>();
+    private TransactionTemplate transactionTemplate;
+    private String workerId;
+    private volatile boolean running;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        workerId = properties.getWorkerId() != null
+                ? properties.getWorkerId()
+                : "worker-" + ManagementFactory.getRuntimeMXBean().getName();
+
+        Set<String> topics = new LinkedHashSet<>(properties.getTopics().isEmpty()
+                ? Stream.of(applicationContext.getBeanNamesForType(JavaDelegate.class))
+                        .filter(topic -> !requiresProcessEngine(topic))
+                        .toList()
+                : properties.getTopics());
+        topics.addAll(notifier.getTopics());
+        List<String> engineBound = topics.stream().filter(this::requiresProcessEngine).toList();
+        if (!engineBound.isEmpty()) {
+            throw new IllegalStateException("Delegates " + engineBound
+                    + " require the process engine and cannot run as external tasks");
+        }
+
+        running = true;
+        notifier.addTopicListener(this::startPolling);
+        topics.forEach(this::startPolling);
+    }
+
+    private boolean requiresProcessEngine(String topic) {
+        return applicationContext.containsBean(topic)
+                && applicationContext.findAnnotationOnBean(topic, RequiresProcessEngine.class) != null;
+    }
+
+    private void startPolling(String topic) {
+        if (!running || executors.containsKey(topic)) {
+            return;
+        }
+        if (!applicationContext.containsBean(topic) || !applicationContext.isTypeMatch(topic, JavaDelegate.class)) {
+            logger.warn("No JavaDelegate bean named '{}', external tasks on this topic are not polled", topic);
+            return;
+        }
+        if (requiresProcessEngine(topic)) {
+            // Topic d'un processus parsé après le démarrage : ses tâches restent en attente
+            logger.error("Delegate '{}' requires the process engine, external tasks on this topic are not polled", topic);
+            return;
+        }
+        executors.computeIfAbsent(topic, t -> {
+            int threads = properties.getConcurrencyFor(topic);
+            AtomicInteger threadCount = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "external-task-" + topic + "-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            for (int i = 0; i < threads; i++) {
+                executor.submit(() -> pollTopic(topic));
+            }
+            logger.info("External task worker {} polling topic '{}' with {} threads", workerId, topic, threads);
+            return executor;
+        });
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (ExecutorService executor : executors.values()) {
+            executor.shutdownNow();
+        }
+        for (ExecutorService executor : executors.values()) {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private void pollTopic(String topic) {
+        JavaDelegate delegate = applicationContext.getBean(topic, JavaDelegate.class);
+
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                long generation = notifier.currentGeneration(topic);
+                List<LockedExternalTask> tasks = externalTaskService
+                        .fetchAndLock(properties.getMaxTasks(), workerId, true)
+                        .topic(topic, properties.getLockDurationMs())
+                        .enableCustomObjectDeserialization()
+                        .execute();
+
+                if (tasks.isEmpty()) {
+                    notifier.awaitTaskCreated(topic, generation, properties.getAsyncResponseTimeoutMs());
+                } else {
+                    handleTasks(delegate, tasks);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.error("Error polling external tasks for topic '{}'", topic, e);
+                sleepQuietly(properties.getRetryTimeoutMs());
+            }
+        }
+    }
+
+    private void handleTasks(JavaDelegate delegate, List<LockedExternalTask> tasks) {
+        List<LockedExternalTask> succeeded = new ArrayList<>();
+        List<LockedTaskExecution> executions = new ArrayList<>();
+
+        for (LockedExternalTask task : tasks) {
+            LockedTaskExecution execution = new LockedTaskExecution(task);
+            try {
+                executeDelegate(delegate, task, execution);
+                succeeded.add(task);
+                executions.add(execution);
+            } catch (Exception e) {
+                reportFailure(task, e);
+            }
+        }
+
+        if (succeeded.isEmpty()) {
+            return;
+        }
+
+        try {
+            // Un seul commit pour toutes les tâches réussies du lot
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < succeeded.size(); i++) {
+                    complete(succeeded.get(i), executions.get(i));
+                }
+            });
+        } catch (RuntimeException batchError) {
+            logger.warn("Batched completion of {} external tasks failed ({}), completing one by one",
+                       succeeded.size(), batchError.getMessage());
+            for (int i = 0; i < succeeded.size(); i++) {
+                LockedExternalTask task = succeeded.get(i);
+                LockedTaskExecution execution = executions.get(i);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> complete(task, execution));
+                } catch (RuntimeException e) {
+                    logger.error("Error completing external task {}: {}", task.getId(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("try") // la portée de comptage n'est utilisée que pour sa fermeture
+    private void executeDelegate(JavaDelegate delegate, LockedExternalTask task, LockedTaskExecution execution)
+            throws Exception {
+        // Rattaché à la trace du démarrage de l'instance (aucun span courant dans ce thread)
+        Span span = tracing.startForInstance("camunda.delegate", task.getProcessInstanceId());
+        if (span != null) {
+            span.tag("activity.id", task.getActivityId());
+            span.tag("process.instance.id", task.getProcessInstanceId());
+        }
+        // Hors commande du moteur : instructions du délégué comptées pour l'instance
+        try (QueryRecorder.Scope ignored = queryRecorder.openInstance(task.getProcessInstanceId())) {
+            tracing.inSpan(span, () -> {
+                delegate.execute(execution.asDelegateExecution());
+                return null;
+            });
+        }
+    }
+
+    private void complete(LockedExternalTask task, LockedTaskExecution execution) {
+        if (!execution.getRemovedVariables().isEmpty()) {
+            runtimeService.removeVariables(task.getExecutionId(), execution.getRemovedVariables());
+        }
+        externalTaskService.complete(task.getId(), workerId, execution.getModifiedVariables());
+    }
+
+    private void reportFailure(LockedExternalTask task, Exception error) {
+        int retries = task.getRetries() != null ? task.getRetries() - 1 : properties.getRetries() - 1;
+        logger.warn("External task {} on topic '{}' failed ({} retries left): {}",
+                   task.getId(), task.getTopicName(), Math.max(retries, 0), error.getMessage());
+        try {
+            externalTaskService.handleFailure(task.getId(), workerId, error.getMessage(),
+                    error.toString(), Math.max(retries, 0), properties.getRetryTimeoutMs());
+        } catch (RuntimeException e) {
+            logger.error("Error reporting failure of external task {}: {}", task.getId(), e.getMessage());
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.camunda.worker;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration du mode external tasks (app.process.external-tasks.*)
+ */
+@Component
+@ConfigurationProperties(prefix = "app.process.external-tasks")
+public class ExternalTaskWorkerProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Identifiant du worker, unique par JVM (hostname-pid par défaut)
+     */
+    private String workerId;
+
+    /**
+     * Nombre maximum de tâches verrouillées par fetchAndLock
+     */
+    private int maxTasks = 10;
+
+    private long lockDurationMs = 60_000;
+
+    /**
+     * Attente maximale d'un fetchAndLock vide avant de réinterroger le moteur (long polling)
+     */
+    private long asyncResponseTimeoutMs = 20_000;
+
+    /**
+     * Nombre de threads par topic, sauf surcharge dans topicConcurrency
+     */
+    private int concurrency = 2;
+
+    /**
+     * Topics interrogés dès le démarrage ; vide = noms des beans JavaDelegate.
+     * Les topics des processus parsés ensuite s'ajoutent automatiquement.
+     */
+    private List<String> topics = new ArrayList<>();
+
+    private Map<String, Integer> topicConcurrency = new HashMap<>();
+
+    private int retries = 3;
+
+    private long retryTimeoutMs = 5_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getWorkerId() {
+        return workerId;
+    }
+
+    public void setWorkerId(String workerId) {
+        this.workerId = workerId;
+    }
+
+    public int getMaxTasks() {
+        return maxTasks;
+    }
+
+    public void setMaxTasks(int maxTasks) {
+        this.maxTasks = maxTasks;
+    }
+
+    public long getLockDurationMs() {
+        return lockDurationMs;
+    }
+
+    public void setLockDurationMs(long lockDurationMs) {
+        this.lockDurationMs = lockDurationMs;
+    }
+
+    public long getAsyncResponseTimeoutMs() {
+        return asyncResponseTimeoutMs;
+    }
+
+    public void setAsyncResponseTimeoutMs(long asyncResponseTimeoutMs) {
+        this.asyncResponseTimeoutMs = asyncResponseTimeoutMs;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public List<String> getTopics() {
+        return topics;
+    }
+
+    public void setTopics(List<String> topics) {
+        this.topics = topics;
+    }
+
+    public Map<String, Integer> getTopicConcurrency() {
+        return topicConcurrency;
+    }
+
+    public void setTopicConcurrency(Map<String, Integer> topicConcurrency) {
+        this.topicConcurrency = topicConcurrency;
+    }
+
+    public int getRetries() {
+        return retries;
+    }
+
+    public void setRetries(int retries) {
+        this.retries = retries;
+    }
+
+    public long getRetryTimeoutMs() {
+        return retryTimeoutMs;
+    }
+
+    public void setRetryTimeoutMs(long retryTimeoutMs) {
+        this.retryTimeoutMs = retryTimeoutMs;
+    }
+
+    public int getConcurrencyFor(String topic) {
+        return topicConcurrency.getOrDefault(topic, concurrency);
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.camunda.worker;
+
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.VariableScope;
+import org.camunda.bpm.engine.externaltask.LockedExternalTask;
+import org.camunda.bpm.engine.variable.VariableMap;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.engine.variable.value.TypedValue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Vue {@link DelegateExecution} d'une external task verrouillée, pour exécuter les JavaDelegate
+ * existants hors du moteur. Toute l'interface {@link VariableScope} est servie par les variables
+ * récupérées au fetchAndLock (sans notion de portée : local et global désignent les mêmes variables) ;
+ * les écritures et suppressions sont collectées puis appliquées au complete().
+ * Les accès au moteur (services, modèle BPMN, incidents...) ne sont pas disponibles : les délégués
+ * qui en ont besoin portent {@link RequiresProcessEngine} et sont refusés au démarrage du worker.
+ */
+class LockedTaskExecution implements VariableScope {
+
+    private final LockedExternalTask task;
+    private final VariableMap variables = Variables.createVariables();
+    private final VariableMap modifiedVariables = Variables.createVariables();
+    private final Set<String> removedVariables = new LinkedHashSet<>();
+
+    LockedTaskExecution(LockedExternalTask task) {
+        this.task = task;
+        this.variables.putAll(task.getVariables());
+    }
+
+    VariableMap getModifiedVariables() {
+        return modifiedVariables;
+    }
+
+    /**
+     * Variables récupérées puis supprimées par le délégué, à retirer de l'exécution avant le complete()
+     */
+    Set<String> getRemovedVariables() {
+        return removedVariables;
+    }
+
+    DelegateExecution asDelegateExecution() {
+        return (DelegateExecution) Proxy.newProxyInstance(
+                DelegateExecution.class.getClassLoader(),
+                new Class<?>[]{DelegateExecution.class},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == VariableScope.class) {
+                        try {
+                            return method.invoke(this, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                    return switch (method.getName()) {
+                        case "getId" -> task.getExecutionId();
+                        case "getProcessInstanceId" -> task.getProcessInstanceId();
+                        case "getProcessDefinitionId" -> task.getProcessDefinitionId();
+                        case "getCurrentActivityId" -> task.getActivityId();
+                        case "getActivityInstanceId" -> task.getActivityInstanceId();
+                        case "getBusinessKey", "getProcessBusinessKey" -> task.getBusinessKey();
+                        case "getTenantId" -> task.getTenantId();
+                        case "getEventName", "getCurrentTransitionId" -> null;
+                        case "isCanceled" -> false;
+                        case "toString" -> "LockedTaskExecution[" + task.getId() + "]";
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        default -> throw new UnsupportedOperationException(method.getName()
+                                + " needs the process engine, annotate the delegate with @RequiresProcessEngine");
+                    };
+                });
+    }
+
+    @Override
+    public String getVariableScopeKey() {
+        return "execution";
+    }
+
+    @Override
+    public Map<String, Object> getVariables() {
+        return getVariablesTyped();
+    }
+
+    @Override
+    public VariableMap getVariablesTyped() {
+        VariableMap copy = Variables.createVariables();
+        copy.putAll(variables);
+        return copy;
+    }
+
+    @Override
+    public VariableMap getVariablesTyped(boolean deserializeValues) {
+        return getVariablesTyped();
+    }
+
+    @Override
+    public Map<String, Object> getVariablesLocal() {
+        return getVariables();
+    }
+
+    @Override
+    public VariableMap getVariablesLocalTyped() {
+        return getVariablesTyped();
+    }
+
+    @Override
+    public VariableMap getVariablesLocalTyped(boolean deserializeValues) {
+        return getVariablesTyped();
+    }
+
+    @Override
+    public Object getVariable(String variableName) {
+        return variables.get(variableName);
+    }
+
+    @Override
+    public Object getVariableLocal(String variableName) {
+        return getVariable(variableName);
+    }
+
+    @Override
+    public <T extends TypedValue> T getVariableTyped(String variableName) {
+        return variables.getValueTyped(variableName);
+    }
+
+    @Override
+    public <T extends TypedValue> T getVariableTyped(String variableName, boolean deserializeValue) {
+        // Les valeurs objet sont déjà désérialisées au fetchAndLock
+        return getVariableTyped(variableName);
+    }
+
+    @Override
+    public <T extends TypedValue> T getVariableLocalTyped(String variableName) {
+        return getVariableTyped(variableName);
+    }
+
+    @Override
+    public <T extends TypedValue> T getVariableLocalTyped(String variableName, boolean deserializeValue) {
+        return getVariableTyped(variableName);
+    }
+
+    @Override
+    public Set<String> getVariableNames() {
+        return new LinkedHashSet<>(variables.keySet());
+    }
+
+    @Override
+    public Set<String> getVariableNamesLocal() {
+        return getVariableNames();
+    }
+
+    @Override
+    public void setVariable(String variableName, Object value) {
+        variables.put(variableName, value);
+        modifiedVariables.put(variableName, value);
+        removedVariables.remove(variableName);
+    }
+
+    @Override
+    public void setVariableLocal(String variableName, Object value) {
+        setVariable(variableName, value);
+    }
+
+    @Override
+    public void setVariables(Map<String, ? extends Object> variables) {
+        if (variables != null) {
+            variables.forEach(this::setVariable);
+        }
+    }
+
+    @Override
+    public void setVariablesLocal(Map<String, ? extends Object> variables) {
+        setVariables(variables);
+    }
+
+    @Override
+    public boolean hasVariables() {
+        return !variables.isEmpty();
+    }
+
+    @Override
+    public boolean hasVariablesLocal() {
+        return hasVariables();
+    }
+
+    @Override
+    public boolean hasVariable(String variableName) {
+        return variables.containsKey(variableName);
+    }
+
+    @Override
+    public boolean hasVariableLocal(String variableName) {
+        return hasVariable(variableName);
+    }
+
+    @Override
+    public void removeVariable(String variableName) {
+        variables.remove(variableName);
+        modifiedVariables.remove(variableName);
+        if (task.getVariables().containsKey(variableName)) {
+            removedVariables.add(variableName);
+        }
+    }
+
+    @Override
+    public void removeVariableLocal(String variableName) {
+        removeVariable(variableName);
+    }
+
+    @Override
+    public void removeVariables(Collection<String> variableNames) {
+        if (variableNames != null) {
+            new ArrayList<>(variableNames).forEach(this::removeVariable);
+        }
+    }
+
+    @Override
+    public void removeVariablesLocal(Collection<String> variableNames) {
+        removeVariables(variableNames);
+    }
+
+    @Override
+    public void removeVariables() {
+        removeVariables(variables.keySet());
+    }
+
+    @Override
+    public void removeVariablesLocal() {
+        removeVariables();
+    }
+}
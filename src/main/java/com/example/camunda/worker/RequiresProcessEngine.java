@@ -0,0 +1,18 @@
+package com.example.camunda.worker;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marque un JavaDelegate qui utilise l'exécution au-delà de ses variables et identifiants
+ * (services du moteur, modèle BPMN, incidents, instance parente...). Un tel délégué ne peut pas
+ * tourner en external task : le worker refuse de démarrer si l'un de ses topics y correspond.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequiresProcessEngine {
+}
@@ -0,0 +1,184 @@
+package com.example.camunda.admission;
+
+import com.example.camunda.admission.AdaptiveConcurrencyLimiter.Admission;
+import com.example.camunda.admission.AdaptiveConcurrencyLimiter.Rejection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    // Tolérance très large : seules les erreurs serveur font reculer la limite dans ces tests
+    private static final double NO_LATENCY_BACKOFF = 1_000;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(int initialLimit, int minLimit, int maxLimit,
+                                                      int queueSize, long maxWaitMillis) {
+        return new AdaptiveConcurrencyLimiter("test", initialLimit, minLimit, maxLimit, queueSize, maxWaitMillis,
+                NO_LATENCY_BACKOFF, 0.5, 100);
+    }
+
+    private static void awaitQueued(AdaptiveConcurrencyLimiter limiter, int queued) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (limiter.getQueued() != queued && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(limiter.getQueued()).isEqualTo(queued);
+    }
+
+    /** Requête immédiatement terminée, en échec (erreur serveur) ou non */
+    private static void request(AdaptiveConcurrencyLimiter limiter, boolean success) throws InterruptedException {
+        Admission admission = limiter.acquire();
+        assertThat(admission.isAccepted()).isTrue();
+        admission.release(success);
+    }
+
+    @Test
+    void fullQueueIsRejectedImmediately() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1, 1, 5_000);
+        Admission holder = limiter.acquire();
+        Future<Admission> waiting = executor.submit(limiter::acquire);
+        awaitQueued(limiter, 1);
+
+        Admission rejected = limiter.acquire();
+
+        assertThat(rejected.isAccepted()).isFalse();
+        assertThat(rejected.getRejection()).isEqualTo(Rejection.QUEUE_FULL);
+        assertThat(limiter.getRejected(Rejection.QUEUE_FULL)).isEqualTo(1);
+        rejected.release(false);
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+
+        // La place libérée passe à la requête en file
+        holder.release(true);
+        Admission admitted = waiting.get(5, TimeUnit.SECONDS);
+        assertThat(admitted.isAccepted()).isTrue();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(limiter.getQueued()).isZero();
+    }
+
+    @Test
+    void queuedRequestTimesOut() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1, 5, 50);
+        Admission holder = limiter.acquire();
+
+        long start = System.nanoTime();
+        Admission timedOut = limiter.acquire();
+
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(timedOut.getRejection()).isEqualTo(Rejection.QUEUE_TIMEOUT);
+        assertThat(limiter.getRejected(Rejection.QUEUE_TIMEOUT)).isEqualTo(1);
+        assertThat(limiter.getQueued()).isZero();
+        assertThat(limiter.snapshot()).containsEntry("rejectedQueueTimeout", 1L).containsEntry("accepted", 1L);
+        holder.release(true);
+    }
+
+    @Test
+    void serverErrorsDecreaseTheLimitAtMostOncePerInterval() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(16, 1, 32, 0, 0);
+
+        request(limiter, false);
+        assertThat(limiter.getLimit()).isEqualTo(8);
+        // Rafale d'erreurs dans la même fenêtre de 10 ms : une seule réduction
+        request(limiter, false);
+        assertThat(limiter.getLimit()).isEqualTo(8);
+
+        Thread.sleep(20);
+        request(limiter, false);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.snapshot()).containsEntry("dropped", 3L);
+    }
+
+    @Test
+    void decreaseIntervalFollowsTheLongTermLatency() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(16, 1, 32, 0, 0);
+        Admission slow = limiter.acquire();
+        Thread.sleep(300);
+        slow.release(true);
+
+        // Référence long terme ~150 ms après cette erreur rapide
+        request(limiter, false);
+        assertThat(limiter.getLimit()).isEqualTo(8);
+
+        // ~100 ms de référence : 20 ms plus tard, trop tôt pour reculer encore
+        Thread.sleep(20);
+        request(limiter, false);
+        assertThat(limiter.getLimit()).isEqualTo(8);
+
+        // ~75 ms de référence, plus de 150 ms écoulées depuis la dernière réduction
+        Thread.sleep(150);
+        request(limiter, false);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void limitNeverDropsBelowMinLimit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 2, 8, 0, 0);
+
+        for (int i = 0; i < 4; i++) {
+            request(limiter, false);
+            Thread.sleep(20);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void limitNeverGrowsAboveMaxLimit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(3, 1, 5, 0, 0);
+        Deque<Admission> admissions = new ArrayDeque<>();
+
+        // Limite pleinement utilisée : chaque succès l'augmente d'environ 1 / limit
+        for (int i = 0; i < 200; i++) {
+            while (limiter.getInFlight() < (int) limiter.getLimit()) {
+                admissions.add(limiter.acquire());
+            }
+            admissions.poll().release(true);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+        admissions.forEach(admission -> admission.release(true));
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void fixedLimitIgnoresErrorsAndSuccesses() throws Exception {
+        // Limiteur des lots : min = max = limite initiale
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 2, 2, 0, 0);
+
+        Admission first = limiter.acquire();
+        Admission second = limiter.acquire();
+        assertThat(limiter.acquire().getRejection()).isEqualTo(Rejection.QUEUE_FULL);
+        first.release(true);
+        second.release(false);
+        Thread.sleep(20);
+        request(limiter, false);
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void releasingTwiceIsIgnored() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 1, 2, 0, 0);
+        Admission admission = limiter.acquire();
+
+        admission.release(true);
+        admission.release(true);
+
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.retryAfterSeconds()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.camunda.jdbc;
+
+import com.example.camunda.model.Person;
+import com.example.camunda.repository.PersonRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Budgets d'instructions JDBC des endpoints principaux, mesurés avec QueryRecorder.capture()
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.org.camunda=INFO", "logging.level.com.example=INFO"})
+@AutoConfigureMockMvc
+class QueryBudgetIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private QueryRecorder recorder;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Test
+    void getPersonByIdRunsAtMostTwoStatements() throws Exception {
+        Person person = personRepository.findByEmail("john.doe@example.com").orElseThrow();
+        mockMvc.perform(get("/api/persons/{id}", person.getId())).andExpect(status().isOk());
+
+        recorder.capture(() -> mockMvc.perform(get("/api/persons/{id}", person.getId()))
+                        .andExpect(status().isOk()))
+                .assertAtMost(2);
+    }
+
+    @Test
+    void ageRoutingStartStaysWithinBudget() throws Exception {
+        String body = "{\"email\":\"john.doe@example.com\"}";
+        mockMvc.perform(post("/api/process/age-routing/start").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+
+        recorder.capture(() -> mockMvc.perform(post("/api/process/age-routing/start")
+                                .contentType(MediaType.APPLICATION_JSON).content(body))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.success").value(true)))
+                .assertAtMost(40);
+    }
+}
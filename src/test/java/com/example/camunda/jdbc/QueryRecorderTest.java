@@ -0,0 +1,38 @@
+package com.example.camunda.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryRecorderTest {
+
+    @Test
+    void redactReplacesStringLiteralsIncludingEscapedQuotes() {
+        assertThat(QueryRecorder.redact("select * from person where email = 'o''brien@example.com' and city='Paris'"))
+                .isEqualTo("select * from person where email = ? and city=?");
+    }
+
+    @Test
+    void redactReplacesNumbersButKeepsIdentifiers() {
+        assertThat(QueryRecorder.redact("select p1.id from person p1 where p1.age >= 18 and p1.score < -2.5 limit 10"))
+                .isEqualTo("select p1.id from person p1 where p1.age >= ? and p1.score < ? limit ?");
+    }
+
+    @Test
+    void redactKeepsPlaceholdersAndCollapsesWhitespace() {
+        assertThat(QueryRecorder.redact("insert into person (first_name, age)\n\t values (?,   ?)"))
+                .isEqualTo("insert into person (first_name, age) values (?, ?)");
+    }
+
+    @Test
+    void redactTruncatesLongStatements() {
+        String redacted = QueryRecorder.redact("select " + "x, ".repeat(600) + "y from t");
+
+        assertThat(redacted).hasSize(1000 + "...".length()).endsWith("...");
+    }
+
+    @Test
+    void redactToleratesNull() {
+        assertThat(QueryRecorder.redact(null)).isEmpty();
+    }
+}
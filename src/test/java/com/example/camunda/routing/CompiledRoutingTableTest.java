@@ -0,0 +1,149 @@
+package com.example.camunda.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompiledRoutingTableTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 19);
+
+    private static final String RULES = """
+            # Règles de test
+            when country in ("US", "USA") and age < 21 -> MINORS
+            when country = "FR" and dob missing -> MINORS
+            when country = "DE" and age <= 15 -> MINORS
+            when country = "DE" and age > 70 -> MINORS
+            when age < 18 -> MINORS
+            default -> ADULTS
+            """;
+
+    private static CompiledRoutingTable compile(String source) {
+        return CompiledRoutingTable.compile(1, source, RoutingRulesEngine.SHARDS);
+    }
+
+    /** Date de naissance donnant exactement cet âge aujourd'hui (anniversaire le jour même) */
+    private static LocalDate bornYearsAgo(int age) {
+        return TODAY.minusYears(age);
+    }
+
+    @Test
+    void parseErrorsReportTheLineNumber() {
+        assertThatThrownBy(() -> compile("when age < 18 -> MINORS\nwhen age 18 -> ADULTS\ndefault -> ADULTS"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Line 2: unknown condition");
+        assertThatThrownBy(() -> compile("# entête\n\nroute everyone -> ADULTS"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Line 3: expected");
+        assertThatThrownBy(() -> compile("when country in () -> MINORS\ndefault -> ADULTS"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Line 1: unknown condition");
+        assertThatThrownBy(() -> compile("when country in (FR) -> MINORS\ndefault -> ADULTS"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Line 1: empty country list");
+        assertThatThrownBy(() -> compile("when dob missing and age < 18 -> MINORS\ndefault -> ADULTS"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("cannot be combined with 'dob missing'");
+        assertThatThrownBy(() -> compile("when age < 18 -> MINORS"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Missing 'default -> SHARD' rule");
+    }
+
+    @Test
+    void unknownShardTargetIsRejected() {
+        assertThatThrownBy(() -> compile("when age < 18 -> SENIORS\ndefault -> ADULTS"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Line 1: unknown shard SENIORS");
+        // Cible insensible à la casse
+        assertThat(compile("default -> adults").route("FR", bornYearsAgo(10), TODAY)).isEqualTo("ADULTS");
+    }
+
+    @Test
+    void strictLowerBoundSwitchesShardAtEighteen() {
+        CompiledRoutingTable table = compile("when age < 18 -> MINORS\ndefault -> ADULTS");
+
+        assertThat(table.route("FR", bornYearsAgo(17), TODAY)).isEqualTo("MINORS");
+        assertThat(table.route("FR", bornYearsAgo(18), TODAY)).isEqualTo("ADULTS");
+        // Veille du 18e anniversaire : encore 17 ans
+        assertThat(table.route("FR", bornYearsAgo(18).plusDays(1), TODAY)).isEqualTo("MINORS");
+    }
+
+    @Test
+    void inclusiveAndGreaterThanBounds() {
+        CompiledRoutingTable lessOrEqual = compile("when age <= 17 -> MINORS\ndefault -> ADULTS");
+        assertThat(lessOrEqual.route("FR", bornYearsAgo(17), TODAY)).isEqualTo("MINORS");
+        assertThat(lessOrEqual.route("FR", bornYearsAgo(18), TODAY)).isEqualTo("ADULTS");
+
+        CompiledRoutingTable greaterThan = compile("when age > 17 -> ADULTS\ndefault -> MINORS");
+        assertThat(greaterThan.route("FR", bornYearsAgo(17), TODAY)).isEqualTo("MINORS");
+        assertThat(greaterThan.route("FR", bornYearsAgo(18), TODAY)).isEqualTo("ADULTS");
+    }
+
+    @Test
+    void missingDateOfBirthSkipsAgeRules() {
+        CompiledRoutingTable table = compile(RULES);
+
+        // Les règles d'âge impliquent "dob present" : sans date, seule une règle "dob missing" ou default s'applique
+        assertThat(table.route("US", null, TODAY)).isEqualTo("ADULTS");
+        assertThat(table.route("FR", null, TODAY)).isEqualTo("MINORS");
+        assertThat(table.route(null, null, TODAY)).isEqualTo("ADULTS");
+    }
+
+    @Test
+    void futureDateOfBirthIsClampedToAgeZero() {
+        CompiledRoutingTable table = compile(RULES);
+
+        assertThat(table.route("FR", TODAY.plusYears(3), TODAY)).isEqualTo("MINORS");
+        assertThat(compile("when age > 0 -> MINORS\ndefault -> ADULTS").route("FR", TODAY.plusDays(1), TODAY))
+                .isEqualTo("ADULTS");
+    }
+
+    @Test
+    void countrySpecificRulesOverrideTheDefault() {
+        CompiledRoutingTable table = compile(RULES);
+
+        assertThat(table.route("US", bornYearsAgo(20), TODAY)).isEqualTo("MINORS");
+        assertThat(table.route(" usa ", bornYearsAgo(20), TODAY)).isEqualTo("MINORS");
+        assertThat(table.route("US", bornYearsAgo(21), TODAY)).isEqualTo("ADULTS");
+        assertThat(table.route("FR", bornYearsAgo(20), TODAY)).isEqualTo("ADULTS");
+        assertThat(table.route("DE", bornYearsAgo(15), TODAY)).isEqualTo("MINORS");
+        assertThat(table.route("DE", bornYearsAgo(71), TODAY)).isEqualTo("MINORS");
+        assertThat(table.route("DE", bornYearsAgo(70), TODAY)).isEqualTo("ADULTS");
+        assertThat(table.route("IT", bornYearsAgo(71), TODAY)).isEqualTo("ADULTS");
+    }
+
+    @Test
+    void compiledTableAgreesWithInterpretedRules() {
+        CompiledRoutingTable table = compile(RULES);
+        List<RoutingRule> rules = table.getRules();
+        List<String> countries = Arrays.asList("US", "usa", "FR", "DE", " de ", "IT", null);
+
+        for (String country : countries) {
+            assertThat(table.route(country, null, TODAY))
+                    .as("country %s, dob missing", country)
+                    .isEqualTo(interpret(rules, country, null));
+            for (int years = -2; years <= CompiledRoutingTable.MAX_AGE + 5; years++) {
+                for (LocalDate dateOfBirth : List.of(bornYearsAgo(years), bornYearsAgo(years).plusDays(1))) {
+                    int age = Math.max(CompiledRoutingTable.ageAt(dateOfBirth, TODAY), 0);
+                    assertThat(table.route(country, dateOfBirth, TODAY))
+                            .as("country %s, born %s", country, dateOfBirth)
+                            .isEqualTo(interpret(rules, country, age));
+                }
+            }
+        }
+    }
+
+    private static String interpret(List<RoutingRule> rules, String country, Integer age) {
+        String normalized = RoutingRulesParser.normalizeCountry(country);
+        return rules.stream()
+                .filter(rule -> rule.matches(normalized, age))
+                .findFirst()
+                .orElseThrow()
+                .target();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.camunda.serializer;
+
+import com.example.camunda.model.Person;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompactObjectValueSerializerTest {
+
+    private final CompactObjectValueSerializer serializer =
+            new CompactObjectValueSerializer(List.of(new PersonCompactCodec()));
+
+    @Test
+    void roundTripsAllFieldsIncludingDates() {
+        Person person = person();
+
+        assertThat(roundTrip(person)).usingRecursiveComparison().isEqualTo(person);
+    }
+
+    @Test
+    void roundTripsNullFields() {
+        Person empty = new Person();
+        assertThat(roundTrip(empty)).usingRecursiveComparison().isEqualTo(empty);
+
+        Person partial = person();
+        partial.setEmail(null);
+        partial.setDateOfBirth(null);
+        partial.setUpdatedAt(null);
+        Person read = roundTrip(partial);
+        assertThat(read).usingRecursiveComparison().isEqualTo(partial);
+        assertThat(read.getEmail()).isNull();
+        assertThat(read.getDateOfBirth()).isNull();
+        assertThat(read.getUpdatedAt()).isNull();
+    }
+
+    @Test
+    void roundTripsNonAsciiStrings() {
+        Person person = person();
+        person.setFirstName("Zoë-Éléonore");
+        person.setLastName("Łukasiewicz");
+        person.setAddress("東京都千代田区 1-1");
+        person.setCity("Reykjavík 😀");
+
+        assertThat(roundTrip(person)).usingRecursiveComparison().isEqualTo(person);
+    }
+
+    @Test
+    void roundTripsDatesBeforeEpochAndNanoseconds() {
+        Person person = new Person();
+        person.setDateOfBirth(LocalDate.of(1903, 2, 28));
+        person.setCreatedAt(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_999));
+        person.setUpdatedAt(LocalDateTime.of(2100, 1, 1, 0, 0, 0, 1));
+
+        assertThat(roundTrip(person)).usingRecursiveComparison().isEqualTo(person);
+    }
+
+    @Test
+    void writesCodecVersionAsFirstByte() {
+        Person person = new Person();
+        person.setId(5L);
+        person.setFirstName("Ana");
+
+        // Version 1, masque id|firstName, id en varint, puis longueur et octets du prénom
+        assertThat(serializer.serializeToByteArray(person))
+                .containsExactly(1, 0b11, 5, 3, 'A', 'n', 'a');
+    }
+
+    @Test
+    void readsVersionOneValues() {
+        byte[] stored = {1, 0b11, 5, 3, 'A', 'n', 'a'};
+
+        Person read = (Person) serializer.deserializeFromByteArray(stored, Person.class.getName());
+
+        assertThat(read.getId()).isEqualTo(5L);
+        assertThat(read.getFirstName()).isEqualTo("Ana");
+        assertThat(read.getLastName()).isNull();
+    }
+
+    @Test
+    void rejectsNewerFormatVersion() {
+        byte[] bytes = serializer.serializeToByteArray(person());
+        bytes[0] = 2;
+
+        assertThatThrownBy(() -> serializer.deserializeFromByteArray(bytes, Person.class.getName()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("version 2");
+    }
+
+    @Test
+    void rejectsTruncatedValue() {
+        byte[] bytes = serializer.serializeToByteArray(person());
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 3);
+
+        assertThatThrownBy(() -> serializer.deserializeFromByteArray(truncated, Person.class.getName()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void rejectsTypesWithoutCodec() {
+        assertThat(serializer.canSerializeValue("text")).isFalse();
+        assertThatThrownBy(() -> serializer.deserializeFromByteArray(new byte[] {1}, String.class.getName()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Person roundTrip(Person person) {
+        byte[] bytes = serializer.serializeToByteArray(person);
+        return (Person) serializer.deserializeFromByteArray(bytes, Person.class.getName());
+    }
+
+    private static Person person() {
+        Person person = new Person();
+        person.setId(123456L);
+        person.setFirstName("Marie");
+        person.setLastName("Dupont");
+        person.setEmail("marie.dupont@example.com");
+        person.setPhoneNumber("+33111222333");
+        person.setDateOfBirth(LocalDate.of(2006, 7, 11));
+        person.setAddress("100 République Avenue");
+        person.setCity("Bordeaux");
+        person.setCountry("France");
+        person.setCreatedAt(LocalDateTime.of(2024, 1, 15, 10, 30, 12, 345_000_000));
+        person.setUpdatedAt(LocalDateTime.of(2024, 2, 1, 8, 0, 0));
+        return person;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.camunda.serializer;
+
+import com.example.camunda.model.Person;
+import com.example.camunda.repository.PersonRepository;
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.history.HistoricVariableInstance;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoricVariableInstanceEntity;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.variable.Variables;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Choix du sérialiseur par le moteur démarré : une variable Person doit être stockée en binaire compact
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.org.camunda=INFO", "logging.level.com.example=INFO"})
+class CompactSerializationEngineTest {
+
+    @Autowired
+    private ProcessEngine processEngine;
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    private HistoryService historyService;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Test
+    void engineSelectsCompactSerializerForUntypedPerson() {
+        ProcessEngineConfigurationImpl configuration =
+                (ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration();
+
+        // Dans une commande : le choix dépend du format par défaut de la configuration courante
+        String serializer = configuration.getCommandExecutorTxRequired().execute(commandContext ->
+                configuration.getVariableSerializers().findSerializerForValue(Variables.untypedValue(new Person())).getName());
+
+        assertThat(serializer).isEqualTo("compact-binary");
+    }
+
+    @Test
+    void personVariableSetByDelegateIsStoredCompactAndReadBack() {
+        Person stored = personRepository.findByEmail("john.doe@example.com").orElseThrow();
+
+        ProcessInstance instance = runtimeService.startProcessInstanceByKey("age-based-routing-process",
+                Variables.createVariables().putValue("email", stored.getEmail()));
+
+        HistoricVariableInstance variable = historyService.createHistoricVariableInstanceQuery()
+                .processInstanceIdIn(instance.getId())
+                .variableName("person")
+                .singleResult();
+        assertThat(((HistoricVariableInstanceEntity) variable).getSerializerName()).isEqualTo("compact-binary");
+        assertThat(variable.getValue()).isInstanceOf(Person.class);
+        Person read = (Person) variable.getValue();
+        assertThat(read.getId()).isEqualTo(stored.getId());
+        assertThat(read.getEmail()).isEqualTo(stored.getEmail());
+        assertThat(read.getDateOfBirth()).isEqualTo(stored.getDateOfBirth());
+    }
+}
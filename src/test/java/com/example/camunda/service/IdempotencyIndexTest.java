@@ -0,0 +1,259 @@
+package com.example.camunda.service;
+
+import com.example.camunda.events.ProcessEventBroker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyIndexTest {
+
+    private static final String PROCESS = "person-process";
+
+    private ProcessEventBroker eventBroker;
+    private IdempotencyIndex index;
+    private ExecutorService executor;
+
+    private final AtomicInteger starts = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        eventBroker = new ProcessEventBroker(100);
+        index = newIndex(600_000, 100, 5_000);
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        eventBroker.shutdown();
+    }
+
+    private IdempotencyIndex newIndex(long windowMillis, int maxKeys, long inFlightWaitMillis) {
+        IdempotencyIndex idempotencyIndex = new IdempotencyIndex();
+        ReflectionTestUtils.setField(idempotencyIndex, "eventBroker", eventBroker);
+        ReflectionTestUtils.setField(idempotencyIndex, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(idempotencyIndex, "windowMillis", windowMillis);
+        ReflectionTestUtils.setField(idempotencyIndex, "maxKeys", maxKeys);
+        ReflectionTestUtils.setField(idempotencyIndex, "inFlightWaitMillis", inFlightWaitMillis);
+        return idempotencyIndex;
+    }
+
+    /** Démarrage simulé : une instance par appel, terminée si ended */
+    private Function<String, Map<String, Object>> starter(boolean ended) {
+        return businessKey -> {
+            Map<String, Object> response = new HashMap<>();
+            response.put("processInstanceId", "instance-" + starts.incrementAndGet());
+            response.put("businessKey", businessKey);
+            response.put("isEnded", ended);
+            return response;
+        };
+    }
+
+    /** Démarrage bloqué jusqu'au relâchement du verrou, pour garder la clé en cours */
+    private Function<String, Map<String, Object>> blockingStarter(CountDownLatch entered, CountDownLatch release,
+                                                                  RuntimeException failure) {
+        return businessKey -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                starts.incrementAndGet();
+                throw failure;
+            }
+            return starter(true).apply(businessKey);
+        };
+    }
+
+    /** Attend que les répétitions aient trouvé la clé en cours (compteur incrémenté avant l'attente) */
+    private void awaitDeduplicated(long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!Long.valueOf(count).equals(index.getStatistics().get("deduplicated"))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(index.getStatistics()).containsEntry("deduplicated", count);
+    }
+
+    private static Map<String, Object> body(String email) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("email", email);
+        body.put("processingType", "UPDATE");
+        return body;
+    }
+
+    @Test
+    void repeatWithinWindowReturnsTheFirstResponse() throws Exception {
+        Map<String, Object> first = index.startOnce(PROCESS, "key-1", body("a@example.com"), starter(true));
+        // Même corps, clés dans un autre ordre
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("processingType", "UPDATE");
+        reordered.put("email", "a@example.com");
+        Map<String, Object> repeat = index.startOnce(PROCESS, "key-1", reordered, starter(true));
+
+        assertThat(starts).hasValue(1);
+        assertThat(first).containsEntry("deduplicated", false).containsEntry("businessKey", "key-1");
+        assertThat(repeat).containsEntry("deduplicated", true)
+                .containsEntry("processInstanceId", first.get("processInstanceId"));
+        assertThat(index.getStatistics()).containsEntry("started", 1L).containsEntry("deduplicated", 1L);
+
+        // Même clé sur un autre processus : démarrage indépendant
+        index.startOnce("age-routing-process", "key-1", body("a@example.com"), starter(true));
+        assertThat(starts).hasValue(2);
+    }
+
+    @Test
+    void repeatWithDifferentBodyIsRejected() throws Exception {
+        index.startOnce(PROCESS, "key-1", body("a@example.com"), starter(true));
+
+        assertThatThrownBy(() -> index.startOnce(PROCESS, "key-1", body("b@example.com"), starter(true)))
+                .isInstanceOf(IdempotencyIndex.KeyReuseException.class)
+                .hasMessageContaining("key-1");
+        assertThat(starts).hasValue(1);
+    }
+
+    @Test
+    void concurrentRepeatsWaitForTheInFlightStart() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Map<String, Object>> first = executor.submit(() ->
+                index.startOnce(PROCESS, "key-1", body("a@example.com"), blockingStarter(entered, release, null)));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<Future<Map<String, Object>>> repeats = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            repeats.add(executor.submit(() -> index.startOnce(PROCESS, "key-1", body("a@example.com"), starter(true))));
+        }
+        awaitDeduplicated(8);
+        for (Future<Map<String, Object>> repeat : repeats) {
+            assertThat(repeat.isDone()).isFalse();
+        }
+
+        release.countDown();
+        Object instanceId = first.get(5, TimeUnit.SECONDS).get("processInstanceId");
+        for (Future<Map<String, Object>> repeat : repeats) {
+            assertThat(repeat.get(5, TimeUnit.SECONDS))
+                    .containsEntry("processInstanceId", instanceId)
+                    .containsEntry("deduplicated", true);
+        }
+        assertThat(starts).hasValue(1);
+    }
+
+    @Test
+    void repeatGivesUpWhenTheFirstStartIsTooSlow() throws Exception {
+        index = newIndex(600_000, 100, 50);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() ->
+                index.startOnce(PROCESS, "key-1", body("a@example.com"), blockingStarter(entered, release, null)));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> index.startOnce(PROCESS, "key-1", body("a@example.com"), starter(true)))
+                .isInstanceOf(IdempotencyIndex.InFlightException.class)
+                .hasMessageContaining("still in progress");
+        release.countDown();
+    }
+
+    @Test
+    void failedStartReleasesTheKey() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Map<String, Object>> first = executor.submit(() -> index.startOnce(PROCESS, "key-1",
+                body("a@example.com"), blockingStarter(entered, release, new IllegalStateException("engine down"))));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<Map<String, Object>> waiting = executor.submit(() ->
+                index.startOnce(PROCESS, "key-1", body("a@example.com"), starter(true)));
+        awaitDeduplicated(1);
+
+        release.countDown();
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        // La répétition en attente apprend l'échec au lieu de recevoir une réponse
+        assertThatThrownBy(() -> waiting.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IdempotencyIndex.InFlightException.class)
+                .hasMessageContaining("engine down");
+
+        Map<String, Object> retry = index.startOnce(PROCESS, "key-1", body("a@example.com"), starter(true));
+        assertThat(retry).containsEntry("deduplicated", false);
+        assertThat(starts).hasValue(2);
+    }
+
+    @Test
+    void expiredEntryIsReplacedByANewStart() throws Exception {
+        index = newIndex(20, 100, 5_000);
+        Map<String, Object> first = index.startOnce(PROCESS, "key-1", body("a@example.com"), starter(true));
+        Thread.sleep(40);
+
+        // Hors fenêtre, même un autre corps redémarre
+        Map<String, Object> second = index.startOnce(PROCESS, "key-1", body("b@example.com"), starter(true));
+
+        assertThat(second).containsEntry("deduplicated", false);
+        assertThat(second.get("processInstanceId")).isNotEqualTo(first.get("processInstanceId"));
+        assertThat(index.getStatistics()).containsEntry("keys", 1);
+    }
+
+    @Test
+    void maxKeysEvictionStopsAtAnInFlightHead() throws Exception {
+        index = newIndex(600_000, 1, 5_000);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Map<String, Object>> inFlight = executor.submit(() ->
+                index.startOnce(PROCESS, "key-1", body("a@example.com"), blockingStarter(entered, release, null)));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        index.startOnce(PROCESS, "key-2", body("a@example.com"), starter(true));
+        index.startOnce(PROCESS, "key-3", body("a@example.com"), starter(true));
+        // Tête de file en cours : rien n'est évincé malgré maxKeys
+        assertThat(index.getStatistics()).containsEntry("keys", 3);
+
+        release.countDown();
+        inFlight.get(5, TimeUnit.SECONDS);
+        index.startOnce(PROCESS, "key-4", body("a@example.com"), starter(true));
+        assertThat(index.getStatistics()).containsEntry("keys", 2);
+
+        // key-2 évincée : nouveau démarrage
+        assertThat(index.startOnce(PROCESS, "key-2", body("a@example.com"), starter(true)))
+                .containsEntry("deduplicated", false);
+        assertThat(starts).hasValue(5);
+    }
+
+    @Test
+    void repeatReportsTheCompletionOfAnAsyncInstance() throws Exception {
+        Map<String, Object> first = index.startOnce(PROCESS, "key-1", body("a@example.com"), starter(false));
+        String instanceId = (String) first.get("processInstanceId");
+        eventBroker.publish(instanceId, PROCESS, "key-1", "COMPLETED", "EndEvent", 0L, Map.of("isValid", true));
+
+        Map<String, Object> repeat = index.startOnce(PROCESS, "key-1", body("a@example.com"), starter(false));
+
+        assertThat(repeat).containsEntry("isEnded", true).containsEntry("status", "COMPLETED");
+        assertThat(first).containsEntry("isEnded", false);
+    }
+
+    @Test
+    void keyLengthIsValidated() {
+        assertThatThrownBy(() -> index.startOnce(PROCESS, " ", body("a@example.com"), starter(true)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.startOnce(PROCESS, "k".repeat(IdempotencyIndex.MAX_KEY_LENGTH + 1),
+                body("a@example.com"), starter(true)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.camunda.worker;
+
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.externaltask.LockedExternalTask;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.engine.variable.value.IntegerValue;
+import org.camunda.bpm.engine.variable.value.TypedValue;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LockedTaskExecutionTest {
+
+    private LockedTaskExecution executionWith(Map<String, Object> variables) {
+        LockedExternalTask task = mock(LockedExternalTask.class);
+        when(task.getId()).thenReturn("task-1");
+        when(task.getExecutionId()).thenReturn("execution-1");
+        when(task.getVariables()).thenReturn(Variables.fromMap(variables));
+        return new LockedTaskExecution(task);
+    }
+
+    @Test
+    void readsFetchedVariablesThroughTheWholeVariableScope() {
+        DelegateExecution execution = executionWith(Map.of("email", "john.doe@example.com", "age", Variables.integerValue(36)))
+                .asDelegateExecution();
+
+        assertThat(execution.getId()).isEqualTo("execution-1");
+        assertThat(execution.getVariable("email")).isEqualTo("john.doe@example.com");
+        assertThat(execution.getVariableNames()).containsExactlyInAnyOrder("email", "age");
+        assertThat(execution.hasVariableLocal("age")).isTrue();
+        assertThat(execution.getVariablesTyped()).containsKeys("email", "age");
+        IntegerValue age = execution.getVariableTyped("age");
+        assertThat(age.getValue()).isEqualTo(36);
+    }
+
+    @Test
+    void collectsWritesForTheCompletion() {
+        LockedTaskExecution locked = executionWith(Map.of("email", "john.doe@example.com"));
+        DelegateExecution execution = locked.asDelegateExecution();
+
+        execution.setVariable("isValid", true);
+        execution.setVariables(Map.of("validationResult", "ok"));
+        execution.setVariableLocal("targetDatabase", Variables.stringValue("ADULTS"));
+
+        assertThat(locked.getModifiedVariables())
+                .containsOnlyKeys("isValid", "validationResult", "targetDatabase");
+        TypedValue target = execution.getVariableTyped("targetDatabase");
+        assertThat(target.getValue()).isEqualTo("ADULTS");
+        assertThat(locked.getRemovedVariables()).isEmpty();
+    }
+
+    @Test
+    void removalsOnlyTargetFetchedVariables() {
+        LockedTaskExecution locked = executionWith(Map.of("email", "john.doe@example.com", "age", 36));
+        DelegateExecution execution = locked.asDelegateExecution();
+
+        execution.setVariable("temporary", "x");
+        execution.removeVariables(List.of("email", "temporary"));
+
+        assertThat(execution.hasVariable("email")).isFalse();
+        assertThat(execution.getVariableNames()).containsExactly("age");
+        assertThat(locked.getModifiedVariables()).isEmpty();
+        assertThat(locked.getRemovedVariables()).containsExactly("email");
+
+        execution.setVariable("email", "jane.doe@example.com");
+        assertThat(locked.getRemovedVariables()).isEmpty();
+
+        execution.removeVariablesLocal();
+        assertThat(execution.hasVariables()).isFalse();
+        assertThat(locked.getRemovedVariables()).containsExactlyInAnyOrder("email", "age");
+    }
+
+    @Test
+    void engineAccessIsRejected() {
+        DelegateExecution execution = executionWith(Map.of()).asDelegateExecution();
+
+        assertThatThrownBy(execution::getProcessEngineServices)
+                .isInstanceOf(UnsupportedOperationException.class)
+                .hasMessageContaining("@RequiresProcessEngine");
+    }
+}